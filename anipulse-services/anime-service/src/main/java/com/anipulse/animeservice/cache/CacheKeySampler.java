@@ -0,0 +1,97 @@
+package com.anipulse.animeservice.cache;
+
+import com.anipulse.animeservice.config.AnimeCacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampled per-key access counts and serialized sizes, used to report the hottest and largest cache keys.
+ * Tracking is bounded per cache so a key-scanning client cannot grow it without limit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheKeySampler {
+
+    private final AnimeCacheProperties cacheProperties;
+
+    private final Map<String, Map<String, LongAdder>> accessCounts = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Long>> entrySizes = new ConcurrentHashMap<>();
+
+    public record KeyStat(String key, long value) {
+    }
+
+    public void recordAccess(String cacheName, Object key) {
+        AnimeCacheProperties.Metrics metrics = cacheProperties.getMetrics();
+        if (ThreadLocalRandom.current().nextDouble() >= metrics.getAccessSampleRate()) {
+            return;
+        }
+
+        Map<String, LongAdder> counts = accessCounts.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+        String keyString = String.valueOf(key);
+        LongAdder counter = counts.get(keyString);
+        if (counter == null) {
+            if (counts.size() >= metrics.getMaxTrackedKeys()) {
+                return;
+            }
+            counter = counts.computeIfAbsent(keyString, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public void recordSize(String cacheName, Object key, long bytes) {
+        Map<String, Long> sizes = entrySizes.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+        String keyString = String.valueOf(key);
+        if (!sizes.containsKey(keyString) && sizes.size() >= cacheProperties.getMetrics().getMaxTrackedKeys()) {
+            // Only displace tracked keys with something bigger than the current minimum
+            sizes.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .filter(smallest -> smallest.getValue() < bytes)
+                    .ifPresent(smallest -> {
+                        sizes.remove(smallest.getKey());
+                        sizes.put(keyString, bytes);
+                    });
+            return;
+        }
+        sizes.put(keyString, bytes);
+    }
+
+    public void forget(String cacheName, Object key) {
+        String keyString = String.valueOf(key);
+        Map<String, Long> sizes = entrySizes.get(cacheName);
+        if (sizes != null) {
+            sizes.remove(keyString);
+        }
+    }
+
+    public void forgetAll(String cacheName) {
+        entrySizes.remove(cacheName);
+    }
+
+    public List<KeyStat> hottest(String cacheName, int limit) {
+        return accessCounts.getOrDefault(cacheName, Map.of()).entrySet().stream()
+                .map(entry -> new KeyStat(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(KeyStat::value).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public List<KeyStat> largest(String cacheName, int limit) {
+        return entrySizes.getOrDefault(cacheName, Map.of()).entrySet().stream()
+                .map(entry -> new KeyStat(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(KeyStat::value).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        accessCounts.clear();
+        entrySizes.clear();
+    }
+}
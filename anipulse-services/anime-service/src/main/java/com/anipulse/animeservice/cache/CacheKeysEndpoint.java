@@ -0,0 +1,48 @@
+package com.anipulse.animeservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint (/actuator/cachekeys) listing the hottest and largest keys per cache,
+ * based on sampled accesses and sampled serialized sizes
+ */
+@Component
+@Endpoint(id = "cachekeys")
+@RequiredArgsConstructor
+public class CacheKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final CacheManager cacheManager;
+    private final CacheKeySampler keySampler;
+
+    public record CacheKeyReport(List<CacheKeySampler.KeyStat> hottest, List<CacheKeySampler.KeyStat> largest) {
+    }
+
+    @ReadOperation
+    public Map<String, CacheKeyReport> keys(@Nullable Integer limit) {
+        int topK = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        Map<String, CacheKeyReport> report = new TreeMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            report.put(cacheName, new CacheKeyReport(
+                    keySampler.hottest(cacheName, topK),
+                    keySampler.largest(cacheName, topK)));
+        }
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        keySampler.reset();
+    }
+}
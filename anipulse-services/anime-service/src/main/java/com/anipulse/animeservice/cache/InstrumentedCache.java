@@ -0,0 +1,212 @@
+package com.anipulse.animeservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator recording hits, misses, load latency, sampled serialized entry sizes and evictions.
+ * <p>
+ * With {@code @Cacheable} the miss, the method call and the put all happen on the calling thread,
+ * so the load latency is measured from the miss to the matching put.
+ * Redis TTL expirations happen server-side and are not visible here; evictions count explicit
+ * {@code @CacheEvict}/clear calls.
+ */
+public class InstrumentedCache implements Cache {
+
+    private static final long STALE_LOAD_NANOS = Duration.ofMinutes(5).toNanos();
+
+    private final Cache delegate;
+    private final RedisSerializer<Object> valueSerializer;
+    private final CacheKeySampler keySampler;
+    private final double sizeSampleRate;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Counter clears;
+    private final Timer loadTimer;
+    private final DistributionSummary entrySize;
+
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    private record PendingLoad(Object key, long startNanos) {
+    }
+
+    public InstrumentedCache(Cache delegate,
+                             RedisSerializer<Object> valueSerializer,
+                             CacheKeySampler keySampler,
+                             double sizeSampleRate,
+                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.valueSerializer = valueSerializer;
+        this.keySampler = keySampler;
+        this.sizeSampleRate = sizeSampleRate;
+
+        String name = delegate.getName();
+        this.hits = meterRegistry.counter("anime.cache.gets", "cache", name, "result", "hit");
+        this.misses = meterRegistry.counter("anime.cache.gets", "cache", name, "result", "miss");
+        this.puts = meterRegistry.counter("anime.cache.puts", "cache", name);
+        this.evictions = meterRegistry.counter("anime.cache.evictions", "cache", name, "cause", "evict");
+        this.clears = meterRegistry.counter("anime.cache.evictions", "cache", name, "cause", "clear");
+        this.loadTimer = Timer.builder("anime.cache.load")
+                .description("Time from a cache miss to the value being stored")
+                .tag("cache", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.entrySize = DistributionSummary.builder("anime.cache.entry.size")
+                .description("Serialized size of sampled cache entries")
+                .baseUnit("bytes")
+                .tag("cache", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * The decorated cache, for callers that need to reach the store directly (see {@link RedisCacheBulkReader})
+     */
+    public Cache getTargetCache() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        recordLookup(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        recordLookup(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        keySampler.recordAccess(getName(), key);
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } finally {
+                loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+        (loaded[0] ? misses : hits).increment();
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        recordPut(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            recordPut(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        evictions.increment();
+        keySampler.forget(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        keySampler.forget(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        clears.increment();
+        keySampler.forgetAll(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        clears.increment();
+        keySampler.forgetAll(getName());
+        return invalidated;
+    }
+
+    private void recordLookup(Object key, boolean hit) {
+        keySampler.recordAccess(getName(), key);
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+            pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+        }
+    }
+
+    private void recordPut(Object key, Object value) {
+        puts.increment();
+
+        PendingLoad pending = pendingLoad.get();
+        if (pending != null) {
+            pendingLoad.remove();
+            long elapsed = System.nanoTime() - pending.startNanos();
+            if (Objects.equals(pending.key(), key) && elapsed < STALE_LOAD_NANOS) {
+                loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (value != null && ThreadLocalRandom.current().nextDouble() < sizeSampleRate) {
+            byte[] bytes = valueSerializer.serialize(value);
+            if (bytes != null) {
+                entrySize.record(bytes.length);
+                keySampler.recordSize(getName(), key, bytes.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.anipulse.animeservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every cache of the underlying manager in an {@link InstrumentedCache}
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final RedisSerializer<Object> valueSerializer;
+    private final CacheKeySampler keySampler;
+    private final double sizeSampleRate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate,
+                                    RedisSerializer<Object> valueSerializer,
+                                    CacheKeySampler keySampler,
+                                    double sizeSampleRate,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.valueSerializer = valueSerializer;
+        this.keySampler = keySampler;
+        this.sizeSampleRate = sizeSampleRate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n ->
+                new InstrumentedCache(target, valueSerializer, keySampler, sizeSampleRate, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
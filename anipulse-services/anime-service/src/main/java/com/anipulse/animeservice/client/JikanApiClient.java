@@ -3,11 +3,13 @@ package com.anipulse.animeservice.client;
 import com.anipulse.animeservice.config.JikanProperties;
 import com.anipulse.animeservice.dto.jikan.JikanAnimeResponse;
 import com.anipulse.animeservice.dto.jikan.JikanSearchResponse;
+import com.anipulse.animeservice.exception.AnimeNotFoundException;
 import com.anipulse.animeservice.util.JikanRateLimiter;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -30,6 +32,9 @@ public class JikanApiClient {
         return jikanWebClient.get()
                 .uri("/anime/{id}", malId)
                 .retrieve()
+                // A 404 is an answer, not an outage - map it here so callers can cache it negatively
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                        clientResponse -> Mono.error(new AnimeNotFoundException(malId)))
                 .bodyToMono(JikanAnimeResponse.class)
                 .doOnError(error -> log.error("Error fetching anime {}: {}", malId, error.getMessage()));
     }
@@ -86,6 +91,11 @@ public class JikanApiClient {
 
     // Fallback methods
     private Mono<JikanAnimeResponse> getAnimeByIdFallback(Long malId, Exception ex) {
+        // Not an outage - pass it through instead of degrading to an empty response
+        if (ex instanceof AnimeNotFoundException) {
+            log.info("Anime {} does not exist on JIKAN", malId);
+            return Mono.error(ex);
+        }
         log.warn("Fallback triggered for getAnimeById({}): {}", malId, ex.getMessage());
         return Mono.empty();
     }
@@ -0,0 +1,96 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tuning knobs for the anime-service Redis caches
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class AnimeCacheProperties {
+
+    private Warmup warmup = new Warmup();
+
+    private Negative negative = new Negative();
+
+    private Search search = new Search();
+
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Startup warming of the listings every visitor hits first
+     */
+    @Data
+    public static class Warmup {
+        private boolean enabled = true;
+
+        // Top listing types (Jikan "type" param) and how many pages of each to load
+        private List<String> topTypes = List.of("tv", "movie");
+        private int topPages = 2;
+
+        // Pages of the current season to load
+        private int seasonalPages = 2;
+
+        // Number of most-listed anime (by user list entries) to load from the database
+        private int mostListedAnime = 100;
+
+        // Upper bound on Jikan calls spent by the warm-up, spaced out to leave room for live traffic
+        private int maxUpstreamCalls = 12;
+        private Duration upstreamCallInterval = Duration.ofSeconds(1);
+
+        // Hard stop so a slow upstream never keeps the instance out of rotation
+        private Duration maxDuration = Duration.ofMinutes(2);
+    }
+
+    /**
+     * In-process negative cache for MAL IDs that JIKAN could not resolve
+     */
+    @Data
+    public static class Negative {
+        // Confirmed 404 from JIKAN
+        private Duration notFoundTtl = Duration.ofHours(1);
+
+        // Empty circuit-breaker fallback (timeout, 429, 5xx) - retried soon
+        private Duration transientTtl = Duration.ofSeconds(30);
+
+        private int maxSize = 10_000;
+    }
+
+    /**
+     * Reuse of complete cached search results for longer queries
+     */
+    @Data
+    public static class Search {
+        private boolean prefixReuseEnabled = true;
+
+        // Shortest cached prefix that may answer a longer query
+        private int prefixReuseMinLength = 3;
+
+        // Longer queries go straight upstream, probing every prefix is not worth the round trips
+        private int prefixReuseMaxQueryLength = 32;
+
+        // Queries remembered as answered by an approximation, their next miss goes upstream
+        private int maxApproximatedQueries = 10_000;
+    }
+
+    /**
+     * Per-cache instrumentation sampling
+     */
+    @Data
+    public static class Metrics {
+        // Fraction of puts whose value is serialized a second time to measure its size
+        private double sizeSampleRate = 0.1;
+
+        // Fraction of lookups counted towards the hottest-keys report
+        private double accessSampleRate = 0.05;
+
+        // Upper bound of keys tracked per cache for the hottest/largest reports
+        private int maxTrackedKeys = 1000;
+    }
+}
@@ -1,15 +1,21 @@
 package com.anipulse.animeservice.config;
 
+import com.anipulse.animeservice.cache.CacheKeySampler;
+import com.anipulse.animeservice.cache.InstrumentedCacheManager;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
@@ -25,9 +31,12 @@ import java.util.Map;
 public class CacheConfig {
 
     private final JikanProperties jikanProperties;
+    private final AnimeCacheProperties cacheProperties;
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheKeySampler cacheKeySampler,
+                                     MeterRegistry meterRegistry) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.activateDefaultTyping(
@@ -71,11 +80,37 @@ public class CacheConfig {
         cacheConfigurations.put("user-anime-lists",
                 defaultConfig.entryTtl(Duration.ofMinutes(30)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        // Per-user list and rating caches - short, they are evicted on every write anyway
+        cacheConfigurations.put("userAnimeList",
+                defaultConfig.entryTtl(Duration.ofMinutes(10)));
+        cacheConfigurations.put("userAnimeListByStatus",
+                defaultConfig.entryTtl(Duration.ofMinutes(10)));
+        cacheConfigurations.put("userAnimeIds",
+                defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        cacheConfigurations.put("userAnimeMembership",
+                defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        cacheConfigurations.put("userRatings",
+                defaultConfig.entryTtl(Duration.ofMinutes(10)));
+
+        // Per-anime rating caches - shared by every viewer of the anime
+        cacheConfigurations.put("animeRatings",
+                defaultConfig.entryTtl(Duration.ofMinutes(5)));
+
+        // SCAN instead of KEYS when per-user entries are cleaned by pattern (UserListCacheEvictor)
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(1000));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .transactionAware()
                 .build();
+        // Not a bean of its own, so initialize the configured caches here
+        redisCacheManager.afterPropertiesSet();
+
+        // Hits, misses, load latency, entry sizes and evictions per cache name
+        return new InstrumentedCacheManager(redisCacheManager, serializer, cacheKeySampler,
+                cacheProperties.getMetrics().getSizeSampleRate(), meterRegistry);
     }
 }
 
@@ -0,0 +1,27 @@
+package com.anipulse.animeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for community score lookups, so a listing can stop waiting for one
+ * without tying the request thread to the query
+ */
+@Configuration
+@RequiredArgsConstructor
+public class CommunityRatingConfig {
+
+    private final CommunityRatingProperties properties;
+
+    @Bean
+    public ThreadPoolTaskExecutor communityRatingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxConcurrentLookups());
+        executor.setMaxPoolSize(properties.getMaxConcurrentLookups());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("community-rating-");
+        return executor;
+    }
+}
@@ -0,0 +1,23 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.community-ratings")
+@Data
+public class CommunityRatingProperties {
+
+    // Off: search, top and seasonal listings carry JIKAN scores only
+    private boolean enabled = true;
+
+    // Time a listing waits for its community scores before it is served without them
+    private Duration timeout = Duration.ofMillis(100);
+
+    // Lookups run at once, further ones wait in the queue or are skipped when it is full
+    private int maxConcurrentLookups = 8;
+    private int queueCapacity = 100;
+}
@@ -0,0 +1,26 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.leaderboard")
+@Data
+public class LeaderboardProperties {
+
+    // Redis key of the overall board; genre boards and metadata hang off it
+    private String keyPrefix = "leaderboard:community";
+
+    // Bayesian prior: every anime starts with this many virtual ratings at the community mean
+    private double priorWeight = 25;
+
+    // Community mean used until the first rebuild has measured one
+    private double defaultMean = 7.0;
+
+    // Full rebuild (refreshes the community mean every score depends on); plain milliseconds for @Scheduled
+    private long rebuildIntervalMs = 3_600_000;
+    private long initialDelayMs = 30_000;
+
+    private int maxPageSize = 100;
+}
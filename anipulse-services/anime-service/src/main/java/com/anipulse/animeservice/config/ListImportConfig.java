@@ -0,0 +1,28 @@
+package com.anipulse.animeservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for list imports so parsing never runs on request threads
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ListImportConfig {
+
+    private final ListImportProperties properties;
+
+    @Bean
+    public ThreadPoolTaskExecutor listImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxConcurrentImports());
+        executor.setMaxPoolSize(properties.getMaxConcurrentImports());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("list-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,35 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.list-import")
+@Data
+public class ListImportProperties {
+
+    // Parsed entries resolved and written per transaction
+    private int batchSize = 500;
+
+    // Imports parsed in parallel, further uploads wait in the executor queue
+    private int maxConcurrentImports = 2;
+    private int queueCapacity = 20;
+
+    // Delay between background fetch runs (read by @Scheduled, so a plain millisecond value)
+    private long fetchPollIntervalMs = 2000;
+
+    // JIKAN calls spent per fetch run, keeps imports from starving live requests
+    private int maxFetchesPerRun = 5;
+
+    // Wait before retrying an entry whose JIKAN fetch failed
+    private Duration fetchRetryDelay = Duration.ofMinutes(1);
+
+    // A queued or running job without progress for this long lost its instance and is failed
+    private Duration staleJobTimeout = Duration.ofMinutes(15);
+
+    // How long finished jobs stay visible through the status endpoint
+    private Duration jobRetention = Duration.ofHours(1);
+}
@@ -0,0 +1,26 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.list-sync")
+@Data
+public class ListSyncProperties {
+
+    // Re-read this far behind the client's watermark. Covers transactions that committed after a sync
+    // with an earlier updatedAt, and buffered progress bumps, which are written with the time they were made
+    private Duration overlap = Duration.ofSeconds(30);
+
+    // Deletion log is kept this long; older watermarks get fullResyncRequired
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    // More changes than this since the watermark and the client is told to resync instead
+    private int maxChanges = 2000;
+
+    // Delay between tombstone purges (read by @Scheduled, so a plain millisecond value)
+    private long purgeIntervalMs = 3_600_000;
+}
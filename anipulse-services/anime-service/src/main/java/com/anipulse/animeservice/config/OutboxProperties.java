@@ -0,0 +1,33 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+@Data
+public class OutboxProperties {
+
+    // Events locked and published per relay transaction
+    private int batchSize = 200;
+
+    // Delay between relay runs (read by @Scheduled, so a plain millisecond value)
+    private long pollIntervalMs = 100;
+
+    // How long a partial batch may wait for more events before it is published anyway
+    private Duration linger = Duration.ofMillis(200);
+
+    // List-change events packed into one AMQP message
+    private int maxEventsPerMessage = 100;
+
+    // Batches drained per run before yielding, bounds how long one run holds row locks
+    private int maxBatchesPerRun = 10;
+
+    private Duration confirmTimeout = Duration.ofSeconds(5);
+
+    // Pending events above which the relay logs that it is falling behind
+    private long backlogWarningThreshold = 10_000;
+}
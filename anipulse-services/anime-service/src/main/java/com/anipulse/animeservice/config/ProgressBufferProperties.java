@@ -0,0 +1,32 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.progress-buffer")
+@Data
+public class ProgressBufferProperties {
+
+    // Off: PATCH progress writes through immediately
+    private boolean enabled = true;
+
+    // How long the first buffered bump of an entry waits for more bumps before it is written
+    private Duration coalesceWindow = Duration.ofSeconds(2);
+
+    // Delay between flush runs (read by @Scheduled, so a plain millisecond value)
+    private long flushIntervalMs = 500;
+
+    // Entries written per flush transaction
+    private int flushBatchSize = 500;
+
+    // Above this many buffered entries new bumps are written through instead of buffered
+    private int maxPending = 50_000;
+
+    // Full drain attempts on shutdown before falling back to writing entries one at a time
+    private int shutdownFlushAttempts = 3;
+    private Duration shutdownRetryDelay = Duration.ofMillis(500);
+}
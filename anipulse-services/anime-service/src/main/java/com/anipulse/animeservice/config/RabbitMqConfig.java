@@ -9,32 +9,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * anime-service only publishes to anime.exchange; each consumer declares and binds its own queue
+ */
 @Configuration
 public class RabbitMqConfig {
     @Value("${rabbitmq.exchange.name}")
     private String exchange;
 
-    @Value("${rabbitmq.queue.name}")
-    private String queue;
-
-    @Value("${rabbitmq.routing.key}")
-    private String routingKey;
-
-    @Bean
-    public Queue animeQueue() {
-        return new Queue(queue, true);
-    }
-
     @Bean
     public TopicExchange getExchange() {
         return new TopicExchange(exchange);
     }
 
-    @Bean
-    public Binding binding(Queue queue, TopicExchange exchange) {
-        return BindingBuilder.bind(queue).to(exchange).with(routingKey);
-    }
-
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
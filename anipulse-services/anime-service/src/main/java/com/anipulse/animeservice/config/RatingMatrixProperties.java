@@ -0,0 +1,22 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.rating-matrix")
+@Data
+public class RatingMatrixProperties {
+
+    // Delay between merges of this instance's rating writes into the matrix (plain milliseconds for @Scheduled)
+    private long refreshIntervalMs = 5000;
+
+    // Full reload from the rating table, picks up writes made through other instances
+    private Duration reloadInterval = Duration.ofMinutes(10);
+
+    // Upper bound for the k of a similar-users query
+    private int maxResults = 100;
+}
@@ -0,0 +1,23 @@
+package com.anipulse.animeservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.review-votes")
+@Data
+public class ReviewVoteProperties {
+
+    // Redis sets of the users who voted on a review: {keyPrefix}:{animeId}:{authorId}
+    private String keyPrefix = "reviewVoters";
+
+    // Delay between flushes of buffered votes (read by @Scheduled, so a plain millisecond value)
+    private long flushIntervalMs = 1000;
+
+    // Votes written per flush transaction
+    private int flushBatchSize = 1000;
+
+    // Above this many buffered votes new votes are rejected with 503 until the flush catches up
+    private int maxPending = 100_000;
+}
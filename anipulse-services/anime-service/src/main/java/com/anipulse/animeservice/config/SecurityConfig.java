@@ -34,7 +34,14 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/top").permitAll()
                         .requestMatchers(HttpMethod.GET, "/seasonal/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}/scroll").permitAll()
                         .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}/stats").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}/distribution").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}/rank").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/leaderboard").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/leaderboard/genre/{genre}").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/reviews/search").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}/reviews/helpful").permitAll()
 
                         // Actuator endpoints
                         .requestMatchers("/actuator/**").permitAll()
@@ -44,9 +51,13 @@ public class SecurityConfig {
 
                         // PROTECTED: User's rating endpoints
                         .requestMatchers(HttpMethod.POST, "/ratings").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/ratings/anime/{animeId}/reviews/{authorId}/vote").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/ratings/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/ratings/my-rating/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/ratings/my-ratings").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/ratings/my-ratings/scroll").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/ratings/my-ratings/batch").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/ratings/my-ratings/export").authenticated()
                         .requestMatchers(HttpMethod.GET, "/ratings/anime/{animeId}/exists").authenticated()
 
                         // PROTECTED: Recommendation data endpoints (for recommendation-service)
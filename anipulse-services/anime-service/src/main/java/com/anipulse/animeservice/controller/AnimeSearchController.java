@@ -1,6 +1,7 @@
 package com.anipulse.animeservice.controller;
 
 import com.anipulse.animeservice.service.AnimeSearchService;
+import com.anipulse.animeservice.service.CommunityRatingEnricher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +14,12 @@ import org.springframework.web.bind.annotation.RestController;
 public class AnimeSearchController {
 
     private final AnimeSearchService animeSearchService;
+    private final CommunityRatingEnricher communityRatingEnricher;
 
     @GetMapping("/search")
     public ResponseEntity<?> searchAnime(@RequestParam String query,
                                                             @RequestParam(defaultValue = "1") int page) throws InterruptedException {
-        return ResponseEntity.ok(animeSearchService.searchAnime(query, page));
+        return ResponseEntity.ok(communityRatingEnricher.enrich(animeSearchService.searchAnime(query, page)));
     }
 
     @GetMapping("/{malId}")
@@ -28,13 +30,13 @@ public class AnimeSearchController {
     @GetMapping("/top")
     public ResponseEntity<?> getTopAnime(@RequestParam(defaultValue = "tv") String type,
                                          @RequestParam(defaultValue = "1") int page) throws InterruptedException {
-        return ResponseEntity.ok(animeSearchService.getTopAnime(type, page));
+        return ResponseEntity.ok(communityRatingEnricher.enrich(animeSearchService.getTopAnime(type, page)));
     }
 
     @GetMapping("/seasonal")
     public ResponseEntity<?> getSeasonalAnime(@RequestParam String season,
                                               @RequestParam int year,
                                               @RequestParam(defaultValue = "1") int page) throws InterruptedException {
-        return ResponseEntity.ok(animeSearchService.getSeasonalAnime(season, year, page));
+        return ResponseEntity.ok(communityRatingEnricher.enrich(animeSearchService.getSeasonalAnime(season, year, page)));
     }
 }
@@ -1,14 +1,24 @@
 package com.anipulse.animeservice.controller;
 
+import com.anipulse.animeservice.dto.CursorPageDTO;
+import com.anipulse.animeservice.dto.RecommendationInteractionDTO;
+import com.anipulse.animeservice.dto.SimilarUserDTO;
+import com.anipulse.animeservice.repository.RecommendationDataJdbcRepository;
 import com.anipulse.animeservice.repository.UserAnimeListRepository;
 import com.anipulse.animeservice.repository.UserAnimeRatingRepository;
+import com.anipulse.animeservice.service.RatingMatrixService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
 
 /**
  * Controller for recommendation service to fetch training data
@@ -22,6 +32,14 @@ public class RecommendationDataController {
 
     private final UserAnimeListRepository listRepository;
     private final UserAnimeRatingRepository ratingRepository;
+    private final RatingMatrixService ratingMatrixService;
+    private final RecommendationDataJdbcRepository recommendationDataRepository;
+
+    private static final int MAX_INTERACTION_PAGE_SIZE = 10_000;
+
+    private interface InteractionFeed {
+        List<RecommendationDataJdbcRepository.Row> page(String afterUserId, Long afterAnimeId, int limit);
+    }
 
     /**
      * Get recently updated user lists (for model training)
@@ -51,6 +69,40 @@ public class RecommendationDataController {
         return ResponseEntity.ok(listRepository.findCompletedAnimeByUserId(userId));
     }
 
+    /**
+     * Get users whose overall ratings are closest to the given user's (for collaborative filtering)
+     */
+    @GetMapping("/user/{userId}/similar-users")
+    public ResponseEntity<List<SimilarUserDTO>> getSimilarUsers(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "3") int minCommonRatings,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        return ResponseEntity.ok(ratingMatrixService.findSimilarUsers(userId, minCommonRatings, limit));
+    }
+
+    /**
+     * Page through all completed list entries (for model training)
+     */
+    @GetMapping("/interactions/completed")
+    public ResponseEntity<CursorPageDTO<RecommendationInteractionDTO>> getCompletedInteractions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5000") int size) {
+
+        return ResponseEntity.ok(interactionPage(recommendationDataRepository::findCompleted, cursor, size));
+    }
+
+    /**
+     * Page through all overall ratings (for model training)
+     */
+    @GetMapping("/interactions/ratings")
+    public ResponseEntity<CursorPageDTO<RecommendationInteractionDTO>> getRatingInteractions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5000") int size) {
+
+        return ResponseEntity.ok(interactionPage(recommendationDataRepository::findRatings, cursor, size));
+    }
+
     /**
      * Get user's rated anime (for collaborative filtering)
      */
@@ -58,4 +110,37 @@ public class RecommendationDataController {
 //    public ResponseEntity<?> getUserRatings(@PathVariable String userId) {
 //        return ResponseEntity.ok(ratingRepository.findByUserIdWithRatings(userId));
 //    }
+
+    // The cursor is the last row's primary key, "animeId:userId" in URL-safe Base64
+    private static CursorPageDTO<RecommendationInteractionDTO> interactionPage(InteractionFeed feed, String cursor,
+                                                                              int size) {
+        int limit = Math.max(1, Math.min(size, MAX_INTERACTION_PAGE_SIZE));
+        String afterUserId = null;
+        Long afterAnimeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf(':');
+                afterAnimeId = Long.parseLong(decoded.substring(0, separator));
+                afterUserId = decoded.substring(separator + 1);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        List<RecommendationDataJdbcRepository.Row> rows = feed.page(afterUserId, afterAnimeId, limit);
+        boolean hasNext = rows.size() == limit;
+        String nextCursor = null;
+        if (hasNext) {
+            RecommendationDataJdbcRepository.Row last = rows.get(rows.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.keyAnimeId() + ":" + last.userId()).getBytes(StandardCharsets.UTF_8));
+        }
+        return CursorPageDTO.<RecommendationInteractionDTO>builder()
+                .content(rows.stream().map(RecommendationDataJdbcRepository.Row::interaction).toList())
+                .size(rows.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
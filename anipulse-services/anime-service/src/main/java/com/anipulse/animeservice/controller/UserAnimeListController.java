@@ -1,21 +1,38 @@
 package com.anipulse.animeservice.controller;
 
+import com.anipulse.animeservice.dto.CursorPageDTO;
+import com.anipulse.animeservice.dto.ListImportJobDTO;
+import com.anipulse.animeservice.dto.MembershipBitsDTO;
+import com.anipulse.animeservice.dto.ProgressUpdateRequestDTO;
+import com.anipulse.animeservice.dto.UserAnimeListBatchRequestDTO;
+import com.anipulse.animeservice.dto.UserAnimeListBatchResultDTO;
 import com.anipulse.animeservice.dto.UserAnimeListDTO;
 import com.anipulse.animeservice.dto.UserAnimeListRequestDTO;
+import com.anipulse.animeservice.dto.UserAnimeListSyncDTO;
 import com.anipulse.animeservice.dto.UserAnimeStatsDTO;
 import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.service.UserAnimeListImportService;
 import com.anipulse.animeservice.service.UserAnimeListService;
+import com.anipulse.animeservice.service.UserAnimeListSyncService;
+import com.anipulse.animeservice.service.UserDataExportService;
+import com.anipulse.animeservice.util.MalListExportParser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +42,9 @@ import java.util.List;
 public class UserAnimeListController {
 
     private final UserAnimeListService userAnimeListService;
+    private final UserAnimeListImportService importService;
+    private final UserDataExportService exportService;
+    private final UserAnimeListSyncService syncService;
 
     @PostMapping
     public ResponseEntity<UserAnimeListDTO> addOrUpdateAnime(
@@ -35,6 +55,16 @@ public class UserAnimeListController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Apply several additions, updates and removals at once
+    @PostMapping("/batch")
+    public ResponseEntity<UserAnimeListBatchResultDTO> applyBatch(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody UserAnimeListBatchRequestDTO request) {
+        String userId = jwt.getClaim("sub");
+        UserAnimeListBatchResultDTO response = userAnimeListService.applyBatch(userId, request);
+        return ResponseEntity.ok(response);
+    }
+
     // Get user's anime list with pagination and sorting
     @GetMapping
     public ResponseEntity<Page<UserAnimeListDTO>> getUserAnimeList(
@@ -47,6 +77,7 @@ public class UserAnimeListController {
         String userId = jwt.getClaim("sub");
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         Page<UserAnimeListDTO> result = userAnimeListService.getUserAnimeList(userId, pageable);
+        userAnimeListService.overlayPendingProgress(userId, result.getContent());
         return ResponseEntity.ok(result);
     }
 
@@ -61,9 +92,39 @@ public class UserAnimeListController {
         String userId = jwt.getClaim("sub");
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt"));
         Page<UserAnimeListDTO> result = userAnimeListService.getUserAnimeListByStatus(userId, status, pageable);
+        userAnimeListService.overlayPendingProgress(userId, result.getContent());
         return ResponseEntity.ok(result);
     }
 
+    // Get user's anime list with cursor (keyset) pagination, pass nextCursor back for the following slice
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<UserAnimeListDTO>> scrollUserAnimeList(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "updatedAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(userAnimeListService.scrollUserAnimeList(
+                userId, null, cursor, size, sortBy, direction, includeTotal));
+    }
+
+    // Get user's anime list filtered by watch status with cursor (keyset) pagination
+    @GetMapping("/status/{status}/scroll")
+    public ResponseEntity<CursorPageDTO<UserAnimeListDTO>> scrollUserAnimeListByStatus(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable WatchStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(userAnimeListService.scrollUserAnimeList(
+                userId, status, cursor, size, "updatedAt", Sort.Direction.DESC, includeTotal));
+    }
+
     // Get specific anime from user's list
     @GetMapping("/anime/{animeId}")
     public ResponseEntity<UserAnimeListDTO> getUserAnimeEntry(
@@ -80,6 +141,17 @@ public class UserAnimeListController {
         return ResponseEntity.ok(result);
     }
 
+    // Entries changed and removed since the watermark of the previous sync (epoch millis).
+    // Omit since on first sync; fullResyncRequired asks the client to reload its whole list
+    @GetMapping("/sync")
+    public ResponseEntity<UserAnimeListSyncDTO> syncChanges(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) Long since) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(syncService.changesSince(userId, since));
+    }
+
     // Check if anime is in user's list
     @GetMapping("/anime/{animeId}/exists")
     public ResponseEntity<Boolean> isAnimeInList(
@@ -91,6 +163,40 @@ public class UserAnimeListController {
         return ResponseEntity.ok(exists);
     }
 
+    // Check which of the given anime are in user's list, one cached lookup for a whole page of cards.
+    // Pass malIds (search/top/seasonal pages) or animeIds (database IDs)
+    @GetMapping("/membership")
+    public ResponseEntity<MembershipBitsDTO> checkMembership(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) List<Long> malIds,
+            @RequestParam(required = false) List<Long> animeIds) {
+
+        if ((malIds == null) == (animeIds == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pass either malIds or animeIds");
+        }
+        String userId = jwt.getClaim("sub");
+        MembershipBitsDTO result = malIds != null
+                ? userAnimeListService.checkMembership(userId, malIds, true)
+                : userAnimeListService.checkMembership(userId, animeIds, false);
+        return ResponseEntity.ok(result);
+    }
+
+    // Update episode progress. A plain bump is buffered and written shortly after (202),
+    // a bump that also changes the status is applied right away (200 with the entry)
+    @PatchMapping("/anime/{animeId}/progress")
+    public ResponseEntity<UserAnimeListDTO> updateProgress(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long animeId,
+            @Valid @RequestBody ProgressUpdateRequestDTO request) {
+
+        String userId = jwt.getClaim("sub");
+        if (request.getWatchStatus() == null) {
+            userAnimeListService.bufferProgress(userId, animeId, request.getProgress());
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.ok(userAnimeListService.updateProgressNow(userId, animeId, request));
+    }
+
     // Remove anime from user's list
     @DeleteMapping("/anime/{animeId}")
     public ResponseEntity<Void> removeAnimeFromList(
@@ -121,5 +227,54 @@ public class UserAnimeListController {
         List<Long> animeIds = userAnimeListService.getUserAnimeIds(userId);
         return ResponseEntity.ok(animeIds);
     }
+
+    // Import a MyAnimeList export (XML, optionally gzipped, or API JSON), processed in the background
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ListImportJobDTO> importList(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) MalListExportParser.Format format) {
+
+        String userId = jwt.getClaim("sub");
+        ListImportJobDTO job = importService.startImport(userId, file, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // Export the whole list as NDJSON or CSV, streamed without loading it into memory
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportList(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(defaultValue = "NDJSON") UserDataExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        String userId = jwt.getClaim("sub");
+        return exportResponse("anime-list", format, gzip, exportService.exportList(userId, format, gzip));
+    }
+
+    static ResponseEntity<StreamingResponseBody> exportResponse(String name, UserDataExportService.Format format,
+                                                                boolean gzip, StreamingResponseBody body) {
+        boolean csv = format == UserDataExportService.Format.CSV;
+        String fileName = name + (csv ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // Poll the progress of an import
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ListImportJobDTO> getImportJob(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable String jobId) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(importService.getJob(userId, jobId));
+    }
     
 }
@@ -1,9 +1,13 @@
 package com.anipulse.animeservice.controller;
 
+import com.anipulse.animeservice.dto.AnimeRatingDistributionDTO;
 import com.anipulse.animeservice.dto.AnimeRatingStatsDTO;
+import com.anipulse.animeservice.dto.CursorPageDTO;
+import com.anipulse.animeservice.dto.LeaderboardEntryDTO;
 import com.anipulse.animeservice.dto.UserAnimeRatingDTO;
 import com.anipulse.animeservice.dto.UserAnimeRatingRequestDTO;
 import com.anipulse.animeservice.service.UserAnimeRatingService;
+import com.anipulse.animeservice.service.UserDataExportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -15,6 +19,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for anime ratings management
@@ -26,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserAnimeRatingController {
 
     private final UserAnimeRatingService ratingService;
+    private final UserDataExportService exportService;
 
     // Add or update user's rating for anime (PROTECTED)
     @PostMapping
@@ -67,6 +76,28 @@ public class UserAnimeRatingController {
         return ResponseEntity.ok(result);
     }
 
+    // Get user's ratings for a page of anime in one call, keyed by anime ID, unrated anime omitted (PROTECTED)
+    @GetMapping("/my-ratings/batch")
+    public ResponseEntity<Map<Long, UserAnimeRatingDTO>> getMyRatingsBatch(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam List<Long> animeIds) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(ratingService.getUserRatings(userId, animeIds));
+    }
+
+    // Export all ratings by user as NDJSON or CSV (PROTECTED)
+    @GetMapping("/my-ratings/export")
+    public ResponseEntity<StreamingResponseBody> exportMyRatings(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(defaultValue = "NDJSON") UserDataExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        String userId = jwt.getClaim("sub");
+        return UserAnimeListController.exportResponse("anime-ratings", format, gzip,
+                exportService.exportRatings(userId, format, gzip));
+    }
+
     // Get all ratings for specific anime (PUBLIC)
     @GetMapping("/anime/{animeId}")
     public ResponseEntity<Page<UserAnimeRatingDTO>> getAnimeRatings(
@@ -79,6 +110,35 @@ public class UserAnimeRatingController {
         return ResponseEntity.ok(result);
     }
 
+    // Get all ratings by user with cursor (keyset) pagination (PROTECTED)
+    @GetMapping("/my-ratings/scroll")
+    public ResponseEntity<CursorPageDTO<UserAnimeRatingDTO>> scrollMyRatings(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "ratedAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(ratingService.scrollUserRatings(
+                userId, cursor, size, sortBy, direction, includeTotal));
+    }
+
+    // Get all ratings for specific anime with cursor (keyset) pagination (PUBLIC)
+    @GetMapping("/anime/{animeId}/scroll")
+    public ResponseEntity<CursorPageDTO<UserAnimeRatingDTO>> scrollAnimeRatings(
+            @PathVariable Long animeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "ratedAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        return ResponseEntity.ok(ratingService.scrollAnimeRatings(
+                animeId, cursor, size, sortBy, direction, includeTotal));
+    }
+
     // Get rating statistics for anime (PUBLIC)
     @GetMapping("/anime/{animeId}/stats")
     public ResponseEntity<AnimeRatingStatsDTO> getAnimeRatingStats(
@@ -88,6 +148,80 @@ public class UserAnimeRatingController {
         return ResponseEntity.ok(stats);
     }
 
+    // Get rating distribution (1-10 bars per dimension) for anime (PUBLIC)
+    @GetMapping("/anime/{animeId}/distribution")
+    public ResponseEntity<AnimeRatingDistributionDTO> getAnimeRatingDistribution(
+            @PathVariable Long animeId) {
+
+        AnimeRatingDistributionDTO distribution = ratingService.getAnimeRatingDistribution(animeId);
+        return ResponseEntity.ok(distribution);
+    }
+
+    // Search reviews site-wide by keywords and "quoted phrases", sort=relevance or sort=recent (PUBLIC)
+    @GetMapping("/reviews/search")
+    public ResponseEntity<Page<UserAnimeRatingDTO>> searchReviews(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (!sort.equals("relevance") && !sort.equals("recent")) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ratingService.searchReviews(q, sort.equals("relevance"), page, size));
+    }
+
+    // Get reviews of anime, most helpful first (PUBLIC)
+    @GetMapping("/anime/{animeId}/reviews/helpful")
+    public ResponseEntity<Page<UserAnimeRatingDTO>> getHelpfulReviews(
+            @PathVariable Long animeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(ratingService.getHelpfulReviews(animeId, page, size));
+    }
+
+    // Vote another user's review of anime helpful or not helpful, once per review (PROTECTED)
+    @PostMapping("/anime/{animeId}/reviews/{authorId}/vote")
+    public ResponseEntity<Void> voteOnReview(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long animeId,
+            @PathVariable String authorId,
+            @RequestParam boolean helpful) {
+
+        String userId = jwt.getClaim("sub");
+        ratingService.voteOnReview(userId, animeId, authorId, helpful);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Get community leaderboard, ranked by Bayesian average of overall ratings (PUBLIC)
+    @GetMapping("/leaderboard")
+    public ResponseEntity<Page<LeaderboardEntryDTO>> getLeaderboard(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(ratingService.getLeaderboard(null, page, size));
+    }
+
+    // Get community leaderboard of one genre (PUBLIC)
+    @GetMapping("/leaderboard/genre/{genre}")
+    public ResponseEntity<Page<LeaderboardEntryDTO>> getGenreLeaderboard(
+            @PathVariable String genre,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(ratingService.getLeaderboard(genre, page, size));
+    }
+
+    // Get anime's community leaderboard rank, overall or within a genre (PUBLIC)
+    @GetMapping("/anime/{animeId}/rank")
+    public ResponseEntity<LeaderboardEntryDTO> getLeaderboardRank(
+            @PathVariable Long animeId,
+            @RequestParam(required = false) String genre) {
+
+        return ResponseEntity.ok(ratingService.getLeaderboardRank(animeId, genre));
+    }
+
     // Delete user's rating (PROTECTED)
     @DeleteMapping("/{animeId}")
     public ResponseEntity<Void> deleteRating(
@@ -30,4 +30,8 @@ public class AnimeDTO {
     private Integer rank;
     private Integer popularity;
     private Set<String> genres;
+
+    // Mean overall rating and rating count of our own users, attached to listings after the cache
+    private Double communityScore;
+    private Long communityRatingCount;
 }
@@ -0,0 +1,47 @@
+package com.anipulse.animeservice.dto;
+
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact list-change event published on anime.exchange
+ * Carries only what consumers need instead of the JPA entity
+ * Rating changes travel on the same stream so consumers see one ordered sequence per user,
+ * animeId is always the catalog id and rating the overall rating for RATING_UPSERT
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnimeListChangeEvent {
+
+    public enum Type {
+        UPSERT,
+        DELETE,
+        RATING_UPSERT,
+        RATING_DELETE
+    }
+
+    private Type type;
+    private String userId;
+    private Long animeId;
+    private WatchStatus status;
+    private Integer progress;
+    private Double rating;
+
+    /**
+     * Epoch millis of the change
+     */
+    private Long timestamp;
+
+    /**
+     * Monotonic sequence (outbox row id), assigned when the event is relayed
+     * Consumers use it to discard stale or duplicate deliveries
+     */
+    private Long sequence;
+}
@@ -0,0 +1,25 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Envelope for a micro-batch of list-change events in one AMQP message
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeListChangeEventBatch {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    @Builder.Default
+    private int schemaVersion = SCHEMA_VERSION;
+
+    private List<AnimeListChangeEvent> events;
+}
@@ -0,0 +1,24 @@
+package com.anipulse.animeservice.dto;
+
+import com.anipulse.animeservice.entity.RatingDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How people rated an anime: per dimension, the number of ratings for each score,
+ * index 0 holding the count of 1s and index 9 the count of 10s
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeRatingDistributionDTO {
+    private Long animeId;
+    private Long totalRatings;
+    private Map<RatingDimension, List<Long>> distribution;
+}
@@ -1,5 +1,6 @@
 package com.anipulse.animeservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,18 @@ public class AnimeSearchResultDTO {
     private List<AnimeDTO> data;
     private PaginationDTO pagination;
 
+    /**
+     * Approximated from a cached prefix result rather than fetched, never serialized or cached
+     */
+    @JsonIgnore
+    private boolean prefixFiltered;
+
+    /**
+     * Empty page standing in for a failed Jikan call (circuit-breaker fallback), never serialized or cached
+     */
+    @JsonIgnore
+    private boolean upstreamFallback;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,27 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One anime on a community leaderboard, rank is 1-based
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private long rank;
+    private Long malId;
+    private String title;
+    private String titleEnglish;
+    private String imageUrl;
+
+    /**
+     * Bayesian weighted average of overallRating
+     */
+    private Double communityScore;
+    private Long ratingCount;
+}
@@ -0,0 +1,45 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a MyAnimeList import, polled through GET /my-list/import/{jobId}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListImportJobDTO {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        // Parsed and written, titles missing from the catalog are still being fetched
+        FETCHING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String jobId;
+    private Status status;
+    private String format;
+
+    // Valid entries read from the export so far
+    private Integer totalEntries;
+    private Integer importedEntries;
+    // Entries without a MAL ID or with an unknown status
+    private Integer skippedEntries;
+    // Entries waiting for their anime to be fetched from JIKAN
+    private Integer pendingEntries;
+    // Entries whose anime could not be fetched
+    private Integer failedEntries;
+
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Answer of a batch membership check: character i of bits is '1' when the i-th requested ID is in the list
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipBitsDTO {
+    // "malId" or "animeId"
+    private String idType;
+    private String bits;
+    private int count;
+}
@@ -0,0 +1,23 @@
+package com.anipulse.animeservice.dto;
+
+import com.anipulse.animeservice.entity.WatchStatus;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressUpdateRequestDTO {
+
+    @NotNull(message = "Progress is required")
+    @Min(value = 0, message = "Progress cannot be negative")
+    private Integer progress;
+
+    // Optional status transition, applied immediately instead of being buffered
+    private WatchStatus watchStatus;
+}
@@ -0,0 +1,26 @@
+package com.anipulse.animeservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user-anime interaction for recommendation training
+ * animeId is the catalog ID (anime.id) for list entries and ratings alike
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecommendationInteractionDTO {
+    private String userId;
+    private Long animeId;
+
+    /**
+     * Rating 1-10, null for a completed entry the user did not rate
+     */
+    private Double score;
+}
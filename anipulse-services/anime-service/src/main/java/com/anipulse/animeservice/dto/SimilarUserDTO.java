@@ -0,0 +1,24 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarUserDTO {
+    private String userId;
+
+    /**
+     * Anime rated by both users
+     */
+    private int commonRatings;
+
+    /**
+     * Mean of |overall rating difference| over the common anime, lower is more similar
+     */
+    private double meanAbsoluteDifference;
+}
@@ -0,0 +1,35 @@
+package com.anipulse.animeservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several list mutations applied in one transaction through POST /my-list/batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAnimeListBatchRequestDTO {
+
+    public static final int MAX_MUTATIONS = 300;
+
+    // Entries to add or update, same shape as POST /my-list
+    @Valid
+    @Size(max = MAX_MUTATIONS, message = "At most 300 mutations per batch")
+    @Builder.Default
+    private List<@NotNull UserAnimeListRequestDTO> upserts = new ArrayList<>();
+
+    // Database anime IDs to remove, same IDs as DELETE /my-list/anime/{animeId}; must not also be upserted
+    @Size(max = MAX_MUTATIONS, message = "At most 300 mutations per batch")
+    @Builder.Default
+    private List<@NotNull Long> removeAnimeIds = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAnimeListBatchResultDTO {
+    private List<UserAnimeListDTO> updated;
+    private List<Long> removedAnimeIds;
+
+    // MAL IDs that could not be resolved to an anime, their mutations were not applied
+    private List<Long> unresolvedMalIds;
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -21,6 +22,7 @@ public class UserAnimeListDTO {
     private String animeTitleEnglish;
     private String animeImageUrl;
     private Integer totalEpisodes;
+    private List<String> genres;
 
     private WatchStatus watchStatus;
     private Integer progress;
@@ -0,0 +1,25 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes of a user's list since a watermark.
+ * Apply deletedAnimeIds and upsert changed (both idempotent, the window overlaps the previous sync),
+ * then send watermark with the next request. With fullResyncRequired the lists are empty and the client
+ * reloads its whole list before syncing from the returned watermark.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAnimeListSyncDTO {
+    private List<UserAnimeListDTO> changed;
+    private List<Long> deletedAnimeIds;
+    private long watermark;
+    private boolean fullResyncRequired;
+}
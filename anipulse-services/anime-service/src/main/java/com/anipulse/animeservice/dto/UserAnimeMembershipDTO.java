@@ -0,0 +1,20 @@
+package com.anipulse.animeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact membership set of one user's list, cached per user.
+ * Both arrays are sorted so lookups are a binary search; malIds lets search/top pages
+ * (which only know MAL IDs) check titles that may not be in the local catalog yet.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAnimeMembershipDTO {
+    private long[] animeIds;
+    private long[] malIds;
+}
@@ -24,6 +24,8 @@ public class UserAnimeRatingDTO {
     private Integer characterRating;
     private Integer overallRating;
     private String reviewText;
+    private Long helpfulCount;
+    private Long notHelpfulCount;
 
     private LocalDateTime createdAt;
     private LocalDateTime ratedAt;
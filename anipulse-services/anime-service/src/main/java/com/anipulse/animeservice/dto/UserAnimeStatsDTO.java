@@ -16,4 +16,8 @@ public class UserAnimeStatsDTO {
     private Long onHold;
     private Long dropped;
     private Long planToWatch;
+    private Long totalEpisodesWatched;
+
+    // Null when nothing is rated yet
+    private Double meanRating;
 }
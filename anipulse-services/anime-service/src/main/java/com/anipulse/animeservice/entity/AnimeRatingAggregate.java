@@ -0,0 +1,45 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-anime rating sums and count, kept in step with tbl_user_anime_rating by delta updates
+ * in the same transaction as every rating write. Averages are derived on read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_anime_rating_aggregate")
+public class AnimeRatingAggregate {
+
+    /**
+     * Same key as UserAnimeRating.animeId
+     */
+    @Id
+    private Long animeId;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    @Column(nullable = false)
+    private long overallSum;
+
+    @Column(nullable = false)
+    private long storySum;
+
+    @Column(nullable = false)
+    private long animationSum;
+
+    @Column(nullable = false)
+    private long characterSum;
+
+    private LocalDateTime updatedAt;
+}
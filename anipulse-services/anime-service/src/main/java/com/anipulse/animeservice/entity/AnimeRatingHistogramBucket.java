@@ -0,0 +1,53 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Number of ratings of one anime with a given score (1-10) in one dimension.
+ * Up to 40 rows per anime, all read with one primary-key prefix scan; kept in step with
+ * tbl_user_anime_rating by delta updates alongside AnimeRatingAggregate.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_anime_rating_histogram")
+@IdClass(AnimeRatingHistogramBucket.BucketId.class)
+public class AnimeRatingHistogramBucket {
+
+    @Id
+    private Long animeId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private RatingDimension dimension;
+
+    /**
+     * The score, 1-10
+     */
+    @Id
+    private Integer bucket;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    /**
+     * Composite primary key class for AnimeRatingHistogramBucket
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BucketId implements Serializable {
+        private Long animeId;
+        private RatingDimension dimension;
+        private Integer bucket;
+    }
+}
@@ -0,0 +1,58 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Imported list entry whose anime is not in the catalog yet, waiting for a JIKAN fetch.
+ * Any instance's fetch scheduler may claim it; the row is deleted once the entry is written or given up on.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_list_import_fetch", indexes = {
+    @Index(name = "idx_not_before", columnList = "notBefore")
+})
+public class ListImportFetch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String jobId;
+
+    @Column(nullable = false, length = 100)
+    private String userId;
+
+    @Column(nullable = false)
+    private Long malId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WatchStatus watchStatus;
+
+    private int progress;
+    private Double rating;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    private LocalDate finishDate;
+
+    private int attempt;
+
+    /**
+     * Not claimed before this time, pushed back after a failed attempt
+     */
+    @Column(nullable = false)
+    private LocalDateTime notBefore;
+}
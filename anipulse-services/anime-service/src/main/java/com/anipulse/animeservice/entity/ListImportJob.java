@@ -0,0 +1,68 @@
+package com.anipulse.animeservice.entity;
+
+import com.anipulse.animeservice.dto.ListImportJobDTO;
+import com.anipulse.animeservice.util.MalListExportParser;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a MyAnimeList import, shared by every instance so a status poll can land anywhere.
+ * Counters are only changed with relative UPDATEs, the import thread and the fetch scheduler
+ * (possibly on another instance) both move them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_list_import_job", indexes = {
+    @Index(name = "idx_status_updated", columnList = "status, updatedAt"),
+    @Index(name = "idx_finished_at", columnList = "finishedAt")
+})
+public class ListImportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 100)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private MalListExportParser.Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ListImportJobDTO.Status status;
+
+    private int totalEntries;
+    private int importedEntries;
+    private int skippedEntries;
+    private int pendingEntries;
+    private int failedEntries;
+
+    /**
+     * The whole export has been read, the job completes once no fetches are pending
+     */
+    private boolean parsed;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Bumped with every progress update, a RUNNING job that stops moving lost its instance
+     */
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,45 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row the relay could not turn into a message, moved aside so the rows behind it keep flowing.
+ * Keeps the original id, which is also the sequence consumers would have seen, for inspection and replay.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_outbox_dead_letter")
+public class OutboxDeadLetter {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String exchange;
+
+    @Column(nullable = false, length = 100)
+    private String routingKey;
+
+    @Column(nullable = false, length = 200)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(length = 1000)
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
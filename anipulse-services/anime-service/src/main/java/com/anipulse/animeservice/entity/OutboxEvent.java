@@ -0,0 +1,47 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row
+ * Written in the same transaction as the business change and relayed to RabbitMQ afterwards,
+ * so list writes never wait on the broker and rolled-back writes never publish
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String exchange;
+
+    @Column(nullable = false, length = 100)
+    private String routingKey;
+
+    /**
+     * Type hint sent as the __TypeId__ header, as Jackson2JsonMessageConverter would
+     */
+    @Column(nullable = false, length = 200)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
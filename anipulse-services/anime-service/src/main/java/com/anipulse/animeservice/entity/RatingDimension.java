@@ -0,0 +1,11 @@
+package com.anipulse.animeservice.entity;
+
+/**
+ * The four scored dimensions of a UserAnimeRating
+ */
+public enum RatingDimension {
+    OVERALL,
+    STORY,
+    ANIMATION,
+    CHARACTER
+}
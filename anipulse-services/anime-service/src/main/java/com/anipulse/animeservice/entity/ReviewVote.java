@@ -0,0 +1,57 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One user's helpful / not helpful vote on a review (the review being the UserAnimeRating of authorId).
+ * The primary key is what dedupes votes for good; the counts shown with a review live on
+ * UserAnimeRating and are only ever incremented, see ReviewVoteService.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_review_vote")
+@IdClass(ReviewVote.ReviewVoteId.class)
+public class ReviewVote {
+
+    /**
+     * Review key first, so a review's votes are one primary-key prefix
+     */
+    @Id
+    private Long animeId;
+
+    @Id
+    @Column(length = 100)
+    private String authorId;
+
+    @Id
+    @Column(length = 100)
+    private String voterId;
+
+    @Column(nullable = false)
+    private boolean helpful;
+
+    @Column(nullable = false)
+    private LocalDateTime votedAt;
+
+    /**
+     * Composite primary key class for ReviewVote
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReviewVoteId implements Serializable {
+        private Long animeId;
+        private String authorId;
+        private String voterId;
+    }
+}
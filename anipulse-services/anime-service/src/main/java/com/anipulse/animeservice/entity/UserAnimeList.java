@@ -1,5 +1,6 @@
 package com.anipulse.animeservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +26,12 @@ import java.time.LocalDateTime;
     @Index(name = "idx_anime_id", columnList = "animeId"),
     @Index(name = "idx_rating", columnList = "rating"),
     @Index(name = "idx_watch_status", columnList = "watchStatus"),
-    @Index(name = "idx_updated_at", columnList = "updatedAt")
+    @Index(name = "idx_updated_at", columnList = "updatedAt"),
+    // Keyset pagination: (filter, sort key, tie-breaker)
+    @Index(name = "idx_user_updated_anime", columnList = "userId, updatedAt, animeId"),
+    @Index(name = "idx_user_added_anime", columnList = "userId, addedAt, animeId"),
+    @Index(name = "idx_user_progress_anime", columnList = "userId, progress, animeId"),
+    @Index(name = "idx_user_status_updated_anime", columnList = "userId, watchStatus, updatedAt, animeId")
 })
 @IdClass(UserAnimeList.UserAnimeListId.class)
 public class UserAnimeList {
@@ -44,6 +50,7 @@ public class UserAnimeList {
     @Column(nullable = false)
     private Long animeId;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "animeId", insertable = false, updatable = false)
     private Anime anime;
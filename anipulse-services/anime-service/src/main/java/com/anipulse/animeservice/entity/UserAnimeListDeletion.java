@@ -0,0 +1,41 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of an entry removed from a user's list
+ * Lets delta sync report deletions, which leave nothing behind in tbl_user_anime_list.
+ * Purged after app.list-sync.tombstone-retention; clients older than that resync fully.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_user_anime_list_deletion", indexes = {
+    @Index(name = "idx_user_deleted_at", columnList = "userId, deletedAt"),
+    @Index(name = "idx_deleted_at", columnList = "deletedAt")
+})
+public class UserAnimeListDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String userId;
+
+    @Column(nullable = false)
+    private Long animeId;
+
+    @Column(nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime deletedAt;
+}
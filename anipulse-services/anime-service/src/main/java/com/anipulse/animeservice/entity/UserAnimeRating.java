@@ -25,7 +25,14 @@ import java.time.LocalDateTime;
     @Index(name = "idx_user_rating", columnList = "userId"),
     @Index(name = "idx_anime_rating", columnList = "animeId"),
     @Index(name = "idx_overall_rating", columnList = "overallRating"),
-    @Index(name = "idx_rated_at", columnList = "ratedAt")
+    @Index(name = "idx_rated_at", columnList = "ratedAt"),
+    // Keyset pagination: (filter, sort key, tie-breaker)
+    @Index(name = "idx_user_rated_anime", columnList = "userId, ratedAt, animeId"),
+    @Index(name = "idx_user_overall_anime", columnList = "userId, overallRating, animeId"),
+    @Index(name = "idx_anime_rated_user", columnList = "animeId, ratedAt, userId"),
+    @Index(name = "idx_anime_overall_user", columnList = "animeId, overallRating, userId"),
+    // Reviews of an anime by helpfulness, read backwards for most helpful first
+    @Index(name = "idx_anime_helpful_user", columnList = "animeId, helpfulCount, userId")
 })
 @IdClass(UserAnimeRating.UserAnimeRatingId.class)
 public class UserAnimeRating {
@@ -79,6 +86,16 @@ public class UserAnimeRating {
     @Column(columnDefinition = "TEXT")
     private String reviewText;
 
+    /**
+     * Helpful / not helpful votes on the review
+     * Only incremented in SQL by ReviewVoteService, never written through the entity
+     */
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private long helpfulCount;
+
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private long notHelpfulCount;
+
     @Column(updatable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
@@ -0,0 +1,61 @@
+package com.anipulse.animeservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user list statistics, kept in step with tbl_user_anime_list by delta updates
+ * in the same transaction as every list write
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tbl_user_anime_stats")
+public class UserAnimeStats {
+
+    /**
+     * User ID from user-service (not FK due to microservice architecture)
+     */
+    @Id
+    @Column(nullable = false, length = 100)
+    private String userId;
+
+    @Column(nullable = false)
+    private long watching;
+
+    @Column(nullable = false)
+    private long completed;
+
+    @Column(nullable = false)
+    private long onHold;
+
+    @Column(nullable = false)
+    private long dropped;
+
+    @Column(nullable = false)
+    private long planToWatch;
+
+    /**
+     * Sum of progress over all entries
+     */
+    @Column(nullable = false)
+    private long totalEpisodes;
+
+    /**
+     * Sum and count of the rated entries, the mean is derived on read
+     */
+    @Column(nullable = false)
+    private double ratingSum;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    private LocalDateTime updatedAt;
+}
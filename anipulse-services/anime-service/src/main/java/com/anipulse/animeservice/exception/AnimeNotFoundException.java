@@ -0,0 +1,15 @@
+package com.anipulse.animeservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when JIKAN confirms (HTTP 404) that a MAL ID does not exist
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class AnimeNotFoundException extends RuntimeException {
+
+    public AnimeNotFoundException(Long malId) {
+        super("Anime not found: " + malId);
+    }
+}
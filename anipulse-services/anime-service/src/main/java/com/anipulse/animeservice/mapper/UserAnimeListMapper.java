@@ -1,13 +1,23 @@
 package com.anipulse.animeservice.mapper;
 
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
 import com.anipulse.animeservice.dto.UserAnimeListDTO;
 import com.anipulse.animeservice.entity.UserAnimeList;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class UserAnimeListMapper {
 
     public UserAnimeListDTO toDTO(UserAnimeList entity) {
+        return toDTO(entity, null);
+    }
+
+    /**
+     * Map with genre names loaded up front, so the anime's genre collection is never touched per row
+     */
+    public UserAnimeListDTO toDTO(UserAnimeList entity, List<String> genres) {
         if (entity == null) {
             return null;
         }
@@ -21,7 +31,8 @@ public class UserAnimeListMapper {
                 .notes(entity.getNotes())
                 .addedAt(entity.getAddedAt())
                 .updatedAt(entity.getUpdatedAt())
-                .completedAt(entity.getCompletedAt());
+                .completedAt(entity.getCompletedAt())
+                .genres(genres);
 
         // Add anime info if available
         if (entity.getAnime() != null) {
@@ -33,4 +44,25 @@ public class UserAnimeListMapper {
 
         return builder.build();
     }
+
+    public AnimeListChangeEvent toChangeEvent(UserAnimeList entity) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.UPSERT)
+                .userId(entity.getUserId())
+                .animeId(entity.getAnimeId())
+                .status(entity.getWatchStatus())
+                .progress(entity.getProgress())
+                .rating(entity.getRating())
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    public AnimeListChangeEvent toDeleteEvent(String userId, Long animeId) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.DELETE)
+                .userId(userId)
+                .animeId(animeId)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package com.anipulse.animeservice.mapper;
 
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
 import com.anipulse.animeservice.dto.UserAnimeRatingDTO;
 import com.anipulse.animeservice.entity.UserAnimeRating;
 import org.springframework.stereotype.Component;
@@ -20,6 +21,8 @@ public class UserAnimeRatingMapper {
                 .characterRating(entity.getCharacterRating())
                 .overallRating(entity.getOverallRating())
                 .reviewText(entity.getReviewText())
+                .helpfulCount(entity.getHelpfulCount())
+                .notHelpfulCount(entity.getNotHelpfulCount())
                 .createdAt(entity.getCreatedAt())
                 .ratedAt(entity.getRatedAt());
 
@@ -31,4 +34,26 @@ public class UserAnimeRatingMapper {
 
         return builder.build();
     }
+
+    /**
+     * Rating change event, keyed by the catalog id of the anime rather than the MAL ID the rating is stored under
+     */
+    public AnimeListChangeEvent toChangeEvent(UserAnimeRating entity, Long catalogAnimeId) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.RATING_UPSERT)
+                .userId(entity.getUserId())
+                .animeId(catalogAnimeId)
+                .rating(entity.getOverallRating() != null ? entity.getOverallRating().doubleValue() : null)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    public AnimeListChangeEvent toDeleteEvent(String userId, Long catalogAnimeId) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.RATING_DELETE)
+                .userId(userId)
+                .animeId(catalogAnimeId)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
 }
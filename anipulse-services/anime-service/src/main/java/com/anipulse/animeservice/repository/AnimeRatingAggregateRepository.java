@@ -0,0 +1,71 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.AnimeRatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for AnimeRatingAggregate entity
+ * Sums are only changed through the atomic delta/rebuild statements below
+ */
+@Repository
+public interface AnimeRatingAggregateRepository extends JpaRepository<AnimeRatingAggregate, Long> {
+
+    /**
+     * Add a delta to an anime's sums, creating the row on its first rating
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_anime_rating_aggregate
+                (anime_id, rating_count, overall_sum, story_sum, animation_sum, character_sum, updated_at)
+            VALUES (:animeId, :ratingCount, :overallSum, :storySum, :animationSum, :characterSum, NOW())
+            ON DUPLICATE KEY UPDATE
+                rating_count = rating_count + VALUES(rating_count),
+                overall_sum = overall_sum + VALUES(overall_sum),
+                story_sum = story_sum + VALUES(story_sum),
+                animation_sum = animation_sum + VALUES(animation_sum),
+                character_sum = character_sum + VALUES(character_sum),
+                updated_at = NOW()
+            """, nativeQuery = true)
+    void applyDelta(@Param("animeId") Long animeId,
+                    @Param("ratingCount") long ratingCount,
+                    @Param("overallSum") long overallSum,
+                    @Param("storySum") long storySum,
+                    @Param("animationSum") long animationSum,
+                    @Param("characterSum") long characterSum);
+
+    /**
+     * Recompute every anime's sums in one GROUP BY pass over tbl_user_anime_rating
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_anime_rating_aggregate
+                (anime_id, rating_count, overall_sum, story_sum, animation_sum, character_sum, updated_at)
+            SELECT anime_id, COUNT(*), SUM(overall_rating), SUM(story_rating),
+                   SUM(animation_rating), SUM(character_rating), NOW()
+            FROM tbl_user_anime_rating
+            GROUP BY anime_id
+            ON DUPLICATE KEY UPDATE
+                rating_count = VALUES(rating_count),
+                overall_sum = VALUES(overall_sum),
+                story_sum = VALUES(story_sum),
+                animation_sum = VALUES(animation_sum),
+                character_sum = VALUES(character_sum),
+                updated_at = NOW()
+            """, nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Drop sums of anime without ratings, the GROUP BY pass does not produce a row for them
+     */
+    @Modifying
+    @Query(value = """
+            DELETE a FROM tbl_anime_rating_aggregate a
+            LEFT JOIN (SELECT DISTINCT anime_id FROM tbl_user_anime_rating) r ON r.anime_id = a.anime_id
+            WHERE r.anime_id IS NULL
+            """, nativeQuery = true)
+    int deleteOrphaned();
+}
@@ -0,0 +1,100 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.RatingDimension;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Counter writes to tbl_anime_rating_histogram.
+ * Plain JDBC because one rating write changes up to eight buckets, sent here as a single multi-row upsert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnimeRatingHistogramJdbcRepository {
+
+    /**
+     * Change of one bucket's count
+     */
+    public record BucketDelta(RatingDimension dimension, int bucket, long delta) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add the deltas to an anime's buckets, creating missing rows.
+     * Rows are touched in key order so concurrent writes of the same anime cannot deadlock.
+     */
+    public void applyDeltas(Long animeId, List<BucketDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<BucketDelta> ordered = new ArrayList<>(deltas);
+        ordered.sort(Comparator.comparing((BucketDelta delta) -> delta.dimension().name())
+                .thenComparingInt(BucketDelta::bucket));
+
+        String sql = "INSERT INTO tbl_anime_rating_histogram (anime_id, dimension, bucket, rating_count) VALUES "
+                + String.join(", ", Collections.nCopies(ordered.size(), "(?, ?, ?, ?)"))
+                + " ON DUPLICATE KEY UPDATE rating_count = rating_count + VALUES(rating_count)";
+
+        Object[] args = new Object[ordered.size() * 4];
+        int i = 0;
+        for (BucketDelta delta : ordered) {
+            args[i++] = animeId;
+            args[i++] = delta.dimension().name();
+            args[i++] = delta.bucket();
+            args[i++] = delta.delta();
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    /**
+     * Smallest and largest rated anime ID, null when there are no ratings
+     */
+    public long[] ratedAnimeIdRange() {
+        return jdbcTemplate.query("SELECT MIN(anime_id), MAX(anime_id) FROM tbl_user_anime_rating", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        });
+    }
+
+    /**
+     * Recount the buckets of anime IDs in [fromAnimeId, toAnimeId) from tbl_user_anime_rating.
+     * Meant to run in its own transaction, one per range, so ranges can be rebuilt in parallel.
+     */
+    public int rebuildRange(long fromAnimeId, long toAnimeId) {
+        jdbcTemplate.update("UPDATE tbl_anime_rating_histogram SET rating_count = 0"
+                + " WHERE anime_id >= ? AND anime_id < ?", fromAnimeId, toAnimeId);
+
+        int upserted = 0;
+        for (RatingDimension dimension : RatingDimension.values()) {
+            String column = column(dimension);
+            upserted += jdbcTemplate.update("INSERT INTO tbl_anime_rating_histogram"
+                    + " (anime_id, dimension, bucket, rating_count)"
+                    + " SELECT anime_id, ?, " + column + ", COUNT(*) FROM tbl_user_anime_rating"
+                    + " WHERE anime_id >= ? AND anime_id < ? GROUP BY anime_id, " + column
+                    + " ON DUPLICATE KEY UPDATE rating_count = VALUES(rating_count)",
+                    dimension.name(), fromAnimeId, toAnimeId);
+        }
+
+        jdbcTemplate.update("DELETE FROM tbl_anime_rating_histogram"
+                + " WHERE anime_id >= ? AND anime_id < ? AND rating_count = 0", fromAnimeId, toAnimeId);
+        return upserted;
+    }
+
+    private static String column(RatingDimension dimension) {
+        return switch (dimension) {
+            case OVERALL -> "overall_rating";
+            case STORY -> "story_rating";
+            case ANIMATION -> "animation_rating";
+            case CHARACTER -> "character_rating";
+        };
+    }
+}
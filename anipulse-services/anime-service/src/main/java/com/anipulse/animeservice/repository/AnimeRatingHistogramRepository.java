@@ -0,0 +1,21 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.AnimeRatingHistogramBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for AnimeRatingHistogramBucket entity
+ * Counts are only changed through AnimeRatingHistogramJdbcRepository
+ */
+@Repository
+public interface AnimeRatingHistogramRepository
+        extends JpaRepository<AnimeRatingHistogramBucket, AnimeRatingHistogramBucket.BucketId> {
+
+    /**
+     * All buckets of one anime
+     */
+    List<AnimeRatingHistogramBucket> findByAnimeId(Long animeId);
+}
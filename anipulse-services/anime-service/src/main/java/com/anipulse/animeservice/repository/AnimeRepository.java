@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,31 @@ public interface AnimeRepository extends JpaRepository<Anime, Long> {
      */
     boolean existsByMalId(Long malId);
 
+    /**
+     * Resolve many MAL IDs to database IDs in one round trip
+     * @param malIds the MAL IDs to look up
+     * @return [malId, id] pairs for the anime already in the catalog
+     */
+    @Query("SELECT a.malId, a.id FROM Anime a WHERE a.malId IN :malIds")
+    List<Object[]> findIdsByMalIdIn(Collection<Long> malIds);
+
+    List<Anime> findByMalIdIn(Collection<Long> malIds);
+
+    /**
+     * Genre names of many anime in one query (list read model)
+     * @param animeIds database IDs of the anime
+     * @return [animeId, genreName] pairs ordered by genre name
+     */
+    @Query("SELECT a.id, g.name FROM Anime a JOIN a.genres g WHERE a.id IN :animeIds ORDER BY g.name")
+    List<Object[]> findGenreNamesByAnimeIdIn(Collection<Long> animeIds);
+
+    /**
+     * Genre names of many anime in one query, keyed by MAL ID (community leaderboards)
+     * @return [malId, genreName] pairs
+     */
+    @Query("SELECT a.malId, g.name FROM Anime a JOIN a.genres g WHERE a.malId IN :malIds")
+    List<Object[]> findGenreNamesByMalIdIn(Collection<Long> malIds);
+
     @Query("SELECT a FROM Anime a WHERE a.lastSyncedAt < :threshold")
     List<Anime> findStaleAnime(LocalDateTime threshold);
 
@@ -0,0 +1,51 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.ListImportFetch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Batched inserts of pending fetches, an import chunk can queue hundreds and IDENTITY keys keep Hibernate
+ * from batching them
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListImportFetchJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO tbl_list_import_fetch
+                (job_id, user_id, mal_id, watch_status, progress, rating, notes, finish_date, attempt, not_before)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<ListImportFetch> fetches) {
+        if (fetches.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, fetches, JDBC_BATCH_SIZE, (ps, fetch) -> {
+            ps.setString(1, fetch.getJobId());
+            ps.setString(2, fetch.getUserId());
+            ps.setLong(3, fetch.getMalId());
+            ps.setString(4, fetch.getWatchStatus().name());
+            ps.setInt(5, fetch.getProgress());
+            if (fetch.getRating() != null) {
+                ps.setDouble(6, fetch.getRating());
+            } else {
+                ps.setNull(6, Types.DOUBLE);
+            }
+            ps.setString(7, fetch.getNotes());
+            ps.setObject(8, fetch.getFinishDate());
+            ps.setInt(9, fetch.getAttempt());
+            ps.setTimestamp(10, Timestamp.valueOf(fetch.getNotBefore()));
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.ListImportFetch;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for ListImportFetch entity, the pending JIKAN fetches of all imports
+ */
+@Repository
+public interface ListImportFetchRepository extends JpaRepository<ListImportFetch, Long> {
+
+    /**
+     * Lock the oldest due fetches, skipping rows another instance is already working on
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT f FROM ListImportFetch f WHERE f.notBefore <= :now ORDER BY f.id")
+    List<ListImportFetch> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Delete a finished entry, 0 when another instance got there first
+     */
+    @Modifying
+    @Query("DELETE FROM ListImportFetch f WHERE f.id = :id")
+    int deleteClaimed(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE ListImportFetch f SET f.attempt = f.attempt + 1 WHERE f.id = :id")
+    int incrementAttempt(@Param("id") Long id);
+}
@@ -0,0 +1,96 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.dto.ListImportJobDTO;
+import com.anipulse.animeservice.entity.ListImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repository for ListImportJob entity
+ * Progress is written with relative UPDATEs so concurrent writers on different instances never overwrite each other
+ */
+@Repository
+public interface ListImportJobRepository extends JpaRepository<ListImportJob, String> {
+
+    Optional<ListImportJob> findByIdAndUserId(String id, String userId);
+
+    /**
+     * QUEUED to RUNNING, 0 when the job was failed as stale while it waited
+     */
+    @Modifying
+    @Query("""
+            UPDATE ListImportJob j SET j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.RUNNING,
+                j.updatedAt = :now
+            WHERE j.id = :id AND j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.QUEUED
+            """)
+    int markRunning(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE ListImportJob j SET
+                j.totalEntries = j.totalEntries + :total,
+                j.importedEntries = j.importedEntries + :imported,
+                j.pendingEntries = j.pendingEntries + :pending,
+                j.failedEntries = j.failedEntries + :failed,
+                j.updatedAt = :now
+            WHERE j.id = :id
+            """)
+    int addProgress(@Param("id") String id, @Param("total") int total, @Param("imported") int imported,
+                    @Param("pending") int pending, @Param("failed") int failed, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ListImportJob j SET j.parsed = true, j.skippedEntries = :skipped, j.updatedAt = :now WHERE j.id = :id")
+    int markParsed(@Param("id") String id, @Param("skipped") int skipped, @Param("now") LocalDateTime now);
+
+    /**
+     * COMPLETED once parsed with nothing pending, returns 1 for the call that completed it
+     */
+    @Modifying
+    @Query("""
+            UPDATE ListImportJob j SET j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.COMPLETED,
+                j.finishedAt = :now, j.updatedAt = :now
+            WHERE j.id = :id AND j.parsed = true AND j.pendingEntries = 0 AND j.status IN :active
+            """)
+    int completeIfDone(@Param("id") String id, @Param("active") Collection<ListImportJobDTO.Status> active,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE ListImportJob j SET j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.FETCHING,
+                j.updatedAt = :now
+            WHERE j.id = :id AND j.parsed = true AND j.pendingEntries > 0
+                AND j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.RUNNING
+            """)
+    int markFetching(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE ListImportJob j SET j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.FAILED,
+                j.error = :error, j.finishedAt = :now, j.updatedAt = :now
+            WHERE j.id = :id
+            """)
+    int markFailed(@Param("id") String id, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    /**
+     * Fail jobs whose parsing instance stopped reporting progress (crash, deploy), their spool file is gone with it
+     */
+    @Modifying
+    @Query("""
+            UPDATE ListImportJob j SET j.status = com.anipulse.animeservice.dto.ListImportJobDTO.Status.FAILED,
+                j.error = :error, j.finishedAt = :now, j.updatedAt = :now
+            WHERE j.status IN :active AND j.parsed = false AND j.updatedAt < :threshold
+            """)
+    int failStale(@Param("active") Collection<ListImportJobDTO.Status> active, @Param("threshold") LocalDateTime threshold,
+                  @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ListImportJob j WHERE j.finishedAt < :threshold")
+    int deleteFinishedBefore(@Param("threshold") LocalDateTime threshold);
+}
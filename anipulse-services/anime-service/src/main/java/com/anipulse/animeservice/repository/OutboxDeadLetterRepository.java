@@ -0,0 +1,12 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for OutboxDeadLetter entity
+ */
+@Repository
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
@@ -0,0 +1,79 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.dto.RecommendationInteractionDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Keyset-paged reads of the interactions recommendation-service trains on.
+ * Both feeds walk their table in primary-key order, so every page is an index range scan
+ * however far into the table it starts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecommendationDataJdbcRepository {
+
+    /**
+     * One interaction with the primary key of the row it came from, to continue after it
+     */
+    public record Row(RecommendationInteractionDTO interaction, String userId, long keyAnimeId) {
+    }
+
+    private static final String COMPLETED_SQL = """
+            SELECT user_id, anime_id, rating FROM tbl_user_anime_list
+            WHERE watch_status = 'COMPLETED' %s
+            ORDER BY user_id, anime_id LIMIT ?
+            """;
+
+    // Ratings are keyed by MAL ID, the feed reports the catalog ID like the list feed does
+    private static final String RATINGS_SQL = """
+            SELECT r.user_id, r.anime_id AS mal_id, a.id AS anime_id, r.overall_rating
+            FROM tbl_user_anime_rating r JOIN anime a ON a.mal_id = r.anime_id
+            WHERE 1 = 1 %s
+            ORDER BY r.user_id, r.anime_id LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Completed list entries after the given key (null for the first page)
+     */
+    public List<Row> findCompleted(String afterUserId, Long afterAnimeId, int limit) {
+        boolean first = afterUserId == null;
+        String sql = COMPLETED_SQL.formatted(first ? "" : "AND (user_id, anime_id) > (?, ?)");
+        Object[] args = first ? new Object[]{limit} : new Object[]{afterUserId, afterAnimeId, limit};
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            double rating = rs.getDouble("rating");
+            boolean unrated = rs.wasNull();
+            String userId = rs.getString("user_id");
+            long animeId = rs.getLong("anime_id");
+            return new Row(RecommendationInteractionDTO.builder()
+                    .userId(userId)
+                    .animeId(animeId)
+                    .score(unrated ? null : rating)
+                    .build(), userId, animeId);
+        }, args);
+    }
+
+    /**
+     * Overall ratings after the given key (user ID, MAL ID; null for the first page)
+     */
+    public List<Row> findRatings(String afterUserId, Long afterMalId, int limit) {
+        boolean first = afterUserId == null;
+        String sql = RATINGS_SQL.formatted(first ? "" : "AND (r.user_id, r.anime_id) > (?, ?)");
+        Object[] args = first ? new Object[]{limit} : new Object[]{afterUserId, afterMalId, limit};
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            String userId = rs.getString("user_id");
+            return new Row(RecommendationInteractionDTO.builder()
+                    .userId(userId)
+                    .animeId(rs.getLong("anime_id"))
+                    .score((double) rs.getInt("overall_rating"))
+                    .build(), userId, rs.getLong("mal_id"));
+        }, args);
+    }
+}
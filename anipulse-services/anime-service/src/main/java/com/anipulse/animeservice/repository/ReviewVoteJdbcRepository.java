@@ -0,0 +1,97 @@
+package com.anipulse.animeservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Batched writes of review votes and of the helpfulness counts on tbl_user_anime_rating.
+ * Plain JDBC so that a flush is two batches however many votes it carries, and so that the
+ * count updates do not go through the entity (which would bump ratedAt).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewVoteJdbcRepository {
+
+    /**
+     * A vote to record
+     */
+    public record Vote(Long animeId, String authorId, String voterId, boolean helpful, LocalDateTime votedAt) {
+    }
+
+    /**
+     * Votes to add to one review's counts
+     */
+    public record CountDelta(Long animeId, String authorId, long helpful, long notHelpful) {
+    }
+
+    // Inserts nothing for a repeated vote or a review that no longer exists
+    private static final String INSERT_VOTE_SQL = """
+            INSERT IGNORE INTO tbl_review_vote (anime_id, author_id, voter_id, helpful, voted_at)
+            SELECT anime_id, user_id, ?, ?, ? FROM tbl_user_anime_rating WHERE user_id = ? AND anime_id = ?
+            """;
+
+    private static final String ADD_COUNTS_SQL = """
+            UPDATE tbl_user_anime_rating
+            SET helpful_count = helpful_count + ?, not_helpful_count = not_helpful_count + ?
+            WHERE user_id = ? AND anime_id = ?
+            """;
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the votes and report, per vote, whether it was new.
+     * A driver that rewrites batches cannot tell, those votes are reported as new.
+     */
+    public boolean[] insertVotes(List<Vote> votes) {
+        if (votes.isEmpty()) {
+            return new boolean[0];
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_VOTE_SQL, votes, JDBC_BATCH_SIZE, (ps, vote) -> {
+            ps.setString(1, vote.voterId());
+            ps.setBoolean(2, vote.helpful());
+            ps.setTimestamp(3, Timestamp.valueOf(vote.votedAt()));
+            ps.setString(4, vote.authorId());
+            ps.setLong(5, vote.animeId());
+        });
+
+        boolean[] inserted = new boolean[votes.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted[i++] = count > 0 || count == Statement.SUCCESS_NO_INFO;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Add the deltas to the reviews' counts, one row update per review.
+     * Rows are updated in primary-key order so concurrent flushes cannot deadlock.
+     */
+    public void addCounts(List<CountDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<CountDelta> ordered = new ArrayList<>(deltas);
+        ordered.sort(Comparator.comparing(CountDelta::authorId).thenComparing(CountDelta::animeId));
+
+        jdbcTemplate.batchUpdate(ADD_COUNTS_SQL, ordered, JDBC_BATCH_SIZE, (ps, delta) -> {
+            ps.setLong(1, delta.helpful());
+            ps.setLong(2, delta.notHelpful());
+            ps.setString(3, delta.authorId());
+            ps.setLong(4, delta.animeId());
+        });
+    }
+}
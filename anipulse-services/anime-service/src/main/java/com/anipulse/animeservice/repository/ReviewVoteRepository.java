@@ -0,0 +1,23 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.ReviewVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ReviewVote entity
+ * Votes are inserted in batches by ReviewVoteJdbcRepository
+ */
+@Repository
+public interface ReviewVoteRepository extends JpaRepository<ReviewVote, ReviewVote.ReviewVoteId> {
+
+    /**
+     * Drop the votes of a deleted review
+     */
+    @Modifying
+    @Query("DELETE FROM ReviewVote v WHERE v.animeId = :animeId AND v.authorId = :authorId")
+    int deleteByReview(@Param("animeId") Long animeId, @Param("authorId") String authorId);
+}
@@ -0,0 +1,33 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.UserAnimeListDeletion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for UserAnimeListDeletion entity
+ * Deletion log read by delta sync
+ */
+@Repository
+public interface UserAnimeListDeletionRepository extends JpaRepository<UserAnimeListDeletion, Long> {
+
+    /**
+     * Tombstones of one user newer than the given time (served by idx_user_deleted_at)
+     */
+    List<UserAnimeListDeletion> findByUserIdAndDeletedAtAfterOrderByDeletedAt(String userId, LocalDateTime since,
+                                                                              Limit limit);
+
+    /**
+     * Drop tombstones older than the retention window
+     */
+    @Modifying
+    @Query("DELETE FROM UserAnimeListDeletion d WHERE d.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,132 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.WatchStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-based writes to tbl_user_anime_list for bulk paths (imports, batch edits).
+ * Goes through JDBC batching because Hibernate would select each composite-key row before merging it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserAnimeListJdbcRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO tbl_user_anime_list
+                (user_id, anime_id, watch_status, progress, rating, notes, added_at, updated_at, completed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                watch_status = VALUES(watch_status),
+                progress = VALUES(progress),
+                rating = VALUES(rating),
+                notes = VALUES(notes),
+                updated_at = VALUES(updated_at),
+                completed_at = COALESCE(completed_at, VALUES(completed_at))
+            """;
+
+    private static final String UPDATE_PROGRESS_SQL =
+            "UPDATE tbl_user_anime_list SET progress = ?, updated_at = ? WHERE user_id = ? AND anime_id = ?";
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert or overwrite the given entries. addedAt/updatedAt are stamped here, an existing
+     * completedAt is kept. The rows are updated with the timestamps that were written.
+     */
+    public void batchUpsert(List<UserAnimeList> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        entries.forEach(entry -> {
+            if (entry.getAddedAt() == null) {
+                entry.setAddedAt(now);
+            }
+            entry.setUpdatedAt(now);
+        });
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, JDBC_BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getUserId());
+            ps.setLong(2, entry.getAnimeId());
+            ps.setString(3, entry.getWatchStatus().name());
+            ps.setInt(4, entry.getProgress() != null ? entry.getProgress() : 0);
+            if (entry.getRating() != null) {
+                ps.setDouble(5, entry.getRating());
+            } else {
+                ps.setNull(5, Types.DOUBLE);
+            }
+            ps.setString(6, entry.getNotes());
+            ps.setTimestamp(7, Timestamp.valueOf(entry.getAddedAt()));
+            ps.setTimestamp(8, timestamp);
+            ps.setTimestamp(9, entry.getCompletedAt() != null ? Timestamp.valueOf(entry.getCompletedAt()) : null);
+        });
+    }
+
+    /**
+     * Lock the given entries and read the columns stats and change events need.
+     * Rows are locked in primary-key order so concurrent flushes cannot deadlock; deleted entries are absent.
+     */
+    public List<UserAnimeList> lockEntries(Collection<UserAnimeList.UserAnimeListId> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = "SELECT user_id, anime_id, watch_status, progress, rating, completed_at, updated_at"
+                + " FROM tbl_user_anime_list WHERE (user_id, anime_id) IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "(?, ?)"))
+                + ") ORDER BY user_id, anime_id FOR UPDATE";
+
+        Object[] args = new Object[ids.size() * 2];
+        int i = 0;
+        for (UserAnimeList.UserAnimeListId id : ids) {
+            args[i++] = id.getUserId();
+            args[i++] = id.getAnimeId();
+        }
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            double rating = rs.getDouble("rating");
+            boolean unrated = rs.wasNull();
+            Timestamp completedAt = rs.getTimestamp("completed_at");
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            return UserAnimeList.builder()
+                    .userId(rs.getString("user_id"))
+                    .animeId(rs.getLong("anime_id"))
+                    .watchStatus(WatchStatus.valueOf(rs.getString("watch_status")))
+                    .progress(rs.getInt("progress"))
+                    .rating(unrated ? null : rating)
+                    .completedAt(completedAt != null ? completedAt.toLocalDateTime() : null)
+                    .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                    .build();
+        }, args);
+    }
+
+    /**
+     * Write progress and updatedAt of the given entries in one batch, the caller holds their row locks
+     */
+    public void batchUpdateProgress(List<UserAnimeList> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_PROGRESS_SQL, entries, JDBC_BATCH_SIZE, (ps, entry) -> {
+            ps.setInt(1, entry.getProgress());
+            ps.setTimestamp(2, Timestamp.valueOf(entry.getUpdatedAt()));
+            ps.setString(3, entry.getUserId());
+            ps.setLong(4, entry.getAnimeId());
+        });
+    }
+}
@@ -2,16 +2,29 @@ package com.anipulse.animeservice.repository;
 
 import com.anipulse.animeservice.entity.UserAnimeList;
 import com.anipulse.animeservice.entity.WatchStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for UserAnimeList entity
@@ -26,18 +39,52 @@ public interface UserAnimeListRepository extends JpaRepository<UserAnimeList, Us
      */
     Optional<UserAnimeList> findByUserIdAndAnimeId(String userId, Long animeId);
 
+    /**
+     * Find and lock user's anime list entry before changing it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UserAnimeList u WHERE u.userId = :userId AND u.animeId = :animeId")
+    Optional<UserAnimeList> findForUpdate(@Param("userId") String userId, @Param("animeId") Long animeId);
+
     boolean existsByUserIdAndAnimeId(String userId, Long animeId);
 
+    /**
+     * Find and lock several entries of one user in a single query (batch mutations).
+     * Rows are locked in key order, the same order the progress write-behind locks them in
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM UserAnimeList u WHERE u.userId = :userId AND u.animeId IN :animeIds ORDER BY u.animeId")
+    List<UserAnimeList> findForUpdateIn(@Param("userId") String userId, @Param("animeIds") Collection<Long> animeIds);
+
     /**
      * Get user's complete anime list with pagination
+     * The anime summary is joined in the same query, listings always render it
      */
+    @EntityGraph(attributePaths = "anime")
     Page<UserAnimeList> findByUserId(String userId, Pageable pageable);
 
     /**
      * Get user's anime list filtered by watch status
      */
+    @EntityGraph(attributePaths = "anime")
     Page<UserAnimeList> findByUserIdAndWatchStatus(String userId, WatchStatus status, Pageable pageable);
 
+    /**
+     * Keyset-paginated variants: seek past the last seen sort key instead of OFFSET, no COUNT query
+     */
+    @EntityGraph(attributePaths = "anime")
+    Window<UserAnimeList> findByUserId(String userId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "anime")
+    Window<UserAnimeList> findByUserIdAndWatchStatus(String userId, WatchStatus status,
+                                                     ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Entries of one user changed after the given time, oldest first (delta sync, idx_user_updated_anime)
+     */
+    @EntityGraph(attributePaths = "anime")
+    List<UserAnimeList> findByUserIdAndUpdatedAtAfterOrderByUpdatedAt(String userId, LocalDateTime since, Limit limit);
+
     /**
      * Count anime by watch status for a user
      */
@@ -67,6 +114,12 @@ public interface UserAnimeListRepository extends JpaRepository<UserAnimeList, Us
     @Query("SELECT u.animeId FROM UserAnimeList u WHERE u.userId = :userId")
     List<Long> findAnimeIdsByUserId(@Param("userId") String userId);
 
+    /**
+     * Get [animeId, malId] of every anime in user's list (membership set)
+     */
+    @Query("SELECT u.animeId, a.malId FROM UserAnimeList u JOIN u.anime a WHERE u.userId = :userId")
+    List<Object[]> findAnimeAndMalIdsByUserId(@Param("userId") String userId);
+
     /**
      * Find users who watched specific anime (for collaborative filtering)
      */
@@ -80,6 +133,24 @@ public interface UserAnimeListRepository extends JpaRepository<UserAnimeList, Us
             "WHERE u.userId = :userId AND g.name = :genreName AND u.watchStatus = 'COMPLETED'")
     List<UserAnimeList> findByUserIdAndGenre(@Param("userId") String userId, @Param("genreName") String genreName);
 
+    /**
+     * Get MAL IDs of the anime that appear in the most user lists (for cache warming)
+     */
+    @Query("SELECT a.malId FROM UserAnimeList u JOIN u.anime a GROUP BY a.malId ORDER BY COUNT(u) DESC")
+    List<Long> findMostListedMalIds(Pageable pageable);
+
+    /**
+     * Stream user's whole list row by row for exports.
+     * A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream the result set instead of buffering it;
+     * the caller must consume the stream inside a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM UserAnimeList u LEFT JOIN FETCH u.anime WHERE u.userId = :userId ORDER BY u.animeId")
+    Stream<UserAnimeList> streamByUserId(@Param("userId") String userId);
+
     /**
      * Count total anime in user's list
      */
@@ -89,4 +160,11 @@ public interface UserAnimeListRepository extends JpaRepository<UserAnimeList, Us
      * Delete anime from user's list
      */
     void deleteByUserIdAndAnimeId(String userId, Long animeId);
+
+    /**
+     * Delete several anime from user's list with one statement
+     */
+    @Modifying
+    @Query("DELETE FROM UserAnimeList u WHERE u.userId = :userId AND u.animeId IN :animeIds")
+    int deleteByUserIdAndAnimeIdIn(@Param("userId") String userId, @Param("animeIds") Collection<Long> animeIds);
 }
@@ -1,16 +1,28 @@
 package com.anipulse.animeservice.repository;
 
 import com.anipulse.animeservice.entity.UserAnimeRating;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for UserAnimeRating entity
@@ -24,6 +36,19 @@ public interface UserAnimeRatingRepository extends JpaRepository<UserAnimeRating
      */
     Optional<UserAnimeRating> findByUserIdAndAnimeId(String userId, Long animeId);
 
+    /**
+     * Find user's ratings of several anime with one primary-key IN query (card grids)
+     */
+    @EntityGraph(attributePaths = "anime")
+    List<UserAnimeRating> findByUserIdAndAnimeIdIn(String userId, Collection<Long> animeIds);
+
+    /**
+     * Find and lock user's rating before changing it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM UserAnimeRating r WHERE r.userId = :userId AND r.animeId = :animeId")
+    Optional<UserAnimeRating> findForUpdate(@Param("userId") String userId, @Param("animeId") Long animeId);
+
     /**
      * Check if user has rated anime
      */
@@ -31,14 +56,36 @@ public interface UserAnimeRatingRepository extends JpaRepository<UserAnimeRating
 
     /**
      * Get all ratings by user with pagination
+     * The anime summary is joined in the same query, listings always render it
      */
+    @EntityGraph(attributePaths = "anime")
     Page<UserAnimeRating> findByUserId(String userId, Pageable pageable);
 
     /**
      * Get all ratings for specific anime (for average calculation)
      */
+    @EntityGraph(attributePaths = "anime")
     Page<UserAnimeRating> findByAnimeId(Long animeId, Pageable pageable);
 
+    /**
+     * Keyset-paginated variants: seek past the last seen sort key instead of OFFSET, no COUNT query
+     */
+    @EntityGraph(attributePaths = "anime")
+    Window<UserAnimeRating> findByUserId(String userId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = "anime")
+    Window<UserAnimeRating> findByAnimeId(Long animeId, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Stream all ratings by user row by row for exports (see UserAnimeListRepository#streamByUserId)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM UserAnimeRating r LEFT JOIN FETCH r.anime WHERE r.userId = :userId ORDER BY r.animeId")
+    Stream<UserAnimeRating> streamByUserId(@Param("userId") String userId);
+
     /**
      * Calculate average overall rating for anime
      */
@@ -92,15 +139,50 @@ public interface UserAnimeRatingRepository extends JpaRepository<UserAnimeRating
     Page<UserAnimeRating> findRatingsWithReviews(@Param("animeId") Long animeId, Pageable pageable);
 
     /**
-     * Find similar users based on rating patterns (for collaborative filtering)
+     * Reviews of an anime most helpful first, read in idx_anime_helpful_user order
+     */
+    @EntityGraph(attributePaths = "anime")
+    @Query(value = "SELECT r FROM UserAnimeRating r WHERE r.animeId = :animeId AND r.reviewText IS NOT NULL " +
+            "ORDER BY r.helpfulCount DESC, r.userId DESC",
+            countQuery = "SELECT COUNT(r) FROM UserAnimeRating r WHERE r.animeId = :animeId AND r.reviewText IS NOT NULL")
+    Page<UserAnimeRating> findReviewsByHelpfulness(@Param("animeId") Long animeId, Pageable pageable);
+
+    /**
+     * Check that a user's rating of an anime exists and has a review
+     */
+    boolean existsByUserIdAndAnimeIdAndReviewTextIsNotNull(String userId, Long animeId);
+
+    /**
+     * Search review texts through the ftx_review_text FULLTEXT index, newest first.
+     * query is in boolean mode syntax, see UserAnimeRatingService#toBooleanQuery
+     */
+    @Query(value = "SELECT * FROM tbl_user_anime_rating " +
+            "WHERE MATCH(review_text) AGAINST (:query IN BOOLEAN MODE) " +
+            "ORDER BY rated_at DESC, anime_id, user_id",
+            countQuery = "SELECT COUNT(*) FROM tbl_user_anime_rating WHERE MATCH(review_text) AGAINST (:query IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<UserAnimeRating> searchReviewsByRecency(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Search review texts through the ftx_review_text FULLTEXT index, most relevant first
+     */
+    @Query(value = "SELECT * FROM tbl_user_anime_rating " +
+            "WHERE MATCH(review_text) AGAINST (:query IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(review_text) AGAINST (:query IN BOOLEAN MODE) DESC, rated_at DESC, anime_id, user_id",
+            countQuery = "SELECT COUNT(*) FROM tbl_user_anime_rating WHERE MATCH(review_text) AGAINST (:query IN BOOLEAN MODE)",
+            nativeQuery = true)
+    Page<UserAnimeRating> searchReviewsByRelevance(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Stream (userId, animeId, overallRating) of every rating to load the in-memory rating matrix
+     * (see UserAnimeListRepository#streamByUserId for the fetch size)
      */
-    @Query("SELECT r.userId, COUNT(*), AVG(ABS(r1.overallRating - r.overallRating)) " +
-            "FROM UserAnimeRating r1 JOIN UserAnimeRating r ON r1.animeId = r.animeId " +
-            "WHERE r1.userId = :userId AND r.userId != :userId " +
-            "GROUP BY r.userId " +
-            "HAVING COUNT(*) >= :minCommonRatings " +
-            "ORDER BY AVG(ABS(r1.overallRating - r.overallRating)) ASC")
-    List<Object[]> findSimilarUsers(@Param("userId") String userId, @Param("minCommonRatings") long minCommonRatings);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.userId, r.animeId, r.overallRating FROM UserAnimeRating r")
+    Stream<Object[]> streamOverallRatings();
 
     /**
      * Delete user's rating
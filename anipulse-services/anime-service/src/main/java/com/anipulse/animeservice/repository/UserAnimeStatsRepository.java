@@ -0,0 +1,105 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.entity.UserAnimeStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for UserAnimeStats entity
+ * Counters are only changed through the atomic delta/rebuild statements below
+ */
+@Repository
+public interface UserAnimeStatsRepository extends JpaRepository<UserAnimeStats, String> {
+
+    String REBUILD_SELECT = """
+            INSERT INTO tbl_user_anime_stats
+                (user_id, watching, completed, on_hold, dropped, plan_to_watch,
+                 total_episodes, rating_sum, rating_count, updated_at)
+            SELECT user_id,
+                   SUM(watch_status = 'WATCHING'),
+                   SUM(watch_status = 'COMPLETED'),
+                   SUM(watch_status = 'ON_HOLD'),
+                   SUM(watch_status = 'DROPPED'),
+                   SUM(watch_status = 'PLAN_TO_WATCH'),
+                   COALESCE(SUM(progress), 0),
+                   COALESCE(SUM(rating), 0),
+                   COUNT(rating),
+                   NOW()
+            FROM tbl_user_anime_list""";
+
+    String REBUILD_UPDATE = """
+
+            ON DUPLICATE KEY UPDATE
+                watching = VALUES(watching),
+                completed = VALUES(completed),
+                on_hold = VALUES(on_hold),
+                dropped = VALUES(dropped),
+                plan_to_watch = VALUES(plan_to_watch),
+                total_episodes = VALUES(total_episodes),
+                rating_sum = VALUES(rating_sum),
+                rating_count = VALUES(rating_count),
+                updated_at = NOW()""";
+
+    /**
+     * Add a delta to a user's counters, creating the row on first write
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_user_anime_stats
+                (user_id, watching, completed, on_hold, dropped, plan_to_watch,
+                 total_episodes, rating_sum, rating_count, updated_at)
+            VALUES (:userId, :watching, :completed, :onHold, :dropped, :planToWatch,
+                    :totalEpisodes, :ratingSum, :ratingCount, NOW())
+            ON DUPLICATE KEY UPDATE
+                watching = watching + VALUES(watching),
+                completed = completed + VALUES(completed),
+                on_hold = on_hold + VALUES(on_hold),
+                dropped = dropped + VALUES(dropped),
+                plan_to_watch = plan_to_watch + VALUES(plan_to_watch),
+                total_episodes = total_episodes + VALUES(total_episodes),
+                rating_sum = rating_sum + VALUES(rating_sum),
+                rating_count = rating_count + VALUES(rating_count),
+                updated_at = NOW()
+            """, nativeQuery = true)
+    void applyDelta(@Param("userId") String userId,
+                    @Param("watching") long watching,
+                    @Param("completed") long completed,
+                    @Param("onHold") long onHold,
+                    @Param("dropped") long dropped,
+                    @Param("planToWatch") long planToWatch,
+                    @Param("totalEpisodes") long totalEpisodes,
+                    @Param("ratingSum") double ratingSum,
+                    @Param("ratingCount") long ratingCount);
+
+    /**
+     * Recompute every user's counters in one GROUP BY pass over tbl_user_anime_list
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + " GROUP BY user_id" + REBUILD_UPDATE, nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Recompute one user's counters (bulk imports, where the previous row values are not known)
+     */
+    @Modifying
+    @Query(value = REBUILD_SELECT + " WHERE user_id = :userId GROUP BY user_id" + REBUILD_UPDATE, nativeQuery = true)
+    int rebuildUser(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM UserAnimeStats s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") String userId);
+
+    /**
+     * Drop counters of users whose list is empty, the GROUP BY pass does not produce a row for them
+     */
+    @Modifying
+    @Query(value = """
+            DELETE s FROM tbl_user_anime_stats s
+            LEFT JOIN (SELECT DISTINCT user_id FROM tbl_user_anime_list) l ON l.user_id = s.user_id
+            WHERE l.user_id IS NULL
+            """, nativeQuery = true)
+    int deleteOrphaned();
+}
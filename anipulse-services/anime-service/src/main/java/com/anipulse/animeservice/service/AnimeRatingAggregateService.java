@@ -0,0 +1,216 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.AnimeRatingDistributionDTO;
+import com.anipulse.animeservice.dto.AnimeRatingStatsDTO;
+import com.anipulse.animeservice.entity.AnimeRatingAggregate;
+import com.anipulse.animeservice.entity.AnimeRatingHistogramBucket;
+import com.anipulse.animeservice.entity.RatingDimension;
+import com.anipulse.animeservice.entity.UserAnimeRating;
+import com.anipulse.animeservice.repository.AnimeRatingAggregateRepository;
+import com.anipulse.animeservice.repository.AnimeRatingHistogramJdbcRepository;
+import com.anipulse.animeservice.repository.AnimeRatingHistogramRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains tbl_anime_rating_aggregate and tbl_anime_rating_histogram.
+ * Rating writers pass a {@link Snapshot} of the rating before and after their change to {@link #recordChange},
+ * which applies the difference as one upsert per table inside the writer's transaction. Readers get the stats
+ * and the distribution with a primary-key lookup that already reflects the last committed write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnimeRatingAggregateService {
+
+    private final AnimeRatingAggregateRepository aggregateRepository;
+    private final AnimeRatingHistogramRepository histogramRepository;
+    private final AnimeRatingHistogramJdbcRepository histogramJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Anime ID ranges recounted concurrently by rebuildHistograms
+    @Value("${app.stats.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    /**
+     * The parts of a rating the aggregate depends on
+     */
+    public record Snapshot(int overall, int story, int animation, int character) {
+
+        public static Snapshot of(UserAnimeRating rating) {
+            if (rating == null) {
+                return null;
+            }
+            return new Snapshot(rating.getOverallRating(), rating.getStoryRating(),
+                    rating.getAnimationRating(), rating.getCharacterRating());
+        }
+
+        int score(RatingDimension dimension) {
+            return switch (dimension) {
+                case OVERALL -> overall;
+                case STORY -> story;
+                case ANIMATION -> animation;
+                case CHARACTER -> character;
+            };
+        }
+    }
+
+    /**
+     * Apply the change of one rating, before is null for a new rating and after is null for a delete
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long animeId, Snapshot before, Snapshot after) {
+        long count = (after != null ? 1 : 0) - (before != null ? 1 : 0);
+        long overall = (after != null ? after.overall() : 0) - (before != null ? before.overall() : 0);
+        long story = (after != null ? after.story() : 0) - (before != null ? before.story() : 0);
+        long animation = (after != null ? after.animation() : 0) - (before != null ? before.animation() : 0);
+        long character = (after != null ? after.character() : 0) - (before != null ? before.character() : 0);
+        if (count == 0 && overall == 0 && story == 0 && animation == 0 && character == 0) {
+            return;
+        }
+        aggregateRepository.applyDelta(animeId, count, overall, story, animation, character);
+
+        // The old score's bucket loses one, the new one gains one; unchanged dimensions cancel out
+        List<AnimeRatingHistogramJdbcRepository.BucketDelta> buckets = new ArrayList<>();
+        for (RatingDimension dimension : RatingDimension.values()) {
+            Integer from = before != null ? before.score(dimension) : null;
+            Integer to = after != null ? after.score(dimension) : null;
+            if (Objects.equals(from, to)) {
+                continue;
+            }
+            if (from != null) {
+                buckets.add(new AnimeRatingHistogramJdbcRepository.BucketDelta(dimension, from, -1));
+            }
+            if (to != null) {
+                buckets.add(new AnimeRatingHistogramJdbcRepository.BucketDelta(dimension, to, 1));
+            }
+        }
+        histogramJdbcRepository.applyDeltas(animeId, buckets);
+    }
+
+    /**
+     * Recompute all anime with one GROUP BY pass
+     */
+    @Transactional
+    public int rebuildAll() {
+        long start = System.currentTimeMillis();
+        int upserted = aggregateRepository.rebuildAll();
+        int orphaned = aggregateRepository.deleteOrphaned();
+        log.info("Rebuilt anime rating aggregates in {} ms ({} rows affected, {} orphaned rows removed)",
+                System.currentTimeMillis() - start, upserted, orphaned);
+        return upserted;
+    }
+
+    /**
+     * Recount all histograms from tbl_user_anime_rating, splitting the anime ID space into ranges
+     * that are rebuilt concurrently, each in its own transaction
+     */
+    public void rebuildHistograms() {
+        long[] range = histogramJdbcRepository.ratedAnimeIdRange();
+        if (range == null) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int parallelism = Math.max(1, rebuildParallelism);
+        long span = (range[1] - range[0]) / parallelism + 1;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                long from = range[0] + i * span;
+                // The last range is open-ended so rows outside the sampled MIN/MAX are still covered
+                long to = i == parallelism - 1 ? Long.MAX_VALUE : from + span;
+                tasks.add(CompletableFuture.supplyAsync(
+                        () -> transaction.execute(status -> histogramJdbcRepository.rebuildRange(from, to)), executor));
+            }
+            int upserted = tasks.stream().mapToInt(CompletableFuture::join).sum();
+            log.info("Rebuilt anime rating histograms in {} ms ({} ranges, {} rows affected)",
+                    System.currentTimeMillis() - start, parallelism, upserted);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public AnimeRatingDistributionDTO getDistribution(Long animeId) {
+        Map<RatingDimension, Long[]> counts = new EnumMap<>(RatingDimension.class);
+        for (RatingDimension dimension : RatingDimension.values()) {
+            Long[] buckets = new Long[10];
+            Arrays.fill(buckets, 0L);
+            counts.put(dimension, buckets);
+        }
+        for (AnimeRatingHistogramBucket bucket : histogramRepository.findByAnimeId(animeId)) {
+            if (bucket.getBucket() >= 1 && bucket.getBucket() <= 10) {
+                counts.get(bucket.getDimension())[bucket.getBucket() - 1] = bucket.getRatingCount();
+            }
+        }
+
+        Map<RatingDimension, List<Long>> distribution = new EnumMap<>(RatingDimension.class);
+        counts.forEach((dimension, buckets) -> distribution.put(dimension, List.of(buckets)));
+        return AnimeRatingDistributionDTO.builder()
+                .animeId(animeId)
+                // Every rating has an overall score, so its buckets add up to the rating count
+                .totalRatings(distribution.get(RatingDimension.OVERALL).stream().mapToLong(Long::longValue).sum())
+                .distribution(distribution)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public AnimeRatingStatsDTO getStats(Long animeId) {
+        AnimeRatingAggregate aggregate = aggregateRepository.findById(animeId)
+                .orElseGet(() -> AnimeRatingAggregate.builder().animeId(animeId).build());
+        long count = aggregate.getRatingCount();
+
+        return AnimeRatingStatsDTO.builder()
+                .animeId(animeId)
+                .averageOverallRating(average(aggregate.getOverallSum(), count))
+                .averageStoryRating(average(aggregate.getStorySum(), count))
+                .averageAnimationRating(average(aggregate.getAnimationSum(), count))
+                .averageCharacterRating(average(aggregate.getCharacterSum(), count))
+                .totalRatings(count)
+                .build();
+    }
+
+    /**
+     * Aggregates of several anime with one primary-key IN query, anime without ratings are left out
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AnimeRatingAggregate> getAggregates(Collection<Long> animeIds) {
+        if (animeIds.isEmpty()) {
+            return Map.of();
+        }
+        return aggregateRepository.findAllById(animeIds).stream()
+                .filter(aggregate -> aggregate.getRatingCount() > 0)
+                .collect(Collectors.toMap(AnimeRatingAggregate::getAnimeId, Function.identity()));
+    }
+
+    public static Double averageOverall(AnimeRatingAggregate aggregate) {
+        return average(aggregate.getOverallSum(), aggregate.getRatingCount());
+    }
+
+    // Null without ratings, as AVG over no rows was
+    private static Double average(long sum, long count) {
+        return count > 0 ? (double) sum / count : null;
+    }
+}
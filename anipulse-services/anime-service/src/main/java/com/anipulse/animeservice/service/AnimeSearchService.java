@@ -1,6 +1,8 @@
 package com.anipulse.animeservice.service;
 
+import com.anipulse.animeservice.cache.RedisCacheBulkReader;
 import com.anipulse.animeservice.client.JikanApiClient;
+import com.anipulse.animeservice.config.AnimeCacheProperties;
 import com.anipulse.animeservice.dto.AnimeDTO;
 import com.anipulse.animeservice.dto.AnimeSearchResultDTO;
 import com.anipulse.animeservice.dto.jikan.JikanAnimeData;
@@ -8,18 +10,30 @@ import com.anipulse.animeservice.dto.jikan.JikanAnimeResponse;
 import com.anipulse.animeservice.dto.jikan.JikanSearchResponse;
 import com.anipulse.animeservice.entity.Anime;
 import com.anipulse.animeservice.entity.AnimeGenre;
+import com.anipulse.animeservice.exception.AnimeNotFoundException;
 import com.anipulse.animeservice.mapper.AnimeMapper;
 import com.anipulse.animeservice.repository.AnimeGenreRepository;
 import com.anipulse.animeservice.repository.AnimeRepository;
+import com.anipulse.animeservice.util.NegativeAnimeCache;
+import com.anipulse.animeservice.util.SearchQueryNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -33,6 +47,19 @@ public class AnimeSearchService {
     private final AnimeRepository animeRepository;
     private final AnimeGenreRepository genreRepository;
     private final AnimeMapper animeMapper;
+    private final NegativeAnimeCache negativeAnimeCache;
+    private final CacheManager cacheManager;
+    private final RedisCacheBulkReader cacheBulkReader;
+    private final AnimeCacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
+
+    // Canonical queries last answered by a prefix approximation, oldest dropped first once the bound is reached
+    private final Set<String> approximatedQueries = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > cacheProperties.getSearch().getMaxApproximatedQueries();
+        }
+    });
 
     /**
      * Get anime by MAL ID with caching and database persistence
@@ -46,50 +73,41 @@ public class AnimeSearchService {
     }
 
     /**
-     * Search anime with caching
+     * Search anime with caching.
+     * The query is canonicalized for both the cache key and the upstream call, and a first page
+     * is approximated locally when a complete result for a shorter prefix is already cached.
+     * A query is approximated at most once: the approximation is not cached and the query is remembered,
+     * so its next miss goes upstream and caches the real page (which may hold synonym matches the filter missed).
+     * The cache hit ratio is anime.cache.gets{cache=animeSearch,result=hit|miss} (InstrumentedCache),
+     * and anime.search.lookups{source} splits the misses into prefix filtering and upstream calls.
      */
-    @Cacheable(value = "animeSearch", key = "#query + '_' + #page")
+    @Cacheable(value = "animeSearch",
+            key = "T(com.anipulse.animeservice.util.SearchQueryNormalizer).canonicalize(#query) + '_' + #page",
+            unless = "#result.prefixFiltered or #result.upstreamFallback")
     public AnimeSearchResultDTO searchAnime(String query, int page) throws InterruptedException {
-        log.info("Searching anime with query: '{}', page: {}", query, page);
-
-        JikanSearchResponse response = jikanApiClient.searchAnime(query, page)
-                .block();
-
-        if (response == null || response.getData() == null) {
-            return AnimeSearchResultDTO.builder()
-                    .data(List.of())
-                    .pagination(AnimeSearchResultDTO.PaginationDTO.builder()
-                            .currentPage(page)
-                            .hasNextPage(false)
-                            .build())
-                    .build();
+        String canonicalQuery = SearchQueryNormalizer.canonicalize(query);
+        log.info("Searching anime with query: '{}', page: {}", canonicalQuery, page);
+
+        if (page == 1 && !consumeApproximated(canonicalQuery)) {
+            Optional<AnimeSearchResultDTO> local = filterFromCachedPrefix(canonicalQuery);
+            if (local.isPresent()) {
+                markApproximated(canonicalQuery);
+                meterRegistry.counter("anime.search.lookups", "source", "prefix_filter").increment();
+                return local.get();
+            }
         }
 
-        List<AnimeDTO> animeList = response.getData().stream()
-                .map(animeMapper::jikanToDTO)
-                .collect(Collectors.toList());
-
-        AnimeSearchResultDTO.PaginationDTO pagination = AnimeSearchResultDTO.PaginationDTO.builder()
-                .currentPage(page)
-                .lastPage(response.getPagination() != null ?
-                        response.getPagination().getLastVisiblePage() : 1)
-                .hasNextPage(response.getPagination() != null &&
-                        response.getPagination().getHasNextPage())
-                .totalItems(response.getPagination() != null &&
-                        response.getPagination().getItems() != null ?
-                        response.getPagination().getItems().getTotal() : 0)
-                .build();
+        meterRegistry.counter("anime.search.lookups", "source", "upstream").increment();
+        JikanSearchResponse response = jikanApiClient.searchAnime(canonicalQuery, page)
+                .block();
 
-        return AnimeSearchResultDTO.builder()
-                .data(animeList)
-                .pagination(pagination)
-                .build();
+        return buildSearchResult(response, page);
     }
 
     /**
-     * Get top anime with caching
+     * Get top anime with caching, an outage page is served but not cached
      */
-    @Cacheable(value = "topAnime", key = "#type + '_' + #page")
+    @Cacheable(value = "topAnime", key = "#type + '_' + #page", unless = "#result.upstreamFallback")
     public AnimeSearchResultDTO getTopAnime(String type, int page) throws InterruptedException {
         log.info("Fetching top anime, type: {}, page: {}", type, page);
 
@@ -100,9 +118,10 @@ public class AnimeSearchService {
     }
 
     /**
-     * Get seasonal anime with caching
+     * Get seasonal anime with caching, an outage page is served but not cached
      */
-    @Cacheable(value = "seasonalAnime", key = "#season + '_' + #year + '_' + #page")
+    @Cacheable(value = "seasonalAnime", key = "#season + '_' + #year + '_' + #page",
+            unless = "#result.upstreamFallback")
     public AnimeSearchResultDTO getSeasonalAnime(String season, int year, int page) throws InterruptedException {
         log.info("Fetching seasonal anime: {} {}, page: {}", season, year, page);
 
@@ -123,11 +142,27 @@ public class AnimeSearchService {
             return animeMapper.entityToDTO(existingAnime.get());
         }
 
-        JikanAnimeResponse response = jikanApiClient.getAnimeById(malId)
-                .block();
+        // Skip the JIKAN call for IDs it recently could not resolve. Consulted only after the database,
+        // since another instance may have stored the anime while this one still holds the negative entry
+        negativeAnimeCache.lookup(malId).ifPresent(kind -> {
+            throw kind == NegativeAnimeCache.Kind.NOT_FOUND
+                    ? new AnimeNotFoundException(malId)
+                    : unavailable(malId);
+        });
+
+        JikanAnimeResponse response;
+        try {
+            response = jikanApiClient.getAnimeById(malId)
+                    .block();
+        } catch (AnimeNotFoundException e) {
+            negativeAnimeCache.put(malId, NegativeAnimeCache.Kind.NOT_FOUND);
+            throw e;
+        }
 
+        // Empty response means the circuit-breaker fallback kicked in, not that the anime is missing
         if (response == null || response.getData() == null) {
-            throw new RuntimeException("Anime not found: " + malId);
+            negativeAnimeCache.put(malId, NegativeAnimeCache.Kind.TRANSIENT);
+            throw unavailable(malId);
         }
 
         Anime anime = animeMapper.jikanToEntity(response.getData());
@@ -138,6 +173,7 @@ public class AnimeSearchService {
 
         // Save anime to database
         anime = animeRepository.save(anime);
+        negativeAnimeCache.invalidate(malId);
         log.info("Saved new anime {} to database with ID: {}", malId, anime.getId());
 
         return animeMapper.entityToDTO(anime);
@@ -157,6 +193,7 @@ public class AnimeSearchService {
             anime.getGenres().addAll(genres);
 
             anime = animeRepository.save(anime);
+            negativeAnimeCache.invalidate(anime.getMalId());
             log.info("Refreshed anime data: {}", anime.getMalId());
         }
 
@@ -182,7 +219,104 @@ public class AnimeSearchService {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Approximates a query by filtering the complete cached result of its longest cached prefix by title.
+     * Only title-substring matching makes a longer query's results a subset of a prefix's; Jikan's relevance
+     * search also matches synonyms and other fields, so the approximation can miss anime upstream would return.
+     * All candidate prefixes are probed in one MGET, which the cache metrics do not see.
+     */
+    private Optional<AnimeSearchResultDTO> filterFromCachedPrefix(String canonicalQuery) {
+        AnimeCacheProperties.Search search = cacheProperties.getSearch();
+        if (!search.isPrefixReuseEnabled() || canonicalQuery.length() > search.getPrefixReuseMaxQueryLength()) {
+            return Optional.empty();
+        }
+
+        Cache cache = cacheManager.getCache("animeSearch");
+        if (cache == null) {
+            return Optional.empty();
+        }
+
+        // Longest prefix first
+        List<String> prefixes = new ArrayList<>();
+        for (int length = canonicalQuery.length() - 1; length >= search.getPrefixReuseMinLength(); length--) {
+            String prefix = canonicalQuery.substring(0, length);
+            // Canonical keys never end with whitespace
+            if (!prefix.endsWith(" ")) {
+                prefixes.add(prefix);
+            }
+        }
+        if (prefixes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<AnimeSearchResultDTO> cachedResults = cacheBulkReader.multiGet(cache,
+                prefixes.stream().map(prefix -> prefix + "_1").toList(), AnimeSearchResultDTO.class).orElse(null);
+        if (cachedResults == null) {
+            return Optional.empty();
+        }
+
+        for (int i = 0; i < prefixes.size(); i++) {
+            String prefix = prefixes.get(i);
+            AnimeSearchResultDTO cached = cachedResults.get(i);
+            if (cached == null || !isComplete(cached)) {
+                continue;
+            }
+
+            List<String> tokens = SearchQueryNormalizer.tokenize(canonicalQuery);
+            List<AnimeDTO> matches = cached.getData().stream()
+                    .filter(anime -> titleMatches(anime, tokens))
+                    .collect(Collectors.toList());
+
+            log.debug("Answered '{}' from cached prefix '{}' ({} of {} results)",
+                    canonicalQuery, prefix, matches.size(), cached.getData().size());
+
+            return Optional.of(AnimeSearchResultDTO.builder()
+                    .data(matches)
+                    .pagination(AnimeSearchResultDTO.PaginationDTO.builder()
+                            .currentPage(1)
+                            .lastPage(1)
+                            .hasNextPage(false)
+                            .totalItems(matches.size())
+                            .build())
+                    .prefixFiltered(true)
+                    .build());
+        }
+
+        return Optional.empty();
+    }
+
+    private boolean consumeApproximated(String canonicalQuery) {
+        synchronized (approximatedQueries) {
+            return approximatedQueries.remove(canonicalQuery);
+        }
+    }
+
+    private void markApproximated(String canonicalQuery) {
+        synchronized (approximatedQueries) {
+            approximatedQueries.add(canonicalQuery);
+        }
+    }
+
+    private boolean isComplete(AnimeSearchResultDTO result) {
+        // An empty page has nothing to filter, and a longer query cannot be known to match nothing
+        return result.getData() != null && !result.getData().isEmpty()
+                && result.getPagination() != null
+                && !Boolean.TRUE.equals(result.getPagination().getHasNextPage());
+    }
+
+    private boolean titleMatches(AnimeDTO anime, List<String> tokens) {
+        String titles = SearchQueryNormalizer.canonicalize(anime.getTitle()) + " "
+                + SearchQueryNormalizer.canonicalize(anime.getTitleEnglish());
+        return tokens.stream().allMatch(titles::contains);
+    }
+
+    private ResponseStatusException unavailable(Long malId) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Anime " + malId + " is temporarily unavailable");
+    }
+
     private AnimeSearchResultDTO buildSearchResult(JikanSearchResponse response, int page) {
+        // Jikan always sends a data array, only the fallback leaves it out
         if (response == null || response.getData() == null) {
             return AnimeSearchResultDTO.builder()
                     .data(List.of())
@@ -190,6 +324,7 @@ public class AnimeSearchService {
                             .currentPage(page)
                             .hasNextPage(false)
                             .build())
+                    .upstreamFallback(true)
                     .build();
         }
 
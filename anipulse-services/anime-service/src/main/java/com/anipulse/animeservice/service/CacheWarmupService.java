@@ -0,0 +1,219 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.AnimeCacheProperties;
+import com.anipulse.animeservice.dto.AnimeSearchResultDTO;
+import com.anipulse.animeservice.repository.UserAnimeListRepository;
+import com.anipulse.animeservice.util.JikanRateLimiter;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the first pages of the top/seasonal listings and the most-listed anime
+ * into Redis before the instance is reported UP to Eureka.
+ * The instance registers with eureka.instance.initial-status=STARTING and is flipped to UP
+ * once warming finishes (or fails, or runs out of time).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmupService {
+
+    private static final long MIN_TOKENS_LEFT_FOR_LIVE_TRAFFIC = 2;
+
+    private final AnimeSearchService animeSearchService;
+    private final UserAnimeListRepository userAnimeListRepository;
+    private final CacheManager cacheManager;
+    private final JikanRateLimiter rateLimiter;
+    private final AnimeCacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    private final AtomicInteger totalKeys = new AtomicInteger();
+    private final AtomicInteger processedKeys = new AtomicInteger();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("anime.cache.warmup.progress", this, CacheWarmupService::getProgress)
+                .description("Fraction of startup warm-up keys processed (0..1)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            AnimeCacheProperties.Warmup warmup = cacheProperties.getWarmup();
+            if (warmup.isEnabled()) {
+                runWarmup(warmup);
+            } else {
+                log.info("Cache warm-up disabled");
+            }
+        } catch (Exception e) {
+            log.error("Cache warm-up aborted: {}", e.getMessage(), e);
+        } finally {
+            applicationInfoManager.ifAvailable(manager ->
+                    manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+        }
+    }
+
+    public double getProgress() {
+        int total = totalKeys.get();
+        return total == 0 ? 1.0 : (double) processedKeys.get() / total;
+    }
+
+    private void runWarmup(AnimeCacheProperties.Warmup warmup) throws InterruptedException {
+        List<WarmupKey> keys = collectKeys(warmup);
+        totalKeys.set(keys.size());
+        processedKeys.set(0);
+
+        long deadline = System.nanoTime() + warmup.getMaxDuration().toNanos();
+        int upstreamCalls = 0;
+
+        log.info("Warming {} cache keys", keys.size());
+        long start = System.currentTimeMillis();
+
+        for (WarmupKey key : keys) {
+            if (System.nanoTime() > deadline) {
+                logDeadline(warmup, keys.size());
+                break;
+            }
+
+            Cache cache = cacheManager.getCache(key.cacheName());
+            if (cache != null && cache.get(key.key()) != null) {
+                record(key, "cached");
+                continue;
+            }
+
+            if (key.upstream()) {
+                if (upstreamCalls >= warmup.getMaxUpstreamCalls()) {
+                    record(key, "skipped");
+                    continue;
+                }
+                if (!pace(warmup.getUpstreamCallInterval(), upstreamCalls, deadline)) {
+                    logDeadline(warmup, keys.size());
+                    break;
+                }
+                upstreamCalls++;
+            }
+
+            try {
+                // Outage pages are not cached, so they do not count as warmed
+                if (key.loader().call() instanceof AnimeSearchResultDTO result && result.isUpstreamFallback()) {
+                    log.warn("Failed to warm {}::{}: Jikan unavailable", key.cacheName(), key.key());
+                    record(key, "failed");
+                    continue;
+                }
+                record(key, "loaded");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (Exception e) {
+                log.warn("Failed to warm {}::{}: {}", key.cacheName(), key.key(), e.getMessage());
+                record(key, "failed");
+            }
+        }
+
+        log.info("Cache warm-up finished in {} ms ({}/{} keys, {} Jikan calls)",
+                System.currentTimeMillis() - start, processedKeys.get(), keys.size(), upstreamCalls);
+    }
+
+    private List<WarmupKey> collectKeys(AnimeCacheProperties.Warmup warmup) {
+        List<WarmupKey> keys = new ArrayList<>();
+
+        for (String type : warmup.getTopTypes()) {
+            for (int page = 1; page <= warmup.getTopPages(); page++) {
+                int p = page;
+                keys.add(new WarmupKey("topAnime", type + "_" + p, true,
+                        () -> animeSearchService.getTopAnime(type, p)));
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        String season = currentSeason(today);
+        int year = today.getYear();
+        for (int page = 1; page <= warmup.getSeasonalPages(); page++) {
+            int p = page;
+            keys.add(new WarmupKey("seasonalAnime", season + "_" + year + "_" + p, true,
+                    () -> animeSearchService.getSeasonalAnime(season, year, p)));
+        }
+
+        // Most-listed anime are already persisted, so these are served from the database
+        if (warmup.getMostListedAnime() > 0) {
+            userAnimeListRepository.findMostListedMalIds(PageRequest.of(0, warmup.getMostListedAnime()))
+                    .forEach(malId -> keys.add(new WarmupKey("anime", malId, false,
+                            () -> animeSearchService.getAnimeByMalId(malId))));
+        }
+
+        return keys;
+    }
+
+    /**
+     * Wait until the next upstream call may go out, false when the deadline passes first
+     */
+    private boolean pace(Duration interval, int upstreamCallsSoFar, long deadline) throws InterruptedException {
+        if (upstreamCallsSoFar > 0 && !sleepBefore(interval, deadline)) {
+            return false;
+        }
+        // Never drain the bucket: live requests arriving during start-up get the remaining tokens
+        while (rateLimiter.getAvailableTokens() < MIN_TOKENS_LEFT_FOR_LIVE_TRAFFIC) {
+            if (!sleepBefore(interval, deadline)) {
+                return false;
+            }
+        }
+        return System.nanoTime() <= deadline;
+    }
+
+    // Sleeps for the interval, or only until the deadline and returns false
+    private static boolean sleepBefore(Duration interval, long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= interval.toNanos()) {
+            if (remaining > 0) {
+                Thread.sleep(Duration.ofNanos(remaining));
+            }
+            return false;
+        }
+        Thread.sleep(interval);
+        return true;
+    }
+
+    private void logDeadline(AnimeCacheProperties.Warmup warmup, int keyCount) {
+        log.warn("Cache warm-up hit its {} deadline, {} keys left cold",
+                warmup.getMaxDuration(), keyCount - processedKeys.get());
+    }
+
+    private void record(WarmupKey key, String outcome) {
+        processedKeys.incrementAndGet();
+        meterRegistry.counter("anime.cache.warmup.keys", "cache", key.cacheName(), "outcome", outcome)
+                .increment();
+    }
+
+    private static String currentSeason(LocalDate date) {
+        return switch ((date.getMonthValue() - 1) / 3) {
+            case 0 -> "winter";
+            case 1 -> "spring";
+            case 2 -> "summer";
+            default -> "fall";
+        };
+    }
+
+    private record WarmupKey(String cacheName, Object key, boolean upstream, Callable<?> loader) {
+    }
+}
@@ -0,0 +1,310 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.LeaderboardProperties;
+import com.anipulse.animeservice.dto.LeaderboardEntryDTO;
+import com.anipulse.animeservice.entity.Anime;
+import com.anipulse.animeservice.entity.AnimeRatingAggregate;
+import com.anipulse.animeservice.repository.AnimeRatingAggregateRepository;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Community leaderboards ranked by a Bayesian weighted average of overallRating:
+ * (C * m + sum) / (C + n), with C virtual ratings at the community mean m, so a title with three
+ * perfect scores does not outrank one with thousands of good ones.
+ * <p>
+ * Scores live in Redis sorted sets, one overall and one per genre, keyed by MAL ID (the key ratings use).
+ * Each rating write re-scores its anime after commit with O(log N) ZADDs; paging and rank lookups are
+ * ZREVRANGE / ZREVRANK. Because m moves with every rating, a periodic rebuild re-measures it and
+ * rewrites all boards.
+ * <p>
+ * A re-score that lands while a rebuild runs goes to the live board the rebuild is about to replace. Every
+ * re-score therefore also records its anime in a Redis set, which the rebuild clears before reading the
+ * aggregates and replays once the new boards are in place.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommunityLeaderboardService {
+
+    private static final int ZADD_CHUNK = 1000;
+    private static final int QUERY_CHUNK = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final AnimeRatingAggregateRepository aggregateRepository;
+    private final AnimeRepository animeRepository;
+    private final LeaderboardProperties properties;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * Re-score one anime once the surrounding rating write commits, or right away without a transaction
+     */
+    public void scheduleRefresh(Long malId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(malId);
+                }
+            });
+        } else {
+            refresh(malId);
+        }
+    }
+
+    /**
+     * One page of the overall board, or of a genre board when genre is set
+     */
+    public Page<LeaderboardEntryDTO> getPage(String genre, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        int pageNumber = Math.max(0, page);
+        String key = genre != null ? genreKey(genre) : properties.getKeyPrefix();
+        long start = (long) pageNumber * pageSize;
+
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+                .reverseRangeWithScores(key, start, start + pageSize - 1);
+        Long total = redisTemplate.opsForZSet().zCard(key);
+
+        List<ZSetOperations.TypedTuple<String>> ranked = tuples != null ? new ArrayList<>(tuples) : List.of();
+        List<Long> malIds = ranked.stream().map(tuple -> Long.valueOf(tuple.getValue())).toList();
+        Map<Long, Anime> anime = loadAnime(malIds);
+        Map<Long, AnimeRatingAggregate> aggregates = loadAggregates(malIds);
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            Long malId = malIds.get(i);
+            entries.add(toEntry(start + i + 1, malId, ranked.get(i).getScore(),
+                    anime.get(malId), aggregates.get(malId)));
+        }
+        return new PageImpl<>(entries, PageRequest.of(pageNumber, pageSize), total != null ? total : 0);
+    }
+
+    /**
+     * Rank of one anime on the overall or a genre board
+     */
+    public LeaderboardEntryDTO getRank(Long malId, String genre) {
+        String key = genre != null ? genreKey(genre) : properties.getKeyPrefix();
+        String member = malId.toString();
+        Long rank = redisTemplate.opsForZSet().reverseRank(key, member);
+        Double score = redisTemplate.opsForZSet().score(key, member);
+        if (rank == null || score == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime has no community rating");
+        }
+
+        List<Long> malIds = List.of(malId);
+        return toEntry(rank + 1, malId, score, loadAnime(malIds).get(malId), loadAggregates(malIds).get(malId));
+    }
+
+    /**
+     * Re-measure the community mean and rewrite every board.
+     * Boards are built under temporary keys and swapped in with RENAME, so readers never see a partial board;
+     * a short-lived lock keeps several instances from rebuilding at the same time.
+     */
+    @Scheduled(initialDelayString = "${app.leaderboard.initial-delay-ms:30000}",
+            fixedDelayString = "${app.leaderboard.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        String lockKey = properties.getKeyPrefix() + ":rebuild-lock";
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, instanceId,
+                Duration.ofMillis(properties.getRebuildIntervalMs() / 2));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            // Anime re-scored from here on may miss the new boards, they are replayed after the swap
+            redisTemplate.delete(refreshedKey());
+            List<AnimeRatingAggregate> aggregates = aggregateRepository.findAll().stream()
+                    .filter(aggregate -> aggregate.getRatingCount() > 0)
+                    .toList();
+            long ratings = aggregates.stream().mapToLong(AnimeRatingAggregate::getRatingCount).sum();
+            long overallSum = aggregates.stream().mapToLong(AnimeRatingAggregate::getOverallSum).sum();
+            double mean = ratings > 0 ? (double) overallSum / ratings : properties.getDefaultMean();
+
+            Map<Long, List<String>> genres = loadGenres(
+                    aggregates.stream().map(AnimeRatingAggregate::getAnimeId).toList());
+            Map<String, Set<ZSetOperations.TypedTuple<String>>> boards = new HashMap<>();
+            for (AnimeRatingAggregate aggregate : aggregates) {
+                ZSetOperations.TypedTuple<String> tuple = ZSetOperations.TypedTuple.of(
+                        aggregate.getAnimeId().toString(), score(aggregate, mean));
+                boards.computeIfAbsent(properties.getKeyPrefix(), key -> new HashSet<>()).add(tuple);
+                for (String genre : genres.getOrDefault(aggregate.getAnimeId(), List.of())) {
+                    boards.computeIfAbsent(genreKey(genre), key -> new HashSet<>()).add(tuple);
+                }
+            }
+
+            boards.forEach(this::replaceBoard);
+            if (!boards.containsKey(properties.getKeyPrefix())) {
+                redisTemplate.delete(properties.getKeyPrefix());
+            }
+            dropStaleGenreBoards(boards.keySet());
+            redisTemplate.opsForHash().put(metaKey(), "mean", Double.toString(mean));
+            int replayed = replayRefreshed();
+
+            log.info("Rebuilt {} community leaderboards for {} anime in {} ms (community mean {}, {} re-scores replayed)",
+                    boards.size(), aggregates.size(), System.currentTimeMillis() - start, mean, replayed);
+        } catch (Exception e) {
+            log.warn("Community leaderboard rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(Long malId) {
+        try {
+            // Recorded before the ZADDs, so a rebuild that swaps its boards in after them still replays this anime
+            redisTemplate.opsForSet().add(refreshedKey(), malId.toString());
+            AnimeRatingAggregate aggregate = aggregateRepository.findById(malId).orElse(null);
+            List<String> keys = new ArrayList<>();
+            keys.add(properties.getKeyPrefix());
+            loadGenres(List.of(malId)).getOrDefault(malId, List.of()).forEach(genre -> keys.add(genreKey(genre)));
+
+            String member = malId.toString();
+            if (aggregate == null || aggregate.getRatingCount() <= 0) {
+                keys.forEach(key -> redisTemplate.opsForZSet().remove(key, member));
+                return;
+            }
+
+            double score = score(aggregate, communityMean());
+            keys.forEach(key -> redisTemplate.opsForZSet().add(key, member, score));
+            if (keys.size() > 1) {
+                redisTemplate.opsForSet().add(genreIndexKey(), keys.subList(1, keys.size()).toArray(String[]::new));
+            }
+        } catch (Exception e) {
+            // The board catches up on the next write of this anime or the next rebuild
+            log.warn("Could not update community leaderboard for anime {}: {}", malId, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-score the anime refreshed since the rebuild started, on the boards it just swapped in
+     */
+    private int replayRefreshed() {
+        // Anime added after SCARD were re-scored on the new boards already
+        Long count = redisTemplate.opsForSet().size(refreshedKey());
+        List<String> refreshed = count != null && count > 0 ? redisTemplate.opsForSet().pop(refreshedKey(), count) : null;
+        if (refreshed == null) {
+            return 0;
+        }
+        refreshed.forEach(member -> refresh(Long.valueOf(member)));
+        return refreshed.size();
+    }
+
+    private void replaceBoard(String key, Set<ZSetOperations.TypedTuple<String>> tuples) {
+        String tempKey = key + ":rebuilding";
+        redisTemplate.delete(tempKey);
+        List<ZSetOperations.TypedTuple<String>> all = new ArrayList<>(tuples);
+        for (int from = 0; from < all.size(); from += ZADD_CHUNK) {
+            redisTemplate.opsForZSet().add(tempKey,
+                    new HashSet<>(all.subList(from, Math.min(from + ZADD_CHUNK, all.size()))));
+        }
+        redisTemplate.rename(tempKey, key);
+    }
+
+    private void dropStaleGenreBoards(Collection<String> liveKeys) {
+        Set<String> previous = redisTemplate.opsForSet().members(genreIndexKey());
+        if (previous != null) {
+            List<String> stale = previous.stream().filter(key -> !liveKeys.contains(key)).toList();
+            if (!stale.isEmpty()) {
+                redisTemplate.delete(stale);
+                redisTemplate.opsForSet().remove(genreIndexKey(), stale.toArray());
+            }
+        }
+        String[] genreKeys = liveKeys.stream()
+                .filter(key -> !key.equals(properties.getKeyPrefix()))
+                .toArray(String[]::new);
+        if (genreKeys.length > 0) {
+            redisTemplate.opsForSet().add(genreIndexKey(), genreKeys);
+        }
+    }
+
+    private double score(AnimeRatingAggregate aggregate, double mean) {
+        double prior = properties.getPriorWeight();
+        return (prior * mean + aggregate.getOverallSum()) / (prior + aggregate.getRatingCount());
+    }
+
+    private double communityMean() {
+        Object mean = redisTemplate.opsForHash().get(metaKey(), "mean");
+        return mean != null ? Double.parseDouble(mean.toString()) : properties.getDefaultMean();
+    }
+
+    private Map<Long, List<String>> loadGenres(List<Long> malIds) {
+        Map<Long, List<String>> genres = new HashMap<>();
+        for (int from = 0; from < malIds.size(); from += QUERY_CHUNK) {
+            for (Object[] row : animeRepository.findGenreNamesByMalIdIn(
+                    malIds.subList(from, Math.min(from + QUERY_CHUNK, malIds.size())))) {
+                genres.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return genres;
+    }
+
+    private Map<Long, Anime> loadAnime(List<Long> malIds) {
+        if (malIds.isEmpty()) {
+            return Map.of();
+        }
+        return animeRepository.findByMalIdIn(malIds).stream()
+                .collect(Collectors.toMap(Anime::getMalId, Function.identity(), (a, b) -> a));
+    }
+
+    private Map<Long, AnimeRatingAggregate> loadAggregates(List<Long> malIds) {
+        if (malIds.isEmpty()) {
+            return Map.of();
+        }
+        return aggregateRepository.findAllById(malIds).stream()
+                .collect(Collectors.toMap(AnimeRatingAggregate::getAnimeId, Function.identity()));
+    }
+
+    private static LeaderboardEntryDTO toEntry(long rank, Long malId, Double score, Anime anime,
+                                               AnimeRatingAggregate aggregate) {
+        return LeaderboardEntryDTO.builder()
+                .rank(rank)
+                .malId(malId)
+                .title(anime != null ? anime.getTitle() : null)
+                .titleEnglish(anime != null ? anime.getTitleEnglish() : null)
+                .imageUrl(anime != null ? anime.getImageUrl() : null)
+                .communityScore(score)
+                .ratingCount(aggregate != null ? aggregate.getRatingCount() : null)
+                .build();
+    }
+
+    private String genreKey(String genre) {
+        return properties.getKeyPrefix() + ":genre:" + genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String genreIndexKey() {
+        return properties.getKeyPrefix() + ":genres";
+    }
+
+    private String refreshedKey() {
+        return properties.getKeyPrefix() + ":refreshed";
+    }
+
+    private String metaKey() {
+        return properties.getKeyPrefix() + ":meta";
+    }
+}
@@ -0,0 +1,87 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.CommunityRatingProperties;
+import com.anipulse.animeservice.dto.AnimeDTO;
+import com.anipulse.animeservice.dto.AnimeSearchResultDTO;
+import com.anipulse.animeservice.entity.AnimeRatingAggregate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Attaches community scores (mean overall rating, rating count) to search, top and seasonal pages.
+ * The pages themselves stay cached as JIKAN returned them; the scores change with every rating and are
+ * read per request from tbl_anime_rating_aggregate, one primary-key IN query for the whole page.
+ * The query gets a fixed time budget: a page whose scores are not back in time is served without them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommunityRatingEnricher {
+
+    private final AnimeRatingAggregateService aggregateService;
+    private final ThreadPoolTaskExecutor communityRatingExecutor;
+    private final CommunityRatingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Fill in the community scores of the page's anime. The result is changed in place; it is the copy
+     * the cache returned (or already stored), so the cached entry is not affected.
+     */
+    public AnimeSearchResultDTO enrich(AnimeSearchResultDTO result) {
+        if (!properties.isEnabled() || result == null || result.getData() == null || result.getData().isEmpty()) {
+            return result;
+        }
+
+        // Rating rows are keyed by MAL ID
+        List<Long> malIds = result.getData().stream()
+                .map(AnimeDTO::getMalId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (malIds.isEmpty()) {
+            return result;
+        }
+
+        long start = System.nanoTime();
+        String outcome = "hit";
+        try {
+            Map<Long, AnimeRatingAggregate> aggregates = CompletableFuture
+                    .supplyAsync(() -> aggregateService.getAggregates(malIds), communityRatingExecutor)
+                    .get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            for (AnimeDTO anime : result.getData()) {
+                AnimeRatingAggregate aggregate = anime.getMalId() != null ? aggregates.get(anime.getMalId()) : null;
+                anime.setCommunityScore(aggregate != null ? AnimeRatingAggregateService.averageOverall(aggregate) : null);
+                anime.setCommunityRatingCount(aggregate != null ? aggregate.getRatingCount() : 0L);
+            }
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+        } catch (TaskRejectedException e) {
+            outcome = "rejected";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "error";
+        } catch (ExecutionException e) {
+            log.warn("Community score lookup failed: {}", e.getCause().getMessage());
+            outcome = "error";
+        }
+
+        Timer.builder("anime.search.community_scores")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+}
@@ -0,0 +1,278 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.OutboxProperties;
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
+import com.anipulse.animeservice.dto.AnimeListChangeEventBatch;
+import com.anipulse.animeservice.entity.OutboxDeadLetter;
+import com.anipulse.animeservice.entity.OutboxEvent;
+import com.anipulse.animeservice.repository.OutboxDeadLetterRepository;
+import com.anipulse.animeservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table to RabbitMQ in batches.
+ * Each batch is published with publisher confirms and only deleted once the broker has confirmed it,
+ * so delivery is at-least-once: consumers must tolerate duplicates.
+ * List-change events are packed into {@link AnimeListChangeEventBatch} messages; a partial batch
+ * lingers for a configurable time so bursts of writes share messages.
+ * A list-change row whose payload cannot be read is moved to the dead-letter table in the same transaction,
+ * instead of failing the batch and blocking every row behind it.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository deadLetterRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Counter publishedCounter;
+    private final Counter messageCounter;
+    private final Counter failedBatchCounter;
+    private final Counter deadLetterCounter;
+    private final Timer publishLag;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxDeadLetterRepository deadLetterRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       OutboxProperties properties,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        this.publishedCounter = meterRegistry.counter("anime.outbox.published");
+        this.messageCounter = meterRegistry.counter("anime.outbox.messages");
+        this.failedBatchCounter = meterRegistry.counter("anime.outbox.failed.batches");
+        this.deadLetterCounter = meterRegistry.counter("anime.outbox.dead.letters");
+        this.publishLag = Timer.builder("anime.outbox.lag")
+                .description("Time between an event being written and the broker confirming it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("anime.outbox.batch")
+                .description("Time to publish and confirm one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("anime.outbox.pending", pending, AtomicLong::get)
+                .description("Events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("anime.outbox.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:100}")
+    public void relay() {
+        for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+            Integer published = transactionTemplate.execute(status -> publishBatch());
+            if (published == null || published < properties.getBatchSize()) {
+                break;
+            }
+        }
+        refreshBacklogMetrics();
+    }
+
+    /**
+     * Rows taken out of the outbox (published or dead-lettered), 0 when the batch lingers or fails
+     */
+    private int publishBatch() {
+        List<OutboxEvent> locked = outboxEventRepository.findPendingForUpdate(
+                PageRequest.of(0, properties.getBatchSize()));
+        if (locked.isEmpty()) {
+            return 0;
+        }
+
+        // Let a partial micro-batch fill up until its oldest event has lingered long enough
+        OutboxEvent oldest = locked.get(0);
+        if (locked.size() < properties.getBatchSize() && oldest.getCreatedAt() != null
+                && Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).compareTo(properties.getLinger()) < 0) {
+            return 0;
+        }
+
+        Map<Long, AnimeListChangeEvent> changeEvents = new HashMap<>();
+        List<OutboxEvent> batch = readChangeEvents(locked, changeEvents);
+        if (batch.isEmpty()) {
+            return locked.size();
+        }
+
+        long start = System.nanoTime();
+        try {
+            rabbitTemplate.invoke(operations -> {
+                sendGrouped(operations, batch, changeEvents);
+                operations.waitForConfirmsOrDie(properties.getConfirmTimeout().toMillis());
+                return null;
+            });
+        } catch (AmqpException e) {
+            // Rows stay in the outbox and are retried on the next run
+            failedBatchCounter.increment();
+            log.warn("Failed to relay {} outbox events: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        outboxEventRepository.deleteAllInBatch(batch);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            if (event.getCreatedAt() != null) {
+                publishLag.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+        publishedCounter.increment(batch.size());
+        log.debug("Relayed {} outbox events", batch.size());
+        return locked.size();
+    }
+
+    /**
+     * Parse the list-change payloads into changeEvents and return the rows left to publish.
+     * Unreadable rows are dead-lettered and deleted from the outbox; if the publish then fails they stay moved,
+     * since the transaction still commits.
+     */
+    private List<OutboxEvent> readChangeEvents(List<OutboxEvent> locked, Map<Long, AnimeListChangeEvent> changeEvents) {
+        List<OutboxEvent> readable = new ArrayList<>(locked.size());
+        List<OutboxEvent> unreadable = new ArrayList<>();
+        List<OutboxDeadLetter> deadLetters = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (OutboxEvent event : locked) {
+            if (!AnimeListChangeEvent.class.getName().equals(event.getPayloadType())) {
+                readable.add(event);
+                continue;
+            }
+            try {
+                AnimeListChangeEvent changeEvent = objectMapper.readValue(event.getPayload(), AnimeListChangeEvent.class);
+                changeEvent.setSequence(event.getId());
+                changeEvents.put(event.getId(), changeEvent);
+                readable.add(event);
+            } catch (JsonProcessingException e) {
+                log.error("Dead-lettering outbox event {}: unreadable payload: {}", event.getId(), e.getOriginalMessage());
+                unreadable.add(event);
+                deadLetters.add(OutboxDeadLetter.builder()
+                        .id(event.getId())
+                        .exchange(event.getExchange())
+                        .routingKey(event.getRoutingKey())
+                        .payloadType(event.getPayloadType())
+                        .payload(event.getPayload())
+                        .error(truncate(e.getOriginalMessage(), 1000))
+                        .createdAt(event.getCreatedAt())
+                        .failedAt(now)
+                        .build());
+            }
+        }
+
+        if (!unreadable.isEmpty()) {
+            deadLetterRepository.saveAll(deadLetters);
+            outboxEventRepository.deleteAllInBatch(unreadable);
+            deadLetterCounter.increment(unreadable.size());
+        }
+        return readable;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private void refreshBacklogMetrics() {
+        long count = outboxEventRepository.count();
+        pending.set(count);
+
+        LocalDateTime oldest = count == 0 ? null : outboxEventRepository.findOldestCreatedAt();
+        oldestAgeSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+
+        if (count > properties.getBacklogWarningThreshold()) {
+            log.warn("Outbox relay is falling behind: {} pending events, oldest {}s old", count, oldestAgeSeconds.get());
+        }
+    }
+
+    /**
+     * Consecutive list-change events for the same destination share messages, which keeps per-user order.
+     * Any other payload type is sent as-is, one message per row.
+     */
+    private void sendGrouped(RabbitOperations operations, List<OutboxEvent> batch,
+                             Map<Long, AnimeListChangeEvent> changeEvents) {
+        List<AnimeListChangeEvent> group = new ArrayList<>();
+        OutboxEvent groupHead = null;
+
+        for (OutboxEvent event : batch) {
+            if (!AnimeListChangeEvent.class.getName().equals(event.getPayloadType())) {
+                flushGroup(operations, groupHead, group);
+                groupHead = null;
+                operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+                messageCounter.increment();
+                continue;
+            }
+
+            boolean sameDestination = groupHead != null
+                    && Objects.equals(groupHead.getExchange(), event.getExchange())
+                    && Objects.equals(groupHead.getRoutingKey(), event.getRoutingKey());
+            if (!sameDestination || group.size() >= properties.getMaxEventsPerMessage()) {
+                flushGroup(operations, groupHead, group);
+                groupHead = event;
+            }
+            group.add(changeEvents.get(event.getId()));
+        }
+        flushGroup(operations, groupHead, group);
+    }
+
+    private void flushGroup(RabbitOperations operations, OutboxEvent head, List<AnimeListChangeEvent> group) {
+        if (head == null || group.isEmpty()) {
+            return;
+        }
+        AnimeListChangeEventBatch envelope = AnimeListChangeEventBatch.builder()
+                .events(new ArrayList<>(group))
+                .build();
+        operations.convertAndSend(head.getExchange(), head.getRoutingKey(), envelope, message -> {
+            message.getMessageProperties().setHeader("x-schema-version", AnimeListChangeEventBatch.SCHEMA_VERSION);
+            return message;
+        });
+        messageCounter.increment();
+        group.clear();
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(event.getId()))
+                .setHeader("__TypeId__", event.getPayloadType())
+                .build();
+    }
+}
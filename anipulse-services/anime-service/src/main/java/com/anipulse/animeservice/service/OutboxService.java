@@ -0,0 +1,54 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.entity.OutboxEvent;
+import com.anipulse.animeservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records integration events in the outbox table as part of the caller's transaction
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, Object payload) {
+        outboxEventRepository.save(toOutboxEvent(exchange, routingKey, payload));
+    }
+
+    /**
+     * Enqueue several events at once; consecutive rows are packed into shared messages by the relay
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String exchange, String routingKey, List<?> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        outboxEventRepository.saveAll(payloads.stream()
+                .map(payload -> toOutboxEvent(exchange, routingKey, payload))
+                .toList());
+    }
+
+    private OutboxEvent toOutboxEvent(String exchange, String routingKey, Object payload) {
+        try {
+            return OutboxEvent.builder()
+                    .exchange(exchange)
+                    .routingKey(routingKey)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox event " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ProgressBufferProperties;
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.mapper.UserAnimeListMapper;
+import com.anipulse.animeservice.repository.UserAnimeListJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind buffer for episode progress bumps.
+ * Players report progress every few minutes per viewer, and each report used to be a locked read,
+ * an update, a stats delta, an outbox row and a cache eviction. Here the latest value per entry is kept
+ * in memory for a short window and then written with one JDBC batch per flush, so a burst of bumps
+ * costs one write.
+ * <p>
+ * Every bump carries the time it was made and is written with that time as updatedAt. A buffered value
+ * whose entry was changed through the immediate path afterwards is dropped at flush time, so it can never
+ * overwrite a newer status change or removal. The buffer is drained on shutdown, retrying a failed drain
+ * a few times and then entry by entry; whatever still cannot be written is logged at error level. Bumps not
+ * yet flushed when the process is killed are lost, which is acceptable for progress the next bump re-sends anyway.
+ */
+@Component
+@Slf4j
+public class ProgressUpdateBuffer {
+
+    private record Key(String userId, Long animeId) {
+    }
+
+    private record Pending(int progress, LocalDateTime updatedAt, long firstBufferedNanos) {
+    }
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    private final UserAnimeListJdbcRepository userAnimeListJdbcRepository;
+    private final UserAnimeStatsService statsService;
+    private final OutboxService outboxService;
+    private final UserListCacheEvictor cacheEvictor;
+    private final UserAnimeListMapper mapper;
+    private final ProgressBufferProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter buffered;
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter superseded;
+
+    private volatile boolean closed;
+
+    @Value("${rabbitmq.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbitmq.routing.key}")
+    private String routingKey;
+
+    public ProgressUpdateBuffer(UserAnimeListJdbcRepository userAnimeListJdbcRepository,
+                                UserAnimeStatsService statsService,
+                                OutboxService outboxService,
+                                UserListCacheEvictor cacheEvictor,
+                                UserAnimeListMapper mapper,
+                                ProgressBufferProperties properties,
+                                MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager) {
+        this.userAnimeListJdbcRepository = userAnimeListJdbcRepository;
+        this.statsService = statsService;
+        this.outboxService = outboxService;
+        this.cacheEvictor = cacheEvictor;
+        this.mapper = mapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffered = meterRegistry.counter("anime.progress.updates", "result", "buffered");
+        this.coalesced = meterRegistry.counter("anime.progress.updates", "result", "coalesced");
+        this.written = meterRegistry.counter("anime.progress.updates", "result", "written");
+        this.superseded = meterRegistry.counter("anime.progress.updates", "result", "superseded");
+        meterRegistry.gaugeMapSize("anime.progress.pending", Tags.empty(), pending);
+    }
+
+    /**
+     * Record the latest progress of an entry. Written through right away when buffering is off,
+     * the buffer is full or the application is shutting down.
+     */
+    public void submit(String userId, Long animeId, int progress) {
+        Key key = new Key(userId, animeId);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (closed || !properties.isEnabled()
+                || (pending.size() >= properties.getMaxPending() && !pending.containsKey(key))) {
+            write(Map.of(key, new Pending(progress, now, System.nanoTime())));
+            return;
+        }
+
+        pending.merge(key, new Pending(progress, now, System.nanoTime()), (old, latest) -> {
+            coalesced.increment();
+            // The window keeps counting from the first bump, so a steady stream is still written regularly
+            return new Pending(latest.progress(), latest.updatedAt(), old.firstBufferedNanos());
+        });
+        buffered.increment();
+    }
+
+    /**
+     * Progress not yet written, so a read right after a bump sees it
+     */
+    public OptionalInt pendingProgress(String userId, Long animeId) {
+        Pending value = pending.get(new Key(userId, animeId));
+        return value != null ? OptionalInt.of(value.progress()) : OptionalInt.empty();
+    }
+
+    /**
+     * Drop a buffered bump because the entry is being written through the immediate path
+     */
+    public void discard(String userId, Long animeId) {
+        pending.remove(new Key(userId, animeId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.progress-buffer.flush-interval-ms:500}")
+    public void flushDue() {
+        long cutoff = System.nanoTime() - properties.getCoalesceWindow().toNanos();
+        flush(value -> value.firstBufferedNanos() - cutoff <= 0);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        closed = true;
+        // No scheduled run follows this one, so a failed drain is retried here
+        for (int attempt = 1; attempt <= properties.getShutdownFlushAttempts() && !pending.isEmpty(); attempt++) {
+            if (attempt > 1 && !pause(properties.getShutdownRetryDelay().toMillis())) {
+                break;
+            }
+            flush(value -> true);
+        }
+
+        // One bad row must not take the whole batch down with it
+        if (!pending.isEmpty()) {
+            log.warn("Writing {} remaining progress updates one at a time", pending.size());
+            flushEach();
+        }
+
+        if (pending.isEmpty()) {
+            log.info("Progress buffer drained on shutdown");
+        } else {
+            log.error("Lost {} buffered progress updates on shutdown", pending.size());
+        }
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized void flush(Predicate<Pending> due) {
+        Map<Key, Pending> batch = new LinkedHashMap<>();
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            if (due.test(entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() >= properties.getFlushBatchSize()) {
+                    flushBatch(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    private synchronized void flushEach() {
+        pending.forEach((key, value) -> flushBatch(Map.of(key, value)));
+    }
+
+    private void flushBatch(Map<Key, Pending> batch) {
+        try {
+            write(batch);
+        } catch (Exception e) {
+            // Left in the buffer for the next scheduled run, or for the retries of the shutdown drain
+            log.warn("Failed to flush {} progress updates: {}", batch.size(), e.getMessage());
+            return;
+        }
+        // Conditional remove: a bump that arrived during the write stays buffered for the next run
+        batch.forEach(pending::remove);
+    }
+
+    private void write(Map<Key, Pending> batch) {
+        List<UserAnimeList.UserAnimeListId> ids = batch.keySet().stream()
+                .map(key -> new UserAnimeList.UserAnimeListId(key.userId(), key.animeId()))
+                .toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<UserAnimeList> updates = new ArrayList<>();
+            Map<String, List<UserAnimeStatsService.Snapshot>> before = new HashMap<>();
+            Map<String, List<UserAnimeStatsService.Snapshot>> after = new HashMap<>();
+
+            for (UserAnimeList row : userAnimeListJdbcRepository.lockEntries(ids)) {
+                Pending value = batch.get(new Key(row.getUserId(), row.getAnimeId()));
+                if (row.getUpdatedAt() != null && row.getUpdatedAt().isAfter(value.updatedAt())) {
+                    superseded.increment();
+                    continue;
+                }
+                if (row.getProgress() == value.progress()) {
+                    continue;
+                }
+
+                before.computeIfAbsent(row.getUserId(), id -> new ArrayList<>())
+                        .add(UserAnimeStatsService.Snapshot.of(row));
+                row.setProgress(value.progress());
+                row.setUpdatedAt(value.updatedAt());
+                after.computeIfAbsent(row.getUserId(), id -> new ArrayList<>())
+                        .add(UserAnimeStatsService.Snapshot.of(row));
+                updates.add(row);
+            }
+
+            if (updates.isEmpty()) {
+                return;
+            }
+
+            userAnimeListJdbcRepository.batchUpdateProgress(updates);
+            before.forEach((userId, snapshots) -> statsService.recordChanges(userId, snapshots, after.get(userId)));
+
+            List<AnimeListChangeEvent> events = updates.stream().map(mapper::toChangeEvent).toList();
+            outboxService.enqueueAll(exchange, routingKey, events);
+            before.keySet().forEach(cacheEvictor::evictUser);
+            written.increment(updates.size());
+        });
+    }
+}
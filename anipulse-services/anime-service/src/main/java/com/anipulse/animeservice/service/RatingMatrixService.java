@@ -0,0 +1,170 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.RatingMatrixProperties;
+import com.anipulse.animeservice.dto.SimilarUserDTO;
+import com.anipulse.animeservice.repository.UserAnimeRatingRepository;
+import com.anipulse.animeservice.util.SparseRatingMatrix;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves "users most similar to X" from an in-memory {@link SparseRatingMatrix} instead of a self-join
+ * of tbl_user_anime_rating. The matrix is loaded from the table, rating writes made through this instance
+ * are merged in every few seconds, and a periodic full reload picks up writes made through other instances.
+ */
+@Service
+@Slf4j
+public class RatingMatrixService {
+
+    private record Key(String userId, long animeId) {
+    }
+
+    // Overall rating after the change, 0 when the rating was deleted
+    private final ConcurrentHashMap<Key, Integer> pendingChanges = new ConcurrentHashMap<>();
+
+    private final UserAnimeRatingRepository ratingRepository;
+    private final RatingMatrixProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer loadTimer;
+    private final Timer mergeTimer;
+    private final Timer queryTimer;
+
+    private volatile SparseRatingMatrix matrix;
+    private volatile long loadedAt;
+
+    public RatingMatrixService(UserAnimeRatingRepository ratingRepository,
+                               RatingMatrixProperties properties,
+                               MeterRegistry meterRegistry,
+                               PlatformTransactionManager transactionManager) {
+        this.ratingRepository = ratingRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.loadTimer = meterRegistry.timer("anime.rating_matrix.build", "kind", "load");
+        this.mergeTimer = meterRegistry.timer("anime.rating_matrix.build", "kind", "merge");
+        this.queryTimer = meterRegistry.timer("anime.rating_matrix.similar_users");
+        meterRegistry.gauge("anime.rating_matrix.ratings", this,
+                service -> service.matrix != null ? service.matrix.ratingCount() : 0);
+    }
+
+    /**
+     * Queue a rating change for the next merge once the surrounding transaction commits.
+     * overallRating is null when the rating was deleted.
+     */
+    public void recordChange(String userId, Long animeId, Integer overallRating) {
+        Key key = new Key(userId, animeId);
+        int value = overallRating != null ? overallRating : 0;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingChanges.put(key, value);
+                }
+            });
+        } else {
+            pendingChanges.put(key, value);
+        }
+    }
+
+    public List<SimilarUserDTO> findSimilarUsers(String userId, int minCommonRatings, int limit) {
+        SparseRatingMatrix current = matrix;
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Rating matrix is still loading");
+        }
+
+        int k = Math.max(1, Math.min(limit, properties.getMaxResults()));
+        return queryTimer.record(() -> current.mostSimilar(userId, minCommonRatings, k)).stream()
+                .map(similarity -> SimilarUserDTO.builder()
+                        .userId(similarity.userId())
+                        .commonRatings(similarity.commonRatings())
+                        .meanAbsoluteDifference(similarity.meanAbsoluteDifference())
+                        .build())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rating-matrix.refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            boolean reloadDue = System.currentTimeMillis() - loadedAt >= properties.getReloadInterval().toMillis();
+            if (matrix == null || reloadDue) {
+                load();
+            } else if (!pendingChanges.isEmpty()) {
+                merge();
+            }
+        } catch (Exception e) {
+            log.warn("Rating matrix refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void load() {
+        // Changes committed from here on are merged into the loaded matrix afterwards
+        Map<Key, Integer> drained = drainPending();
+        SparseRatingMatrix loaded = loadTimer.record(() -> readOnlyTransaction.execute(status -> {
+            SparseRatingMatrix previous = matrix;
+            SparseRatingMatrix.Builder builder = SparseRatingMatrix.builder(
+                    previous != null ? previous.ratingCount() : 1 << 16);
+            try (Stream<Object[]> rows = ratingRepository.streamOverallRatings()) {
+                rows.forEach(row -> builder.add((String) row[0], (Long) row[1], (Integer) row[2]));
+            }
+            return builder.build();
+        }));
+        drained.forEach(pendingChanges::putIfAbsent);
+
+        matrix = loaded;
+        loadedAt = System.currentTimeMillis();
+        log.info("Loaded rating matrix: {} ratings, {} users, {} anime",
+                loaded.ratingCount(), loaded.userCount(), loaded.animeCount());
+        if (!pendingChanges.isEmpty()) {
+            merge();
+        }
+    }
+
+    /**
+     * Build a new matrix from the current one and the pending changes, O(ratings) without touching the database
+     */
+    private void merge() {
+        Map<Key, Integer> changes = drainPending();
+        SparseRatingMatrix current = matrix;
+        matrix = mergeTimer.record(() -> {
+            SparseRatingMatrix.Builder builder = SparseRatingMatrix.builder(current.ratingCount() + changes.size());
+            current.forEach((userId, animeId, rating) -> {
+                if (!changes.containsKey(new Key(userId, animeId))) {
+                    builder.add(userId, animeId, rating);
+                }
+            });
+            changes.forEach((key, rating) -> {
+                if (rating > 0) {
+                    builder.add(key.userId(), key.animeId(), rating);
+                }
+            });
+            return builder.build();
+        });
+        log.debug("Merged {} rating changes into the rating matrix", changes.size());
+    }
+
+    private Map<Key, Integer> drainPending() {
+        Map<Key, Integer> drained = new HashMap<>();
+        for (Key key : pendingChanges.keySet()) {
+            Integer value = pendingChanges.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,52 @@
+package com.anipulse.animeservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * Creates the InnoDB FULLTEXT index behind review search, which ddl-auto cannot declare.
+ * InnoDB keeps the index's postings current on every insert, update and delete of a rating.
+ * Pods starting together may both find the index missing; the one whose ALTER loses the race
+ * gets a duplicate key name error, which only means the index is there, so startup goes on.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewSearchIndexInitializer implements ApplicationRunner {
+
+    static final String INDEX_NAME = "ftx_review_text";
+    // MySQL ER_DUP_KEYNAME
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'tbl_user_anime_rating' AND index_name = ?
+                """, Integer.class, INDEX_NAME);
+        if (existing != null && existing > 0) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            jdbcTemplate.execute("ALTER TABLE tbl_user_anime_rating ADD FULLTEXT INDEX " + INDEX_NAME + " (review_text)");
+        } catch (DataAccessException e) {
+            if (e.getMostSpecificCause() instanceof SQLException sql && sql.getErrorCode() == DUPLICATE_KEY_NAME) {
+                log.info("Review search index was created by another instance");
+                return;
+            }
+            throw e;
+        }
+        log.info("Created review search index in {} ms", System.currentTimeMillis() - start);
+    }
+}
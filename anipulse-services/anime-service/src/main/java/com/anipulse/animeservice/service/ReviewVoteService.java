@@ -0,0 +1,235 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ReviewVoteProperties;
+import com.anipulse.animeservice.repository.ReviewVoteJdbcRepository;
+import com.anipulse.animeservice.repository.ReviewVoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Helpful / not helpful votes on reviews.
+ * A popular review can take hundreds of votes a second, and a row update per vote would queue them all
+ * on one row lock. A vote is instead checked against the review's voter set in Redis (SADD), counted in
+ * striped in-memory counters and queued; every flush then writes the queued votes to tbl_review_vote in
+ * one batch and adds them to each review's counts with a single row update per review.
+ * <p>
+ * tbl_review_vote has the final say on duplicates: a vote it already holds (the Redis set was lost)
+ * is not counted again. Votes still queued when the process is killed are lost, the @PreDestroy flush
+ * covers regular shutdowns. A flush evicts the cached ratings of the reviews it counted, whose DTOs carry
+ * the helpful counts.
+ */
+@Service
+@Slf4j
+public class ReviewVoteService {
+
+    private record ReviewKey(Long animeId, String authorId) {
+    }
+
+    /**
+     * Votes of one review accepted but not flushed yet, so a listing right after a vote shows it
+     */
+    private static final class Tally {
+        private final LongAdder helpful = new LongAdder();
+        private final LongAdder notHelpful = new LongAdder();
+
+        private boolean isEmpty() {
+            return helpful.sum() == 0 && notHelpful.sum() == 0;
+        }
+    }
+
+    // The vote keeps the tally it was counted in, so the flush subtracts it from the same one
+    private record QueuedVote(ReviewKey review, ReviewVoteJdbcRepository.Vote vote, Tally tally) {
+    }
+
+    private final ConcurrentHashMap<ReviewKey, Tally> pendingTallies = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<QueuedVote> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final ReviewVoteJdbcRepository voteJdbcRepository;
+    private final ReviewVoteRepository voteRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final UserRatingCache userRatingCache;
+    private final ReviewVoteProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter accepted;
+    private final Counter duplicate;
+    private final Counter written;
+
+    public ReviewVoteService(ReviewVoteJdbcRepository voteJdbcRepository,
+                             ReviewVoteRepository voteRepository,
+                             StringRedisTemplate redisTemplate,
+                             UserRatingCache userRatingCache,
+                             ReviewVoteProperties properties,
+                             MeterRegistry meterRegistry,
+                             PlatformTransactionManager transactionManager) {
+        this.voteJdbcRepository = voteJdbcRepository;
+        this.voteRepository = voteRepository;
+        this.redisTemplate = redisTemplate;
+        this.userRatingCache = userRatingCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accepted = meterRegistry.counter("anime.review_votes", "result", "accepted");
+        this.duplicate = meterRegistry.counter("anime.review_votes", "result", "duplicate");
+        this.written = meterRegistry.counter("anime.review_votes", "result", "written");
+        meterRegistry.gauge("anime.review_votes.pending", queued);
+    }
+
+    /**
+     * Accept a vote on an existing review, the caller has checked the review and the voter.
+     * 409 when the voter already voted on it.
+     */
+    public void vote(Long animeId, String authorId, String voterId, boolean helpful) {
+        if (queued.get() >= properties.getMaxPending()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many votes pending, retry shortly");
+        }
+
+        ReviewKey review = new ReviewKey(animeId, authorId);
+        Long added;
+        try {
+            added = redisTemplate.opsForSet().add(voterKey(review), voterId);
+        } catch (Exception e) {
+            // Without the voter set a repeated vote would be shown until the flush drops it
+            log.warn("Voter set unavailable: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Voting is unavailable, retry shortly");
+        }
+        if (added == null || added == 0) {
+            duplicate.increment();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already voted on this review");
+        }
+
+        Tally tally = pendingTallies.computeIfAbsent(review, key -> new Tally());
+        (helpful ? tally.helpful : tally.notHelpful).increment();
+        queue.add(new QueuedVote(review,
+                new ReviewVoteJdbcRepository.Vote(animeId, authorId, voterId, helpful, LocalDateTime.now()), tally));
+        queued.incrementAndGet();
+        accepted.increment();
+    }
+
+    /**
+     * Accepted votes of a review not written to its counts yet: {helpful, notHelpful}
+     */
+    public long[] pendingCounts(Long animeId, String authorId) {
+        Tally tally = pendingTallies.get(new ReviewKey(animeId, authorId));
+        return tally != null ? new long[]{tally.helpful.sum(), tally.notHelpful.sum()} : new long[]{0, 0};
+    }
+
+    /**
+     * Drop the votes of a review in the transaction that deletes it, and its voter set once that commits.
+     * Votes still queued for it find no review at flush time and are ignored.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteVotes(Long animeId, String authorId) {
+        voteRepository.deleteByReview(animeId, authorId);
+        String key = voterKey(new ReviewKey(animeId, authorId));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    redisTemplate.delete(key);
+                } catch (Exception e) {
+                    log.warn("Could not delete voter set {}: {}", key, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.review-votes.flush-interval-ms:1000}")
+    public void flush() {
+        drain();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        drain();
+        log.info("Review votes drained on shutdown");
+    }
+
+    private synchronized void drain() {
+        List<QueuedVote> batch = new ArrayList<>();
+        QueuedVote next;
+        while ((next = queue.poll()) != null) {
+            batch.add(next);
+            if (batch.size() >= properties.getFlushBatchSize()) {
+                if (!flushBatch(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    private boolean flushBatch(List<QueuedVote> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (Exception e) {
+            // Queued again, the next run retries them
+            log.warn("Failed to flush {} review votes: {}", batch.size(), e.getMessage());
+            queue.addAll(batch);
+            return false;
+        }
+
+        for (QueuedVote queuedVote : batch) {
+            Tally tally = queuedVote.tally();
+            (queuedVote.vote().helpful() ? tally.helpful : tally.notHelpful).decrement();
+            if (tally.isEmpty()) {
+                // A vote counted in this tally while it is removed is still queued, only its overlay is missed
+                pendingTallies.remove(queuedVote.review(), tally);
+            }
+        }
+        queued.addAndGet(-batch.size());
+        written.increment(batch.size());
+        return true;
+    }
+
+    private void write(List<QueuedVote> batch) {
+        boolean[] inserted = voteJdbcRepository.insertVotes(batch.stream().map(QueuedVote::vote).toList());
+
+        Map<ReviewKey, long[]> counts = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (!inserted[i]) {
+                continue;
+            }
+            long[] count = counts.computeIfAbsent(batch.get(i).review(), key -> new long[2]);
+            count[batch.get(i).vote().helpful() ? 0 : 1]++;
+        }
+
+        voteJdbcRepository.addCounts(counts.entrySet().stream()
+                .map(entry -> new ReviewVoteJdbcRepository.CountDelta(entry.getKey().animeId(),
+                        entry.getKey().authorId(), entry.getValue()[0], entry.getValue()[1]))
+                .toList());
+        userRatingCache.evictAll(counts.keySet().stream()
+                .map(review -> new UserRatingCache.Entry(review.authorId(), review.animeId()))
+                .toList());
+    }
+
+    private String voterKey(ReviewKey review) {
+        return properties.getKeyPrefix() + ":" + review.animeId() + ":" + review.authorId();
+    }
+}
@@ -0,0 +1,446 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ListImportProperties;
+import com.anipulse.animeservice.dto.ListImportJobDTO;
+import com.anipulse.animeservice.entity.Anime;
+import com.anipulse.animeservice.entity.ListImportFetch;
+import com.anipulse.animeservice.entity.ListImportJob;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.exception.AnimeNotFoundException;
+import com.anipulse.animeservice.mapper.UserAnimeListMapper;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import com.anipulse.animeservice.repository.ListImportFetchJdbcRepository;
+import com.anipulse.animeservice.repository.ListImportFetchRepository;
+import com.anipulse.animeservice.repository.ListImportJobRepository;
+import com.anipulse.animeservice.repository.UserAnimeListJdbcRepository;
+import com.anipulse.animeservice.util.JikanRateLimiter;
+import com.anipulse.animeservice.util.MalListExportParser;
+import com.anipulse.animeservice.util.MalListExportParser.MalListEntry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports MyAnimeList exports into a user's list without holding a request thread.
+ * <p>
+ * The upload is spooled to a temp file and stream-parsed on a dedicated executor. Each chunk of entries
+ * resolves its MAL IDs with one query and is written with one JDBC batch (plus outbox events) per transaction.
+ * Titles missing from the local catalog are queued in tbl_list_import_fetch and fetched from JIKAN in the
+ * background, a few per run, leaving rate-limit tokens for live traffic. Job progress lives in
+ * tbl_list_import_job, so any instance can answer a status poll and pending fetches survive a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAnimeListImportService {
+
+    private static final long MIN_TOKENS_LEFT_FOR_LIVE_TRAFFIC = 2;
+    private static final int MAX_FETCH_ATTEMPTS = 3;
+    private static final List<ListImportJobDTO.Status> ACTIVE = List.of(
+            ListImportJobDTO.Status.QUEUED, ListImportJobDTO.Status.RUNNING, ListImportJobDTO.Status.FETCHING);
+
+    private final MalListExportParser parser;
+    private final AnimeRepository animeRepository;
+    private final UserAnimeListJdbcRepository userAnimeListJdbcRepository;
+    private final ListImportJobRepository jobRepository;
+    private final ListImportFetchRepository fetchRepository;
+    private final ListImportFetchJdbcRepository fetchJdbcRepository;
+    private final AnimeSearchService animeSearchService;
+    private final OutboxService outboxService;
+    private final UserListCacheEvictor cacheEvictor;
+    private final UserAnimeStatsService statsService;
+    private final UserAnimeListMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor listImportExecutor;
+    private final JikanRateLimiter rateLimiter;
+    private final ListImportProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pendingFetches = new AtomicLong();
+
+    @Value("${rabbitmq.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbitmq.routing.key}")
+    private String routingKey;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("anime.list_import.fetch_queue", pendingFetches, AtomicLong::get)
+                .description("Imported entries waiting for their anime to be fetched from JIKAN")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spool the upload and schedule the import
+     * @param format explicit format, or null to derive it from the file name / content type
+     */
+    public ListImportJobDTO startImport(String userId, MultipartFile file, MalListExportParser.Format format) {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import file is empty");
+        }
+        MalListExportParser.Format resolvedFormat = format != null ? format : detectFormat(file);
+
+        Path spool;
+        try {
+            // The multipart temp file is deleted when the request completes
+            spool = Files.createTempFile("mal-import-", ".tmp");
+            file.transferTo(spool);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store import file", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ListImportJob job = jobRepository.save(ListImportJob.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .format(resolvedFormat)
+                .status(ListImportJobDTO.Status.QUEUED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        try {
+            listImportExecutor.execute(() -> runImport(job.getId(), userId, resolvedFormat, spool));
+        } catch (TaskRejectedException e) {
+            jobRepository.deleteById(job.getId());
+            deleteQuietly(spool);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many imports in progress, retry later");
+        }
+
+        log.info("Queued {} import {} for user {} ({} bytes)", resolvedFormat, job.getId(), userId, file.getSize());
+        return toDTO(job);
+    }
+
+    public ListImportJobDTO getJob(String userId, String jobId) {
+        return jobRepository.findByIdAndUserId(jobId, userId)
+                .map(UserAnimeListImportService::toDTO)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found: " + jobId));
+    }
+
+    private void runImport(String jobId, String userId, MalListExportParser.Format format, Path spool) {
+        Integer started = transactionTemplate.execute(status -> jobRepository.markRunning(jobId, LocalDateTime.now()));
+        if (started == null || started == 0) {
+            deleteQuietly(spool);
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        try (InputStream input = openSpool(spool)) {
+            List<MalListEntry> chunk = new ArrayList<>(properties.getBatchSize());
+            MalListExportParser.ParseResult result = parser.parse(input, format, entry -> {
+                chunk.add(entry);
+                if (chunk.size() >= properties.getBatchSize()) {
+                    importChunk(jobId, userId, chunk);
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                importChunk(jobId, userId, chunk);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                jobRepository.markParsed(jobId, result.skipped(), now);
+                completeIfDone(jobId, now);
+            });
+            log.info("Import {} for user {} parsed in {} ms: {} entries",
+                    jobId, userId, System.currentTimeMillis() - start, result.entries());
+        } catch (Exception e) {
+            log.error("Import {} for user {} failed: {}", jobId, userId, e.getMessage(), e);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.markFailed(jobId, truncate(e.getMessage()), LocalDateTime.now()));
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    /**
+     * Write the entries whose anime is known and queue the rest, together with the job's counters
+     */
+    private void importChunk(String jobId, String userId, List<MalListEntry> chunk) {
+        Map<Long, Long> animeIds = resolveAnimeIds(chunk);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserAnimeList> rows = new ArrayList<>(chunk.size());
+        List<ListImportFetch> fetches = new ArrayList<>();
+        for (MalListEntry entry : chunk) {
+            Long animeId = animeIds.get(entry.malId());
+            if (animeId != null) {
+                rows.add(toRow(userId, animeId, entry));
+            } else {
+                fetches.add(toFetch(jobId, userId, entry, now));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            writeRows(userId, rows);
+            fetchJdbcRepository.insertAll(fetches);
+            jobRepository.addProgress(jobId, chunk.size(), rows.size(), fetches.size(), 0, now);
+        });
+        meterRegistry.counter("anime.list_import.entries", "outcome", "imported").increment(rows.size());
+    }
+
+    /**
+     * Resolve queued entries against JIKAN, a few per run and only while the rate limiter has spare tokens.
+     * An entry is leased (pushed back by fetch-retry-delay) before the JIKAN call so other instances skip it,
+     * and finished by whoever deletes its row; a lease that runs out after a crash makes it due again.
+     */
+    @Scheduled(fixedDelayString = "${app.list-import.fetch-poll-interval-ms:2000}")
+    public void fetchPendingAnime() {
+        try {
+            int fetched = 0;
+            while (fetched < properties.getMaxFetchesPerRun()
+                    && rateLimiter.getAvailableTokens() >= MIN_TOKENS_LEFT_FOR_LIVE_TRAFFIC) {
+                ListImportFetch pending = transactionTemplate.execute(status -> claimNext());
+                if (pending == null) {
+                    break;
+                }
+                FetchOutcome outcome = fetch(pending);
+                if (outcome == FetchOutcome.FETCHED) {
+                    fetched++;
+                } else if (outcome == FetchOutcome.BACKED_OFF) {
+                    break;
+                }
+            }
+            pendingFetches.set(fetchRepository.count());
+        } catch (Exception e) {
+            log.warn("Import fetch run failed: {}", e.getMessage());
+        }
+    }
+
+    private enum FetchOutcome {
+        // Written without calling JIKAN, an earlier entry brought the anime in
+        RESOLVED,
+        FETCHED,
+        FAILED,
+        BACKED_OFF
+    }
+
+    private ListImportFetch claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ListImportFetch> due = fetchRepository.findDueForUpdate(now, PageRequest.of(0, 1));
+        if (due.isEmpty()) {
+            return null;
+        }
+        ListImportFetch pending = due.get(0);
+        pending.setNotBefore(now.plus(properties.getFetchRetryDelay()));
+        return fetchRepository.save(pending);
+    }
+
+    private FetchOutcome fetch(ListImportFetch pending) {
+        String jobId = pending.getJobId();
+        Long malId = pending.getMalId();
+        try {
+            // An earlier entry (from any import) may already have brought this title in
+            Long animeId = animeRepository.findByMalId(malId).map(Anime::getId).orElse(null);
+            FetchOutcome outcome = FetchOutcome.RESOLVED;
+            if (animeId == null) {
+                outcome = FetchOutcome.FETCHED;
+                animeSearchService.getAnimeByMalId(malId);
+                animeId = animeRepository.findByMalId(malId)
+                        .map(Anime::getId)
+                        .orElseThrow(() -> new AnimeNotFoundException(malId));
+            }
+
+            UserAnimeList row = toRow(pending.getUserId(), animeId, toEntry(pending));
+            finish(pending, 1, 0, () -> writeRows(pending.getUserId(), List.of(row)));
+            meterRegistry.counter("anime.list_import.entries", "outcome", "fetched").increment();
+            return outcome;
+        } catch (AnimeNotFoundException e) {
+            log.info("Import {}: MAL ID {} does not exist, skipping", jobId, malId);
+            finish(pending, 0, 1, () -> { });
+            meterRegistry.counter("anime.list_import.entries", "outcome", "not_found").increment();
+            return FetchOutcome.FAILED;
+        } catch (InterruptedException e) {
+            // The lease runs out and the entry is picked up again
+            Thread.currentThread().interrupt();
+            return FetchOutcome.BACKED_OFF;
+        } catch (Exception e) {
+            // JIKAN is struggling (timeout, 429, open circuit): the lease doubles as the back-off
+            if (pending.getAttempt() < MAX_FETCH_ATTEMPTS) {
+                log.debug("Import {}: retrying MAL ID {} later: {}", jobId, malId, e.getMessage());
+                transactionTemplate.executeWithoutResult(status ->
+                        fetchRepository.incrementAttempt(pending.getId()));
+                return FetchOutcome.BACKED_OFF;
+            }
+            log.warn("Import {}: giving up on MAL ID {}: {}", jobId, malId, e.getMessage());
+            finish(pending, 0, 1, () -> { });
+            meterRegistry.counter("anime.list_import.entries", "outcome", "failed").increment();
+            return FetchOutcome.FAILED;
+        }
+    }
+
+    /**
+     * Remove the entry and count it as imported or failed, unless another instance already finished it
+     */
+    private void finish(ListImportFetch pending, int imported, int failed, Runnable write) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (fetchRepository.deleteClaimed(pending.getId()) == 0) {
+                return;
+            }
+            write.run();
+            LocalDateTime now = LocalDateTime.now();
+            jobRepository.addProgress(pending.getJobId(), 0, imported, -1, failed, now);
+            completeIfDone(pending.getJobId(), now);
+        });
+    }
+
+    /**
+     * Fail jobs orphaned by a lost instance and forget finished jobs once their retention has passed
+     */
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeFinishedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            int stale = jobRepository.failStale(List.of(ListImportJobDTO.Status.QUEUED, ListImportJobDTO.Status.RUNNING),
+                    now.minus(properties.getStaleJobTimeout()), "Import interrupted, please upload the file again", now);
+            if (stale > 0) {
+                log.warn("Failed {} imports that stopped making progress", stale);
+            }
+            jobRepository.deleteFinishedBefore(now.minus(properties.getJobRetention()));
+        });
+    }
+
+    private Map<Long, Long> resolveAnimeIds(List<MalListEntry> chunk) {
+        List<Long> malIds = chunk.stream().map(MalListEntry::malId).distinct().toList();
+        Map<Long, Long> animeIds = new HashMap<>(malIds.size() * 2);
+        for (Object[] row : animeRepository.findIdsByMalIdIn(malIds)) {
+            animeIds.put((Long) row[0], (Long) row[1]);
+        }
+        return animeIds;
+    }
+
+    // Runs inside the caller's transaction
+    private void writeRows(String userId, List<UserAnimeList> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        userAnimeListJdbcRepository.batchUpsert(rows);
+        // Upserts do not report the previous values, so recount this user instead of applying a delta
+        statsService.recalculate(userId);
+        outboxService.enqueueAll(exchange, routingKey, rows.stream().map(mapper::toChangeEvent).toList());
+        cacheEvictor.evictUser(userId);
+    }
+
+    private static UserAnimeList toRow(String userId, Long animeId, MalListEntry entry) {
+        LocalDateTime completedAt = null;
+        if (entry.status() == WatchStatus.COMPLETED) {
+            completedAt = entry.finishDate() != null ? entry.finishDate().atStartOfDay() : LocalDateTime.now();
+        }
+        return UserAnimeList.builder()
+                .userId(userId)
+                .animeId(animeId)
+                .watchStatus(entry.status())
+                .progress(entry.progress())
+                .rating(entry.rating())
+                .notes(entry.notes())
+                .completedAt(completedAt)
+                .build();
+    }
+
+    // Called from the import thread and the fetch scheduler of any instance, inside their transaction
+    private void completeIfDone(String jobId, LocalDateTime now) {
+        if (jobRepository.completeIfDone(jobId, ACTIVE, now) > 0) {
+            log.info("Import {} completed", jobId);
+        } else {
+            jobRepository.markFetching(jobId, now);
+        }
+    }
+
+    private static InputStream openSpool(Path spool) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(Files.newInputStream(spool));
+        // MAL hands out its XML export gzipped, accept it as-is
+        input.mark(2);
+        int first = input.read();
+        int second = input.read();
+        input.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(input);
+        }
+        return input;
+    }
+
+    private static MalListExportParser.Format detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        if (name.endsWith(".json") || name.endsWith(".json.gz") || contentType.contains("json")) {
+            return MalListExportParser.Format.JSON;
+        }
+        return MalListExportParser.Format.XML;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static ListImportFetch toFetch(String jobId, String userId, MalListEntry entry, LocalDateTime now) {
+        return ListImportFetch.builder()
+                .jobId(jobId)
+                .userId(userId)
+                .malId(entry.malId())
+                .watchStatus(entry.status())
+                .progress(entry.progress())
+                .rating(entry.rating())
+                .notes(entry.notes())
+                .finishDate(entry.finishDate())
+                .attempt(1)
+                .notBefore(now)
+                .build();
+    }
+
+    private static MalListEntry toEntry(ListImportFetch fetch) {
+        return new MalListEntry(fetch.getMalId(), fetch.getWatchStatus(), fetch.getProgress(), fetch.getRating(),
+                fetch.getNotes(), fetch.getFinishDate());
+    }
+
+    private static ListImportJobDTO toDTO(ListImportJob job) {
+        return ListImportJobDTO.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .format(job.getFormat().name())
+                .totalEntries(job.getTotalEntries())
+                .importedEntries(job.getImportedEntries())
+                .skippedEntries(job.getSkippedEntries())
+                .pendingEntries(job.getPendingEntries())
+                .failedEntries(job.getFailedEntries())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,50 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.UserAnimeListDTO;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.mapper.UserAnimeListMapper;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Builds list DTOs in a fixed number of queries.
+ * Rows come from repository methods that fetch-join the anime summary; the genre names of every anime on
+ * the page are then loaded with one IN query, instead of initializing each anime's genre collection.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAnimeListReadModel {
+
+    private final AnimeRepository animeRepository;
+    private final UserAnimeListMapper mapper;
+
+    /**
+     * @return a mapper for the given rows with their genre names preloaded
+     */
+    public Function<UserAnimeList, UserAnimeListDTO> mapperFor(Iterable<UserAnimeList> rows) {
+        Set<Long> animeIds = new HashSet<>();
+        rows.forEach(row -> animeIds.add(row.getAnimeId()));
+        Map<Long, List<String>> genres = genreNames(animeIds);
+        return row -> mapper.toDTO(row, genres.getOrDefault(row.getAnimeId(), List.of()));
+    }
+
+    private Map<Long, List<String>> genreNames(Set<Long> animeIds) {
+        if (animeIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<String>> genres = new HashMap<>();
+        for (Object[] row : animeRepository.findGenreNamesByAnimeIdIn(animeIds)) {
+            genres.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return genres;
+    }
+}
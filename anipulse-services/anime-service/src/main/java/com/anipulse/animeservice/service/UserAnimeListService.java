@@ -1,38 +1,77 @@
 package com.anipulse.animeservice.service;
 
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
+import com.anipulse.animeservice.dto.CursorPageDTO;
+import com.anipulse.animeservice.dto.MembershipBitsDTO;
+import com.anipulse.animeservice.dto.ProgressUpdateRequestDTO;
+import com.anipulse.animeservice.dto.UserAnimeListBatchRequestDTO;
+import com.anipulse.animeservice.dto.UserAnimeListBatchResultDTO;
 import com.anipulse.animeservice.dto.UserAnimeListDTO;
 import com.anipulse.animeservice.dto.UserAnimeListRequestDTO;
 import com.anipulse.animeservice.dto.UserAnimeStatsDTO;
+import com.anipulse.animeservice.entity.Anime;
 import com.anipulse.animeservice.entity.UserAnimeList;
 import com.anipulse.animeservice.entity.WatchStatus;
 import com.anipulse.animeservice.mapper.UserAnimeListMapper;
 import com.anipulse.animeservice.repository.AnimeRepository;
+import com.anipulse.animeservice.repository.UserAnimeListJdbcRepository;
 import com.anipulse.animeservice.repository.UserAnimeListRepository;
+import com.anipulse.animeservice.util.KeysetCursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserAnimeListService {
 
+    // Titles missing from the catalog are fetched inline only up to this count per batch
+    private static final int MAX_UPSTREAM_FETCHES_PER_BATCH = 10;
+
+    // Sort keys available to cursor pagination, all non-null and backed by (userId, key, animeId) indexes
+    private static final Map<String, Class<?>> CURSOR_SORT_KEYS = Map.of(
+            "updatedAt", LocalDateTime.class,
+            "addedAt", LocalDateTime.class,
+            "progress", Integer.class);
+
     private final UserAnimeListRepository userAnimeListRepository;
     private final AnimeRepository animeRepository;
     private final UserAnimeListMapper mapper;
     private final AnimeSearchService animeSearchService;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+    private final UserAnimeListJdbcRepository userAnimeListJdbcRepository;
+    private final UserListCacheEvictor cacheEvictor;
+    private final UserAnimeStatsService statsService;
+    private final KeysetCursorCodec cursorCodec;
+    private final UserAnimeListReadModel readModel;
+    private final UserAnimeMembershipService membershipService;
+    private final ProgressUpdateBuffer progressBuffer;
+    private final UserAnimeListSyncService syncService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${rabbitmq.exchange.name}")
     private String exchange;
@@ -42,7 +81,6 @@ public class UserAnimeListService {
 
     // Add anime to user's list or update existing entry
     @Transactional
-    @CacheEvict(value = "userAnimeList", key = "#userId")
     public UserAnimeListDTO createOrUpdateAnime(String userId,
                                                 UserAnimeListRequestDTO request) {
         log.info("Adding/updating anime (MAL ID: {}) for user {}", request.getMalId(), userId);
@@ -50,12 +88,17 @@ public class UserAnimeListService {
         // Ensure anime exists and get the database ID
         Long animeDbId = ensureAnimeExists(request.getMalId());
 
+        // Locked so concurrent writes of the same entry apply their stats deltas one after the other
         UserAnimeList entry = userAnimeListRepository
-                .findByUserIdAndAnimeId(userId, animeDbId)
+                .findForUpdate(userId, animeDbId)
                 .orElse(UserAnimeList.builder()
                         .userId(userId)
                         .animeId(animeDbId)
                         .build());
+        UserAnimeStatsService.Snapshot before = entry.getWatchStatus() != null
+                ? UserAnimeStatsService.Snapshot.of(entry) : null;
+        // This write carries its own progress, a buffered bump must not land on top of it
+        progressBuffer.discard(userId, animeDbId);
 
         // Update fields
         entry.setWatchStatus(request.getWatchStatus());
@@ -68,13 +111,12 @@ public class UserAnimeListService {
             entry.setCompletedAt(LocalDateTime.now());
         }
 
-        try {
-            rabbitTemplate.convertAndSend(exchange, routingKey, entry);
-        } catch (AmqpException e) {
-            throw new RuntimeException("Failed to send message to RabbitMQ", e);
-        }
-
         entry = userAnimeListRepository.save(entry);
+        statsService.recordChange(userId, before, UserAnimeStatsService.Snapshot.of(entry));
+
+        // Relayed to RabbitMQ after commit by OutboxRelay
+        outboxService.enqueue(exchange, routingKey, mapper.toChangeEvent(entry));
+        cacheEvictor.evictUser(userId);
         log.info("Added anime (DB ID: {}) for user {}", animeDbId, userId);
         return mapper.toDTO(entry);
     }
@@ -85,8 +127,8 @@ public class UserAnimeListService {
     public Page<UserAnimeListDTO> getUserAnimeList(String userId, Pageable pageable) {
         log.debug("Fetching anime list for user {}, page {}", userId, pageable.getPageNumber());
 
-        return userAnimeListRepository.findByUserId(userId, pageable)
-                .map(mapper::toDTO);
+        Page<UserAnimeList> rows = userAnimeListRepository.findByUserId(userId, pageable);
+        return rows.map(readModel.mapperFor(rows));
     }
 
     /**
@@ -97,8 +139,56 @@ public class UserAnimeListService {
     public Page<UserAnimeListDTO> getUserAnimeListByStatus(String userId, WatchStatus status, Pageable pageable) {
         log.debug("Fetching {} anime for user {}", status, userId);
 
-        return userAnimeListRepository.findByUserIdAndWatchStatus(userId, status, pageable)
-                .map(mapper::toDTO);
+        Page<UserAnimeList> rows = userAnimeListRepository.findByUserIdAndWatchStatus(userId, status, pageable);
+        return rows.map(readModel.mapperFor(rows));
+    }
+
+    /**
+     * Keyset-paginated list, optionally filtered by status.
+     * Each slice seeks past the previous one on (sort key, animeId) instead of scanning an OFFSET,
+     * and the total is only counted when asked for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserAnimeListDTO> scrollUserAnimeList(String userId, WatchStatus status, String cursor,
+                                                              int size, String sortBy, Sort.Direction direction,
+                                                              boolean includeTotal) {
+        Class<?> sortType = CURSOR_SORT_KEYS.get(sortBy);
+        if (sortType == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination supports sortBy " + CURSOR_SORT_KEYS.keySet());
+        }
+
+        ScrollPosition position = cursorCodec.decode(cursor, sortBy, direction,
+                KeysetCursorCodec.keyTypes(sortBy, sortType, "animeId", Long.class, "userId", String.class));
+        // Both identifier columns are listed so the keyset covers the full primary key
+        Sort sort = Sort.by(direction, sortBy, "animeId", "userId");
+
+        Window<UserAnimeList> window = status == null
+                ? userAnimeListRepository.findByUserId(userId, position, sort, KeysetCursorCodec.limit(size))
+                : userAnimeListRepository.findByUserIdAndWatchStatus(userId, status, position, sort,
+                        KeysetCursorCodec.limit(size));
+
+        Long total = null;
+        if (includeTotal) {
+            total = status == null
+                    ? userAnimeListRepository.countByUserId(userId)
+                    : userAnimeListRepository.countByUserIdAndWatchStatus(userId, status);
+        }
+        CursorPageDTO<UserAnimeListDTO> result = cursorCodec.toPage(window, readModel.mapperFor(window),
+                sortBy, direction, total);
+        overlayPendingProgress(userId, result.getContent());
+        return result;
+    }
+
+    /**
+     * Show progress still held by {@link ProgressUpdateBuffer} on list entries, as getUserAnimeEntry does.
+     * Cached pages get it applied after they are read: a buffered bump does not evict them until it is flushed,
+     * and a pending value stored with the page would outlive a later bump.
+     */
+    public void overlayPendingProgress(String userId, List<UserAnimeListDTO> entries) {
+        for (UserAnimeListDTO entry : entries) {
+            progressBuffer.pendingProgress(userId, entry.getAnimeId()).ifPresent(entry::setProgress);
+        }
     }
 
     /**
@@ -109,26 +199,176 @@ public class UserAnimeListService {
         log.debug("Fetching anime {} for user {}", animeId, userId);
 
         return userAnimeListRepository.findByUserIdAndAnimeId(userId, animeId)
-                .map(mapper::toDTO)
+                .map(entry -> {
+                    UserAnimeListDTO dto = mapper.toDTO(entry);
+                    progressBuffer.pendingProgress(userId, animeId).ifPresent(dto::setProgress);
+                    return dto;
+                })
                 .orElse(null);
     }
 
     /**
-     * Check if anime is in user's list
+     * Buffer an episode progress bump of an entry already in the list, it is written behind
+     * by {@link ProgressUpdateBuffer}. No transaction: the membership check is served from cache.
+     */
+    public void bufferProgress(String userId, Long animeId, int progress) {
+        if (!isAnimeInList(userId, animeId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found in user's list");
+        }
+        progressBuffer.submit(userId, animeId, progress);
+    }
+
+    /**
+     * Update progress together with a status transition such as COMPLETED, written right away
+     */
+    @Transactional
+    public UserAnimeListDTO updateProgressNow(String userId, Long animeId, ProgressUpdateRequestDTO request) {
+        UserAnimeList entry = userAnimeListRepository.findForUpdate(userId, animeId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found in user's list"));
+        progressBuffer.discard(userId, animeId);
+        UserAnimeStatsService.Snapshot before = UserAnimeStatsService.Snapshot.of(entry);
+
+        entry.setProgress(request.getProgress());
+        if (request.getWatchStatus() != null) {
+            entry.setWatchStatus(request.getWatchStatus());
+        }
+        if (request.getWatchStatus() == WatchStatus.COMPLETED && entry.getCompletedAt() == null) {
+            entry.setCompletedAt(LocalDateTime.now());
+        }
+
+        entry = userAnimeListRepository.save(entry);
+        statsService.recordChange(userId, before, UserAnimeStatsService.Snapshot.of(entry));
+        outboxService.enqueue(exchange, routingKey, mapper.toChangeEvent(entry));
+        cacheEvictor.evictUser(userId);
+        return mapper.toDTO(entry);
+    }
+
+    /**
+     * Check if anime is in user's list (binary search on the cached membership set)
      */
-    @Transactional(readOnly = true)
     public boolean isAnimeInList(String userId, Long animeId) {
-        return userAnimeListRepository.existsByUserIdAndAnimeId(userId, animeId);
+        return UserAnimeMembershipService.containsAnimeId(membershipService.getMembership(userId), animeId);
+    }
+
+    /**
+     * Check many anime at once, e.g. every card of a search page
+     */
+    public MembershipBitsDTO checkMembership(String userId, List<Long> ids, boolean byMalId) {
+        return UserAnimeMembershipService.check(membershipService.getMembership(userId), ids, byMalId);
     }
 
     /**
      * Delete anime from user's list
      */
     @Transactional
-    @CacheEvict(value = {"userAnimeList", "userAnimeListByStatus"}, key = "#userId")
     public void removeAnimeFromList(String userId, Long animeId) {
         log.info("Removing anime {} from user {}'s list", animeId, userId);
-        userAnimeListRepository.deleteByUserIdAndAnimeId(userId, animeId);
+        progressBuffer.discard(userId, animeId);
+        userAnimeListRepository.findForUpdate(userId, animeId).ifPresent(entry -> {
+            userAnimeListRepository.delete(entry);
+            statsService.recordChange(userId, UserAnimeStatsService.Snapshot.of(entry), null);
+            syncService.recordDeletions(userId, List.of(animeId));
+            // Like the batch path, only an entry that existed produces a tombstone
+            outboxService.enqueue(exchange, routingKey, mapper.toDeleteEvent(userId, animeId));
+            cacheEvictor.evictUser(userId);
+        });
+    }
+
+    /**
+     * Apply several upserts and removals in one transaction.
+     * Conflicting mutations are rejected and missing titles fetched from JIKAN before the transaction opens,
+     * so no connection is held across upstream calls. Inside it, existing entries are locked with one IN query,
+     * rows are written with one JDBC batch, the events are enqueued together
+     * (so the relay packs them into shared messages) and the user's caches are invalidated once.
+     */
+    public UserAnimeListBatchResultDTO applyBatch(String userId, UserAnimeListBatchRequestDTO request) {
+        List<UserAnimeListRequestDTO> upserts = request.getUpserts() != null ? request.getUpserts() : List.of();
+        List<Long> removals = request.getRemoveAnimeIds() != null ? request.getRemoveAnimeIds() : List.of();
+        if (upserts.size() + removals.size() > UserAnimeListBatchRequestDTO.MAX_MUTATIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + UserAnimeListBatchRequestDTO.MAX_MUTATIONS + " mutations per batch");
+        }
+        log.info("Applying batch of {} upserts and {} removals for user {}", upserts.size(), removals.size(), userId);
+
+        // Later mutations of the same anime win
+        Map<Long, UserAnimeListRequestDTO> upsertsByMalId = new LinkedHashMap<>();
+        upserts.forEach(upsert -> upsertsByMalId.put(upsert.getMalId(), upsert));
+
+        Map<Long, Anime> animeByMalId = new HashMap<>();
+        if (!upsertsByMalId.isEmpty()) {
+            animeRepository.findByMalIdIn(upsertsByMalId.keySet())
+                    .forEach(anime -> animeByMalId.put(anime.getMalId(), anime));
+        }
+        Set<Long> removalSet = new LinkedHashSet<>(removals);
+        rejectConflicts(animeByMalId.values(), removalSet);
+
+        fetchMissingAnime(upsertsByMalId.keySet(), animeByMalId);
+        // Fetched titles got their catalog ids only now
+        rejectConflicts(animeByMalId.values(), removalSet);
+        List<Long> unresolvedMalIds = upsertsByMalId.keySet().stream()
+                .filter(malId -> !animeByMalId.containsKey(malId))
+                .toList();
+
+        return transactionTemplate.execute(status ->
+                writeBatch(userId, upsertsByMalId, removals, animeByMalId, unresolvedMalIds));
+    }
+
+    private UserAnimeListBatchResultDTO writeBatch(String userId, Map<Long, UserAnimeListRequestDTO> upsertsByMalId,
+                                                   List<Long> removals, Map<Long, Anime> animeByMalId,
+                                                   List<Long> unresolvedMalIds) {
+        Set<Long> touchedAnimeIds = new LinkedHashSet<>(removals);
+        animeByMalId.values().forEach(anime -> touchedAnimeIds.add(anime.getId()));
+        touchedAnimeIds.forEach(animeId -> progressBuffer.discard(userId, animeId));
+        // Locked like the single-entry path: a concurrent write committing before batchUpsert would otherwise
+        // be overwritten and its previous values subtracted from the stats a second time
+        Map<Long, UserAnimeList> existing = touchedAnimeIds.isEmpty() ? Map.of()
+                : userAnimeListRepository.findForUpdateIn(userId, touchedAnimeIds).stream()
+                .collect(Collectors.toMap(UserAnimeList::getAnimeId, Function.identity()));
+
+        // Detached rows: the loaded entities stay untouched so Hibernate has nothing to flush over the JDBC writes
+        List<UserAnimeList> rows = new ArrayList<>(upsertsByMalId.size());
+        for (UserAnimeListRequestDTO upsert : upsertsByMalId.values()) {
+            Anime anime = animeByMalId.get(upsert.getMalId());
+            if (anime != null) {
+                rows.add(toRow(userId, anime, upsert, existing.get(anime.getId())));
+            }
+        }
+
+        List<Long> removedAnimeIds = removals.stream()
+                .distinct()
+                .filter(existing::containsKey)
+                .toList();
+
+        userAnimeListJdbcRepository.batchUpsert(rows);
+        if (!removedAnimeIds.isEmpty()) {
+            userAnimeListRepository.deleteByUserIdAndAnimeIdIn(userId, removedAnimeIds);
+            syncService.recordDeletions(userId, removedAnimeIds);
+        }
+
+        // One delta for the whole batch: previous values of every touched entry out, new values in
+        List<UserAnimeStatsService.Snapshot> previous = new ArrayList<>();
+        rows.forEach(row -> {
+            UserAnimeList old = existing.get(row.getAnimeId());
+            if (old != null) {
+                previous.add(UserAnimeStatsService.Snapshot.of(old));
+            }
+        });
+        removedAnimeIds.forEach(animeId -> previous.add(UserAnimeStatsService.Snapshot.of(existing.get(animeId))));
+        statsService.recordChanges(userId, previous,
+                rows.stream().map(UserAnimeStatsService.Snapshot::of).toList());
+
+        List<AnimeListChangeEvent> events = new ArrayList<>(rows.size() + removedAnimeIds.size());
+        rows.forEach(row -> events.add(mapper.toChangeEvent(row)));
+        removedAnimeIds.forEach(animeId -> events.add(mapper.toDeleteEvent(userId, animeId)));
+        outboxService.enqueueAll(exchange, routingKey, events);
+
+        cacheEvictor.evictUser(userId);
+
+        return UserAnimeListBatchResultDTO.builder()
+                .updated(rows.stream().map(mapper::toDTO).toList())
+                .removedAnimeIds(removedAnimeIds)
+                .unresolvedMalIds(unresolvedMalIds)
+                .build();
     }
 
     /**
@@ -141,21 +381,66 @@ public class UserAnimeListService {
     }
 
     /**
-     * Get user's statistics
+     * Get user's statistics (single primary-key lookup on the maintained stats row)
      */
-    @Transactional(readOnly = true)
-    @Cacheable(value = "userAnimeStats", key = "#userId")
     public UserAnimeStatsDTO getUserStatistics(String userId) {
-        return UserAnimeStatsDTO.builder()
-                .totalAnime(userAnimeListRepository.countByUserId(userId))
-                .watching(userAnimeListRepository.countByUserIdAndWatchStatus(userId, WatchStatus.WATCHING))
-                .completed(userAnimeListRepository.countByUserIdAndWatchStatus(userId, WatchStatus.COMPLETED))
-                .onHold(userAnimeListRepository.countByUserIdAndWatchStatus(userId, WatchStatus.ON_HOLD))
-                .dropped(userAnimeListRepository.countByUserIdAndWatchStatus(userId, WatchStatus.DROPPED))
-                .planToWatch(userAnimeListRepository.countByUserIdAndWatchStatus(userId, WatchStatus.PLAN_TO_WATCH))
-                .build();
+        return statsService.getStats(userId);
+    }
+
+
+    // Upserts and removals carry no order relative to each other, so one anime may only appear in one of them
+    private static void rejectConflicts(Collection<Anime> upserted, Set<Long> removalSet) {
+        List<Long> conflicting = upserted.stream()
+                .map(Anime::getId)
+                .filter(removalSet::contains)
+                .toList();
+        if (!conflicting.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Anime " + conflicting + " are both upserted and removed in one batch");
+        }
+    }
+
+    /**
+     * Fetch a few of the titles missing from the catalog from JIKAN, the rest are reported back as unresolved.
+     * Runs outside any transaction, each fetched title is stored by AnimeSearchService on its own.
+     */
+    private void fetchMissingAnime(Set<Long> malIds, Map<Long, Anime> animeByMalId) {
+        int fetched = 0;
+        for (Long malId : malIds) {
+            if (animeByMalId.containsKey(malId) || fetched >= MAX_UPSTREAM_FETCHES_PER_BATCH) {
+                continue;
+            }
+            fetched++;
+            try {
+                animeSearchService.getAnimeByMalId(malId);
+                animeRepository.findByMalId(malId).ifPresent(anime -> animeByMalId.put(malId, anime));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Could not resolve MAL ID {} for batch: {}", malId, e.getMessage());
+            }
+        }
     }
 
+    private static UserAnimeList toRow(String userId, Anime anime, UserAnimeListRequestDTO request,
+                                       UserAnimeList existing) {
+        LocalDateTime completedAt = existing != null ? existing.getCompletedAt() : null;
+        if (request.getWatchStatus() == WatchStatus.COMPLETED && completedAt == null) {
+            completedAt = LocalDateTime.now();
+        }
+        return UserAnimeList.builder()
+                .userId(userId)
+                .animeId(anime.getId())
+                .anime(anime)
+                .watchStatus(request.getWatchStatus())
+                .progress(request.getProgress() != null ? request.getProgress() : 0)
+                .rating(request.getRating())
+                .notes(request.getNotes())
+                .addedAt(existing != null ? existing.getAddedAt() : null)
+                .completedAt(completedAt)
+                .build();
+    }
 
     /**
      * Ensure anime exists in database and return its database ID
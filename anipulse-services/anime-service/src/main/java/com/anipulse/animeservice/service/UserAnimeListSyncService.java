@@ -0,0 +1,115 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ListSyncProperties;
+import com.anipulse.animeservice.dto.UserAnimeListSyncDTO;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.UserAnimeListDeletion;
+import com.anipulse.animeservice.repository.UserAnimeListDeletionRepository;
+import com.anipulse.animeservice.repository.UserAnimeListRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync of user lists.
+ * Changed entries come from the (userId, updatedAt, animeId) index, removed ones from the deletion log,
+ * so a client that synced recently transfers a handful of rows instead of its whole list.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAnimeListSyncService {
+
+    private final UserAnimeListRepository userAnimeListRepository;
+    private final UserAnimeListDeletionRepository deletionRepository;
+    private final UserAnimeListReadModel readModel;
+    private final ListSyncProperties properties;
+
+    /**
+     * Log removals for delta sync, in the transaction that deletes the entries
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletions(String userId, Collection<Long> animeIds) {
+        if (animeIds.isEmpty()) {
+            return;
+        }
+        deletionRepository.saveAll(animeIds.stream()
+                .map(animeId -> UserAnimeListDeletion.builder().userId(userId).animeId(animeId).build())
+                .toList());
+    }
+
+    /**
+     * Entries changed and removed since the given watermark (epoch millis, null for a first sync)
+     */
+    @Transactional(readOnly = true)
+    public UserAnimeListSyncDTO changesSince(String userId, Long since) {
+        // Taken before reading, so anything committed while the queries run is picked up next time
+        LocalDateTime now = LocalDateTime.now();
+        long watermark = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        if (since == null) {
+            return fullResync(watermark);
+        }
+        LocalDateTime from = LocalDateTime.ofInstant(Instant.ofEpochMilli(since), ZoneId.systemDefault())
+                .minus(properties.getOverlap());
+        if (from.isBefore(now.minus(properties.getTombstoneRetention()))) {
+            // Deletions this old may already be purged
+            return fullResync(watermark);
+        }
+
+        Limit limit = Limit.of(properties.getMaxChanges() + 1);
+        List<UserAnimeList> changed = userAnimeListRepository
+                .findByUserIdAndUpdatedAtAfterOrderByUpdatedAt(userId, from, limit);
+        List<UserAnimeListDeletion> deletions = deletionRepository
+                .findByUserIdAndDeletedAtAfterOrderByDeletedAt(userId, from, limit);
+        if (changed.size() + deletions.size() > properties.getMaxChanges()) {
+            return fullResync(watermark);
+        }
+
+        // An entry removed and added again since the watermark is reported only as changed
+        Set<Long> changedIds = changed.stream().map(UserAnimeList::getAnimeId).collect(Collectors.toSet());
+        List<Long> deletedAnimeIds = deletions.stream()
+                .map(UserAnimeListDeletion::getAnimeId)
+                .filter(animeId -> !changedIds.contains(animeId))
+                .distinct()
+                .toList();
+
+        log.debug("Delta sync for user {}: {} changed, {} deleted", userId, changed.size(), deletedAnimeIds.size());
+        return UserAnimeListSyncDTO.builder()
+                .changed(changed.stream().map(readModel.mapperFor(changed)).toList())
+                .deletedAnimeIds(deletedAnimeIds)
+                .watermark(watermark)
+                .fullResyncRequired(false)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.list-sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = deletionRepository.deleteOlderThan(LocalDateTime.now().minus(properties.getTombstoneRetention()));
+        if (purged > 0) {
+            log.info("Purged {} list deletion tombstones", purged);
+        }
+    }
+
+    private static UserAnimeListSyncDTO fullResync(long watermark) {
+        return UserAnimeListSyncDTO.builder()
+                .changed(List.of())
+                .deletedAnimeIds(List.of())
+                .watermark(watermark)
+                .fullResyncRequired(true)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.MembershipBitsDTO;
+import com.anipulse.animeservice.dto.UserAnimeMembershipDTO;
+import com.anipulse.animeservice.repository.UserAnimeListRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Answers "is this anime in my list" from a cached, sorted array per user instead of one query per card.
+ * The cache entry is dropped by {@link UserListCacheEvictor} on every list write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAnimeMembershipService {
+
+    public static final int MAX_IDS_PER_CHECK = 500;
+
+    private final UserAnimeListRepository userAnimeListRepository;
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = "userAnimeMembership", key = "#userId")
+    public UserAnimeMembershipDTO getMembership(String userId) {
+        List<Object[]> rows = userAnimeListRepository.findAnimeAndMalIdsByUserId(userId);
+
+        long[] animeIds = new long[rows.size()];
+        long[] malIds = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            animeIds[i] = (Long) rows.get(i)[0];
+            malIds[i] = (Long) rows.get(i)[1];
+        }
+        Arrays.sort(animeIds);
+        Arrays.sort(malIds);
+
+        log.debug("Built membership set of {} anime for user {}", animeIds.length, userId);
+        return UserAnimeMembershipDTO.builder()
+                .animeIds(animeIds)
+                .malIds(malIds)
+                .build();
+    }
+
+    public static boolean containsAnimeId(UserAnimeMembershipDTO membership, long animeId) {
+        return Arrays.binarySearch(membership.getAnimeIds(), animeId) >= 0;
+    }
+
+    /**
+     * @param byMalId whether ids are MAL IDs (search/top pages) or database anime IDs
+     */
+    public static MembershipBitsDTO check(UserAnimeMembershipDTO membership, List<Long> ids, boolean byMalId) {
+        if (ids.size() > MAX_IDS_PER_CHECK) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_IDS_PER_CHECK + " IDs per membership check");
+        }
+
+        long[] sorted = byMalId ? membership.getMalIds() : membership.getAnimeIds();
+        StringBuilder bits = new StringBuilder(ids.size());
+        int count = 0;
+        for (Long id : ids) {
+            boolean member = id != null && Arrays.binarySearch(sorted, id) >= 0;
+            bits.append(member ? '1' : '0');
+            if (member) {
+                count++;
+            }
+        }
+
+        return MembershipBitsDTO.builder()
+                .idType(byMalId ? "malId" : "animeId")
+                .bits(bits.toString())
+                .count(count)
+                .build();
+    }
+}
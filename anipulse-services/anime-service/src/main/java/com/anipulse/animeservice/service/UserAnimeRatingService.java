@@ -1,20 +1,40 @@
 package com.anipulse.animeservice.service;
 
+import com.anipulse.animeservice.dto.AnimeRatingDistributionDTO;
 import com.anipulse.animeservice.dto.AnimeRatingStatsDTO;
+import com.anipulse.animeservice.dto.CursorPageDTO;
+import com.anipulse.animeservice.dto.LeaderboardEntryDTO;
 import com.anipulse.animeservice.dto.UserAnimeRatingDTO;
 import com.anipulse.animeservice.dto.UserAnimeRatingRequestDTO;
 import com.anipulse.animeservice.entity.UserAnimeRating;
 import com.anipulse.animeservice.mapper.UserAnimeRatingMapper;
 import com.anipulse.animeservice.repository.AnimeRepository;
 import com.anipulse.animeservice.repository.UserAnimeRatingRepository;
+import com.anipulse.animeservice.util.KeysetCursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Service for managing detailed anime ratings
@@ -25,26 +45,54 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class UserAnimeRatingService {
 
+    private static final int MAX_REVIEW_PAGE_SIZE = 50;
+    public static final int MAX_BATCH_LOOKUP = 100;
+    private static final Pattern QUOTED_PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final Pattern BOOLEAN_OPERATORS = Pattern.compile("[+\\-<>()~*\"@]");
+    private static final Pattern STRAY_APOSTROPHES = Pattern.compile("(?<![\\p{L}\\p{N}])'|'(?![\\p{L}\\p{N}])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Sort keys available to cursor pagination, all non-null and backed by composite indexes
+    private static final Map<String, Class<?>> CURSOR_SORT_KEYS = Map.of(
+            "ratedAt", LocalDateTime.class,
+            "overallRating", Integer.class);
+
     private final UserAnimeRatingRepository ratingRepository;
     private final AnimeRepository animeRepository;
     private final UserAnimeRatingMapper mapper;
     private final AnimeSearchService animeSearchService;
+    private final KeysetCursorCodec cursorCodec;
+    private final AnimeRatingAggregateService aggregateService;
+    private final CommunityLeaderboardService leaderboardService;
+    private final RatingMatrixService ratingMatrixService;
+    private final UserRatingCache userRatingCache;
+    private final ReviewVoteService reviewVoteService;
+    private final OutboxService outboxService;
+
+    @Value("${rabbitmq.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbitmq.routing.key}")
+    private String routingKey;
 
     // Add or update user's rating for anime
     @Transactional
-    @CacheEvict(value = {"userRatings", "animeRatingStats"}, key = "#userId")
+    @CacheEvict(value = "userRatings", key = "#userId")
     public UserAnimeRatingDTO addOrUpdateRating(String userId, UserAnimeRatingRequestDTO request) {
         log.info("Adding/updating rating for anime {} by user {}", request.getAnimeId(), userId);
 
         // Ensure anime exists
         ensureAnimeExists(request.getAnimeId());
 
+        // Locked so concurrent writes of the same rating apply their aggregate deltas one after the other
         UserAnimeRating rating = ratingRepository
-                .findByUserIdAndAnimeId(userId, request.getAnimeId())
+                .findForUpdate(userId, request.getAnimeId())
                 .orElse(UserAnimeRating.builder()
                         .userId(userId)
                         .animeId(request.getAnimeId())
                         .build());
+        AnimeRatingAggregateService.Snapshot before = rating.getOverallRating() != null
+                ? AnimeRatingAggregateService.Snapshot.of(rating) : null;
 
         rating.setStoryRating(request.getStoryRating());
         rating.setAnimationRating(request.getAnimationRating());
@@ -53,6 +101,13 @@ public class UserAnimeRatingService {
         rating.setReviewText(request.getReviewText());
 
         rating = ratingRepository.save(rating);
+        aggregateService.recordChange(rating.getAnimeId(), before, AnimeRatingAggregateService.Snapshot.of(rating));
+        leaderboardService.scheduleRefresh(rating.getAnimeId());
+        ratingMatrixService.recordChange(userId, rating.getAnimeId(), rating.getOverallRating());
+        userRatingCache.evict(userId, rating.getAnimeId());
+        UserAnimeRating saved = rating;
+        catalogIdOf(saved.getAnimeId()).ifPresent(catalogId ->
+                outboxService.enqueue(exchange, routingKey, mapper.toChangeEvent(saved, catalogId)));
         log.info("Successfully saved rating for anime {} by user {}", request.getAnimeId(), userId);
 
         return mapper.toDTO(rating);
@@ -60,13 +115,21 @@ public class UserAnimeRatingService {
 
 
     //Get user's rating for specific anime
-    @Transactional(readOnly = true)
     public UserAnimeRatingDTO getUserRating(String userId, Long animeId) {
         log.debug("Fetching rating for anime {} by user {}", animeId, userId);
+        return getUserRatings(userId, List.of(animeId)).get(animeId);
+    }
 
-        return ratingRepository.findByUserIdAndAnimeId(userId, animeId)
-                .map(mapper::toDTO)
-                .orElse(null);
+    // Get user's ratings of up to MAX_BATCH_LOOKUP anime at once (one MGET, misses in one IN query)
+    public Map<Long, UserAnimeRatingDTO> getUserRatings(String userId, List<Long> animeIds) {
+        if (animeIds.size() > MAX_BATCH_LOOKUP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_LOOKUP + " anime IDs per request");
+        }
+        return userRatingCache.getAll(userId, animeIds, misses ->
+                ratingRepository.findByUserIdAndAnimeIdIn(userId, misses).stream()
+                        .map(mapper::toDTO)
+                        .toList());
     }
 
     // Get all ratings by user with pagination
@@ -89,28 +152,116 @@ public class UserAnimeRatingService {
                 .map(mapper::toDTO);
     }
 
-    // Get rating statistics for anime
+    // Get ratings by user with keyset pagination, seeks on (sort key, animeId)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserAnimeRatingDTO> scrollUserRatings(String userId, String cursor, int size,
+                                                               String sortBy, Sort.Direction direction,
+                                                               boolean includeTotal) {
+        ScrollPosition position = cursorCodec.decode(cursor, sortBy, direction,
+                KeysetCursorCodec.keyTypes(sortBy, cursorSortType(sortBy), "animeId", Long.class, "userId", String.class));
+        Sort sort = Sort.by(direction, sortBy, "animeId", "userId");
+
+        Window<UserAnimeRating> window = ratingRepository.findByUserId(userId, position, sort,
+                KeysetCursorCodec.limit(size));
+        Long total = includeTotal ? ratingRepository.countByUserId(userId) : null;
+        return cursorCodec.toPage(window, mapper::toDTO, sortBy, direction, total);
+    }
+
+    // Get ratings for anime with keyset pagination, seeks on (sort key, userId)
     @Transactional(readOnly = true)
-    @Cacheable(value = "animeRatingStats", key = "#animeId")
+    public CursorPageDTO<UserAnimeRatingDTO> scrollAnimeRatings(Long animeId, String cursor, int size,
+                                                                String sortBy, Sort.Direction direction,
+                                                                boolean includeTotal) {
+        ScrollPosition position = cursorCodec.decode(cursor, sortBy, direction,
+                KeysetCursorCodec.keyTypes(sortBy, cursorSortType(sortBy), "userId", String.class, "animeId", Long.class));
+        Sort sort = Sort.by(direction, sortBy, "userId", "animeId");
+
+        Window<UserAnimeRating> window = ratingRepository.findByAnimeId(animeId, position, sort,
+                KeysetCursorCodec.limit(size));
+        Long total = includeTotal ? ratingRepository.countByAnimeId(animeId) : null;
+        return cursorCodec.toPage(window, mapper::toDTO, sortBy, direction, total);
+    }
+
+    // Get rating statistics for anime (primary-key lookup on the maintained aggregate row)
     public AnimeRatingStatsDTO getAnimeRatingStats(Long animeId) {
-        log.debug("Calculating rating statistics for anime {}", animeId);
+        log.debug("Fetching rating statistics for anime {}", animeId);
+        return aggregateService.getStats(animeId);
+    }
+
+    // Get how people rated the anime, per dimension and score (primary-key scan of the maintained histogram)
+    public AnimeRatingDistributionDTO getAnimeRatingDistribution(Long animeId) {
+        return aggregateService.getDistribution(animeId);
+    }
 
-        return AnimeRatingStatsDTO.builder()
-                .animeId(animeId)
-                .averageOverallRating(ratingRepository.getAverageOverallRating(animeId))
-                .averageStoryRating(ratingRepository.getAverageStoryRating(animeId))
-                .averageAnimationRating(ratingRepository.getAverageAnimationRating(animeId))
-                .averageCharacterRating(ratingRepository.getAverageCharacterRating(animeId))
-                .totalRatings(ratingRepository.countByAnimeId(animeId))
-                .build();
+    // Get a page of the community leaderboard, overall or for one genre
+    public Page<LeaderboardEntryDTO> getLeaderboard(String genre, int page, int size) {
+        return leaderboardService.getPage(genre, page, size);
+    }
+
+    // Get an anime's position on the community leaderboard, overall or within one genre
+    public LeaderboardEntryDTO getLeaderboardRank(Long animeId, String genre) {
+        return leaderboardService.getRank(animeId, genre);
+    }
+
+    // Search review texts site-wide. Words must all occur; "quoted text" must occur as a phrase.
+    // Served by the FULLTEXT index, sorted by relevance or recency
+    @Transactional(readOnly = true)
+    public Page<UserAnimeRatingDTO> searchReviews(String query, boolean byRelevance, int page, int size) {
+        String booleanQuery = toBooleanQuery(query);
+        if (booleanQuery.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must contain a word");
+        }
+        log.debug("Searching reviews for {}", booleanQuery);
+
+        Pageable pageable = PageRequest.of(Math.max(0, page),
+                Math.max(1, Math.min(size, MAX_REVIEW_PAGE_SIZE)));
+        Page<UserAnimeRating> results = byRelevance
+                ? ratingRepository.searchReviewsByRelevance(booleanQuery, pageable)
+                : ratingRepository.searchReviewsByRecency(booleanQuery, pageable);
+        return results.map(mapper::toDTO);
+    }
+
+    // Get reviews of an anime most helpful first. Counts are the flushed ones plus votes still buffered
+    @Transactional(readOnly = true)
+    public Page<UserAnimeRatingDTO> getHelpfulReviews(Long animeId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(0, page),
+                Math.max(1, Math.min(size, MAX_REVIEW_PAGE_SIZE)));
+        return ratingRepository.findReviewsByHelpfulness(animeId, pageable)
+                .map(rating -> {
+                    UserAnimeRatingDTO dto = mapper.toDTO(rating);
+                    long[] pending = reviewVoteService.pendingCounts(animeId, rating.getUserId());
+                    dto.setHelpfulCount(dto.getHelpfulCount() + pending[0]);
+                    dto.setNotHelpfulCount(dto.getNotHelpfulCount() + pending[1]);
+                    return dto;
+                });
+    }
+
+    // Vote a review helpful or not helpful, once per voter and never on one's own review
+    public void voteOnReview(String voterId, Long animeId, String authorId, boolean helpful) {
+        if (voterId.equals(authorId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot vote on your own review");
+        }
+        if (!ratingRepository.existsByUserIdAndAnimeIdAndReviewTextIsNotNull(authorId, animeId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found");
+        }
+        reviewVoteService.vote(animeId, authorId, voterId, helpful);
     }
 
     // Delete user's rating
     @Transactional
-    @CacheEvict(value = {"userRatings", "animeRatingStats"}, key = "#userId")
+    @CacheEvict(value = "userRatings", key = "#userId")
     public void deleteRating(String userId, Long animeId) {
         log.info("Deleting rating for anime {} by user {}", animeId, userId);
-        ratingRepository.deleteByUserIdAndAnimeId(userId, animeId);
+        ratingRepository.findForUpdate(userId, animeId).ifPresent(rating -> {
+            ratingRepository.delete(rating);
+            aggregateService.recordChange(animeId, AnimeRatingAggregateService.Snapshot.of(rating), null);
+            leaderboardService.scheduleRefresh(animeId);
+            ratingMatrixService.recordChange(userId, animeId, null);
+            reviewVoteService.deleteVotes(animeId, userId);
+            catalogIdOf(animeId).ifPresent(catalogId ->
+                    outboxService.enqueue(exchange, routingKey, mapper.toDeleteEvent(userId, catalogId)));
+        });
+        userRatingCache.evict(userId, animeId);
     }
 
     // Check if user has rated anime
@@ -119,6 +270,44 @@ public class UserAnimeRatingService {
         return ratingRepository.existsByUserIdAndAnimeId(userId, animeId);
     }
 
+    private static Class<?> cursorSortType(String sortBy) {
+        Class<?> sortType = CURSOR_SORT_KEYS.get(sortBy);
+        if (sortType == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination supports sortBy " + CURSOR_SORT_KEYS.keySet());
+        }
+        return sortType;
+    }
+
+    // User input to MySQL boolean mode: every word required (+word), quoted text as a required phrase
+    static String toBooleanQuery(String input) {
+        if (input == null) {
+            return "";
+        }
+
+        List<String> terms = new ArrayList<>();
+        Matcher phrases = QUOTED_PHRASE.matcher(input);
+        while (phrases.find()) {
+            List<String> tokens = reviewTokens(phrases.group(1));
+            if (tokens.size() == 1) {
+                terms.add("+" + tokens.get(0));
+            } else if (!tokens.isEmpty()) {
+                terms.add("+\"" + String.join(" ", tokens) + "\"");
+            }
+        }
+        reviewTokens(phrases.replaceAll(" ")).forEach(token -> terms.add("+" + token));
+        return String.join(" ", terms);
+    }
+
+    // Words as the FULLTEXT parser indexes them: only the boolean operators are removed and
+    // apostrophes inside a word stay, so "don't" is searched as don't rather than dont
+    private static List<String> reviewTokens(String text) {
+        String apostrophes = text.replace('\u2019', '\'').replace('`', '\'');
+        String cleaned = BOOLEAN_OPERATORS.matcher(apostrophes.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        cleaned = STRAY_APOSTROPHES.matcher(cleaned).replaceAll(" ").strip();
+        return cleaned.isEmpty() ? List.of() : List.of(WHITESPACE.split(cleaned));
+    }
+
     //  Ensure anime exists
     private void ensureAnimeExists(Long animeId) {
         if (!animeRepository.existsByMalId(animeId)) {
@@ -130,4 +319,11 @@ public class UserAnimeRatingService {
             }
         }
     }
+
+    // Catalog id of the anime with this MAL ID, which is what list events and recommendation-service key on
+    private Optional<Long> catalogIdOf(Long malId) {
+        return animeRepository.findIdsByMalIdIn(List.of(malId)).stream()
+                .map(row -> (Long) row[1])
+                .findFirst();
+    }
 }
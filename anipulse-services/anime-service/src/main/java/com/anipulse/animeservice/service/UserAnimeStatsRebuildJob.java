@@ -0,0 +1,48 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.repository.AnimeRatingAggregateRepository;
+import com.anipulse.animeservice.repository.AnimeRatingHistogramRepository;
+import com.anipulse.animeservice.repository.UserAnimeStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the maintained aggregate tables (tbl_user_anime_stats, tbl_anime_rating_aggregate,
+ * tbl_anime_rating_histogram)
+ * from their source tables when they are empty (first deployment),
+ * or on every start when app.stats.rebuild-on-startup is set
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserAnimeStatsRebuildJob implements ApplicationRunner {
+
+    private final UserAnimeStatsService statsService;
+    private final UserAnimeStatsRepository statsRepository;
+    private final AnimeRatingAggregateService ratingAggregateService;
+    private final AnimeRatingAggregateRepository ratingAggregateRepository;
+    private final AnimeRatingHistogramRepository histogramRepository;
+
+    @Value("${app.stats.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup || statsRepository.count() == 0) {
+            log.info("Rebuilding user statistics from tbl_user_anime_list");
+            statsService.rebuildAll();
+        }
+        if (rebuildOnStartup || ratingAggregateRepository.count() == 0) {
+            log.info("Rebuilding anime rating aggregates from tbl_user_anime_rating");
+            ratingAggregateService.rebuildAll();
+        }
+        if (rebuildOnStartup || histogramRepository.count() == 0) {
+            log.info("Rebuilding anime rating histograms from tbl_user_anime_rating");
+            ratingAggregateService.rebuildHistograms();
+        }
+    }
+}
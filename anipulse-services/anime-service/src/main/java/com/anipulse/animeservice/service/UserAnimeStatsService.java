@@ -0,0 +1,143 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.UserAnimeStatsDTO;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.UserAnimeStats;
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.repository.UserAnimeStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains tbl_user_anime_stats.
+ * Writers capture a {@link Snapshot} of each entry before and after their change and hand both to
+ * {@link #recordChanges}, which folds them into one delta upsert inside the writer's transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAnimeStatsService {
+
+    private final UserAnimeStatsRepository statsRepository;
+
+    /**
+     * The parts of a list entry the statistics depend on
+     */
+    public record Snapshot(WatchStatus status, int progress, Double rating) {
+
+        public static Snapshot of(UserAnimeList entry) {
+            if (entry == null) {
+                return null;
+            }
+            return new Snapshot(entry.getWatchStatus(),
+                    entry.getProgress() != null ? entry.getProgress() : 0,
+                    entry.getRating());
+        }
+    }
+
+    /**
+     * Apply the change of one entry, before is null for an insert and after is null for a delete
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(String userId, Snapshot before, Snapshot after) {
+        recordChanges(userId,
+                before != null ? List.of(before) : List.of(),
+                after != null ? List.of(after) : List.of());
+    }
+
+    /**
+     * Subtract the removed snapshots and add the added ones in a single statement
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(String userId, Collection<Snapshot> removed, Collection<Snapshot> added) {
+        Delta delta = new Delta();
+        removed.forEach(snapshot -> delta.add(snapshot, -1));
+        added.forEach(snapshot -> delta.add(snapshot, 1));
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        statsRepository.applyDelta(userId,
+                delta.counts[WatchStatus.WATCHING.ordinal()],
+                delta.counts[WatchStatus.COMPLETED.ordinal()],
+                delta.counts[WatchStatus.ON_HOLD.ordinal()],
+                delta.counts[WatchStatus.DROPPED.ordinal()],
+                delta.counts[WatchStatus.PLAN_TO_WATCH.ordinal()],
+                delta.episodes, delta.ratingSum, delta.ratingCount);
+    }
+
+    /**
+     * Recompute one user's row from the list table, for writers that do not know the previous values
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalculate(String userId) {
+        // Delete first so a user whose list is now empty is left without a row
+        statsRepository.deleteByUserId(userId);
+        statsRepository.rebuildUser(userId);
+    }
+
+    /**
+     * Recompute all users with one GROUP BY pass
+     */
+    @Transactional
+    public int rebuildAll() {
+        long start = System.currentTimeMillis();
+        int upserted = statsRepository.rebuildAll();
+        int orphaned = statsRepository.deleteOrphaned();
+        log.info("Rebuilt user statistics in {} ms ({} rows affected, {} orphaned rows removed)",
+                System.currentTimeMillis() - start, upserted, orphaned);
+        return upserted;
+    }
+
+    @Transactional(readOnly = true)
+    public UserAnimeStatsDTO getStats(String userId) {
+        UserAnimeStats stats = statsRepository.findById(userId)
+                .orElseGet(() -> UserAnimeStats.builder().userId(userId).build());
+
+        return UserAnimeStatsDTO.builder()
+                .totalAnime(stats.getWatching() + stats.getCompleted() + stats.getOnHold()
+                        + stats.getDropped() + stats.getPlanToWatch())
+                .watching(stats.getWatching())
+                .completed(stats.getCompleted())
+                .onHold(stats.getOnHold())
+                .dropped(stats.getDropped())
+                .planToWatch(stats.getPlanToWatch())
+                .totalEpisodesWatched(stats.getTotalEpisodes())
+                .meanRating(stats.getRatingCount() > 0 ? stats.getRatingSum() / stats.getRatingCount() : null)
+                .build();
+    }
+
+    private static final class Delta {
+        private final long[] counts = new long[WatchStatus.values().length];
+        private long episodes;
+        private double ratingSum;
+        private long ratingCount;
+
+        private void add(Snapshot snapshot, int sign) {
+            if (snapshot == null) {
+                return;
+            }
+            counts[snapshot.status().ordinal()] += sign;
+            episodes += (long) sign * snapshot.progress();
+            if (snapshot.rating() != null) {
+                ratingSum += sign * snapshot.rating();
+                ratingCount += sign;
+            }
+        }
+
+        private boolean isEmpty() {
+            for (long count : counts) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return episodes == 0 && ratingSum == 0 && ratingCount == 0;
+        }
+    }
+}
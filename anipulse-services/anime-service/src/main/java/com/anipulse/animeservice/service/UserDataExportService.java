@@ -0,0 +1,203 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.UserAnimeListDTO;
+import com.anipulse.animeservice.dto.UserAnimeRatingDTO;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.UserAnimeRating;
+import com.anipulse.animeservice.mapper.UserAnimeListMapper;
+import com.anipulse.animeservice.mapper.UserAnimeRatingMapper;
+import com.anipulse.animeservice.repository.UserAnimeListRepository;
+import com.anipulse.animeservice.repository.UserAnimeRatingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's full list or ratings as NDJSON or CSV.
+ * Rows are read through a forward-only streaming result set and written out one at a time;
+ * the persistence context is cleared as it goes, so memory use does not grow with the size of the list.
+ */
+@Service
+@Slf4j
+public class UserDataExportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final int CLEAR_INTERVAL = 200;
+
+    private static final List<String> LIST_COLUMNS = List.of(
+            "animeId", "animeTitle", "animeTitleEnglish", "totalEpisodes", "watchStatus", "progress",
+            "rating", "notes", "addedAt", "updatedAt", "completedAt");
+
+    private static final List<String> RATING_COLUMNS = List.of(
+            "animeId", "animeTitle", "storyRating", "animationRating", "characterRating", "overallRating",
+            "reviewText", "createdAt", "ratedAt");
+
+    private final UserAnimeListRepository userAnimeListRepository;
+    private final UserAnimeRatingRepository ratingRepository;
+    private final UserAnimeListMapper listMapper;
+    private final UserAnimeRatingMapper ratingMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserDataExportService(UserAnimeListRepository userAnimeListRepository,
+                                 UserAnimeRatingRepository ratingRepository,
+                                 UserAnimeListMapper listMapper,
+                                 UserAnimeRatingMapper ratingMapper,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 PlatformTransactionManager transactionManager) {
+        this.userAnimeListRepository = userAnimeListRepository;
+        this.ratingRepository = ratingRepository;
+        this.listMapper = listMapper;
+        this.ratingMapper = ratingMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportList(String userId, Format format, boolean gzip) {
+        return output -> export("list", userId, output, format, gzip, LIST_COLUMNS,
+                () -> userAnimeListRepository.streamByUserId(userId),
+                // Arrays.asList: CSV rows contain nulls
+                entry -> {
+                    UserAnimeListDTO dto = listMapper.toDTO(entry);
+                    return format == Format.NDJSON ? dto : Arrays.asList(
+                            dto.getAnimeId(), dto.getAnimeTitle(), dto.getAnimeTitleEnglish(), dto.getTotalEpisodes(),
+                            dto.getWatchStatus(), dto.getProgress(), dto.getRating(), dto.getNotes(),
+                            dto.getAddedAt(), dto.getUpdatedAt(), dto.getCompletedAt());
+                });
+    }
+
+    public StreamingResponseBody exportRatings(String userId, Format format, boolean gzip) {
+        return output -> export("ratings", userId, output, format, gzip, RATING_COLUMNS,
+                () -> ratingRepository.streamByUserId(userId),
+                rating -> {
+                    UserAnimeRatingDTO dto = ratingMapper.toDTO(rating);
+                    return format == Format.NDJSON ? dto : Arrays.asList(
+                            dto.getAnimeId(), dto.getAnimeTitle(), dto.getStoryRating(), dto.getAnimationRating(),
+                            dto.getCharacterRating(), dto.getOverallRating(), dto.getReviewText(),
+                            dto.getCreatedAt(), dto.getRatedAt());
+                });
+    }
+
+    /**
+     * Runs on the MVC async thread once the response is committed, so the transaction is opened here
+     */
+    private <E> void export(String kind, String userId, OutputStream output, Format format, boolean gzip,
+                            List<String> columns, Supplier<Stream<E>> rows,
+                            Function<E, Object> toRecord) throws IOException {
+        long start = System.currentTimeMillis();
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(output, 8192) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzipStream != null ? gzipStream : output, StandardCharsets.UTF_8), 16 * 1024);
+        ObjectWriter jsonWriter = objectMapper.writer();
+
+        if (format == Format.CSV) {
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        Long count;
+        try {
+            count = readOnlyTransaction.execute(status -> {
+                long written = 0;
+                try (Stream<E> stream = rows.get()) {
+                    for (E entity : (Iterable<E>) stream::iterator) {
+                        Object record = toRecord.apply(entity);
+                        if (format == Format.NDJSON) {
+                            writer.write(jsonWriter.writeValueAsString(record));
+                            writer.write('\n');
+                        } else {
+                            writeCsvRow(writer, (List<?>) record);
+                        }
+                        // Classic scroll-and-clear: keeps the persistence context (rows and joined anime) bounded
+                        if (++written % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            log.info("Export of {} for user {} aborted: {}", kind, userId, e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+
+        meterRegistry.counter("anime.export.rows", "kind", kind, "format", format.name().toLowerCase())
+                .increment(count != null ? count : 0);
+        log.info("Exported {} {} rows for user {} as {} in {} ms",
+                count, kind, userId, format, System.currentTimeMillis() - start);
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting, plus a leading quote for values a spreadsheet would evaluate as a formula
+    private static String escapeCsv(String value) {
+        String escaped = value;
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 && !isNumber(value)) {
+            escaped = "'" + value;
+        }
+        if (escaped.indexOf(',') >= 0 || escaped.indexOf('"') >= 0
+                || escaped.indexOf('\n') >= 0 || escaped.indexOf('\r') >= 0) {
+            return '"' + escaped.replace("\"", "\"\"") + '"';
+        }
+        return escaped;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.anipulse.animeservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Invalidates every cached view of one user's list in a single pass.
+ * The paged caches are keyed "userId-page" / "userId_status_page", which {@code @CacheEvict(key = "#userId")}
+ * never matched, so those are cleaned by key pattern on the Redis side.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserListCacheEvictor {
+
+    private static final List<String> EXACT_KEY_CACHES = List.of("userAnimeIds", "userAnimeMembership");
+    private static final List<String> PAGED_CACHES = List.of("userAnimeList", "userAnimeListByStatus");
+    private static final Pattern GLOB_SPECIAL = Pattern.compile("([*?\\[\\]\\\\])");
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Evict after the surrounding transaction commits, or right away when there is none
+     */
+    public void evictUser(String userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(userId);
+                }
+            });
+        } else {
+            doEvict(userId);
+        }
+    }
+
+    private void doEvict(String userId) {
+        for (String cacheName : EXACT_KEY_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(userId);
+            }
+        }
+
+        String escaped = GLOB_SPECIAL.matcher(userId).replaceAll(Matcher.quoteReplacement("\\") + "$1");
+        for (String cacheName : PAGED_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null && cache.getNativeCache() instanceof RedisCacheWriter writer) {
+                String prefix = CacheKeyPrefix.simple().compute(cacheName) + escaped;
+                writer.clean(cacheName, (prefix + "-*").getBytes(StandardCharsets.UTF_8));
+                writer.clean(cacheName, (prefix + "_*").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        log.debug("Evicted cached list views for user {}", userId);
+    }
+}
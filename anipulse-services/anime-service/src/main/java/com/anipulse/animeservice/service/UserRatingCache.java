@@ -0,0 +1,223 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.UserAnimeRatingDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * One Redis key per (user, anime) rating, read for a whole page of cards with a single MGET.
+ * Anime the user has not rated are cached as a marker too, so unrated cards do not reach the database
+ * on every page view. Misses are loaded together and written back in one script.
+ * <p>
+ * Every eviction bumps a per-user version. The MGET reads the version with the entries, and the write-back
+ * only happens while the version is unchanged. Otherwise a load that read the database just before a rating
+ * was saved could cache the old value (or NOT_RATED) after the save's eviction, and it would stay for the TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRatingCache {
+
+    private static final String KEY_PREFIX = "userRating:";
+    private static final String VERSION_KEY_PREFIX = "userRatingVersion:";
+    private static final String NOT_RATED = "-";
+
+    // KEYS[1] version key, KEYS[2..] entries; ARGV[1] version read with the entries, ARGV[2] TTL ms, ARGV[3..] values
+    private static final RedisScript<Long> WRITE_BACK_IF_UNCHANGED = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then
+                return 0
+            end
+            for i = 2, #KEYS do
+                redis.call('SET', KEYS[i], ARGV[i + 1], 'PX', ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * A cached rating to drop
+     */
+    public record Entry(String userId, Long animeId) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.user-rating-cache.ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * The user's ratings of the given anime, unrated anime are left out.
+     * loader receives the anime IDs that were not cached and returns the ratings found for them.
+     */
+    public Map<Long, UserAnimeRatingDTO> getAll(String userId, Collection<Long> animeIds,
+                                                Function<List<Long>, List<UserAnimeRatingDTO>> loader) {
+        List<Long> ids = animeIds.stream().distinct().toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        List<String> keys = new ArrayList<>(ids.size() + 1);
+        keys.add(versionKey(userId));
+        ids.forEach(animeId -> keys.add(key(userId, animeId)));
+        List<String> cached = multiGet(keys);
+        // Written back only if no eviction for the user happened since this read; without it, not at all
+        String version = cached != null ? Objects.requireNonNullElse(cached.get(0), "") : null;
+
+        Map<Long, UserAnimeRatingDTO> result = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String value = cached != null ? cached.get(i + 1) : null;
+            if (value == null) {
+                misses.add(ids.get(i));
+            } else if (!NOT_RATED.equals(value)) {
+                UserAnimeRatingDTO rating = deserialize(value);
+                if (rating != null) {
+                    result.put(ids.get(i), rating);
+                } else {
+                    misses.add(ids.get(i));
+                }
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, UserAnimeRatingDTO> loaded = new LinkedHashMap<>();
+            loader.apply(misses).forEach(rating -> loaded.put(rating.getAnimeId(), rating));
+            result.putAll(loaded);
+            if (version != null) {
+                writeBack(userId, version, misses, loaded);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop one cached rating after the surrounding transaction commits, or right away when there is none
+     */
+    public void evict(String userId, Long animeId) {
+        evictAll(List.of(new Entry(userId, animeId)));
+    }
+
+    /**
+     * Drop cached ratings, in one pipeline, after the surrounding transaction commits or right away
+     */
+    public void evictAll(Collection<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry> copy = List.copyOf(entries);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(copy);
+                }
+            });
+        } else {
+            delete(copy);
+        }
+    }
+
+    private List<String> multiGet(List<String> keys) {
+        try {
+            return redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            // Redis trouble degrades to the database query, as the cache manager does
+            log.warn("Rating cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeBack(String userId, String version, List<Long> animeIds, Map<Long, UserAnimeRatingDTO> loaded) {
+        List<String> keys = new ArrayList<>(animeIds.size() + 1);
+        List<String> args = new ArrayList<>(animeIds.size() + 2);
+        keys.add(versionKey(userId));
+        args.add(version);
+        args.add(Long.toString(ttl.toMillis()));
+        for (Long animeId : animeIds) {
+            UserAnimeRatingDTO rating = loaded.get(animeId);
+            String value = rating != null ? serialize(rating) : NOT_RATED;
+            if (value != null) {
+                keys.add(key(userId, animeId));
+                args.add(value);
+            }
+        }
+
+        try {
+            Long written = redisTemplate.execute(WRITE_BACK_IF_UNCHANGED, keys, args.toArray());
+            if (written == null || written == 0) {
+                log.debug("Skipped rating cache write for user {}, evicted while loading", userId);
+            }
+        } catch (Exception e) {
+            log.warn("Rating cache write failed: {}", e.getMessage());
+        }
+    }
+
+    // Bump the version before deleting, so a load that read the old version cannot write the entry back
+    private void delete(List<Entry> entries) {
+        long versionTtl = ttl.toMillis();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String userId : entries.stream().map(Entry::userId).distinct().toList()) {
+                    byte[] versionKey = bytes(versionKey(userId));
+                    connection.stringCommands().incr(versionKey);
+                    connection.keyCommands().pExpire(versionKey, versionTtl);
+                }
+                connection.keyCommands().del(entries.stream()
+                        .map(entry -> bytes(key(entry.userId(), entry.animeId())))
+                        .toArray(byte[][]::new));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Rating cache eviction failed for {} entries: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private String serialize(UserAnimeRatingDTO rating) {
+        try {
+            return objectMapper.writeValueAsString(rating);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not cache rating of anime {}: {}", rating.getAnimeId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private UserAnimeRatingDTO deserialize(String value) {
+        try {
+            return objectMapper.readValue(value, UserAnimeRatingDTO.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String key(String userId, Long animeId) {
+        return KEY_PREFIX + userId + ":" + animeId;
+    }
+
+    private static String versionKey(String userId) {
+        return VERSION_KEY_PREFIX + userId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -30,4 +30,8 @@ public class JikanRateLimiter {
     public boolean tryAcquire() {
         return bucket.tryConsume(1);
     }
+
+    public long getAvailableTokens() {
+        return bucket.getAvailableTokens();
+    }
 }
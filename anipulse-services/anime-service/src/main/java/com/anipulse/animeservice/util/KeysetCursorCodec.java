@@ -0,0 +1,124 @@
+package com.anipulse.animeservice.util;
+
+import com.anipulse.animeservice.dto.CursorPageDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Turns keyset scroll positions into opaque, URL-safe continuation tokens and back.
+ * A token records the sort it was issued for, so it cannot be replayed against a different ordering.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetCursorCodec {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Page size clamped to 1..MAX_PAGE_SIZE
+     */
+    public static Limit limit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Keys a position holds: the sort key followed by the identifier tie-breakers, in sort order
+     */
+    public static Map<String, Class<?>> keyTypes(String sortKey, Class<?> sortType,
+                                                 String idKey1, Class<?> idType1,
+                                                 String idKey2, Class<?> idType2) {
+        Map<String, Class<?>> keyTypes = new LinkedHashMap<>();
+        keyTypes.put(sortKey, sortType);
+        keyTypes.put(idKey1, idType1);
+        keyTypes.put(idKey2, idType2);
+        return keyTypes;
+    }
+
+    public String encode(String sortKey, Sort.Direction direction, KeysetScrollPosition position) {
+        ObjectNode token = objectMapper.createObjectNode();
+        token.put("s", sortKey);
+        token.put("d", direction.name());
+        token.set("k", objectMapper.valueToTree(position.getKeys()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    /**
+     * @param keyTypes every key the position holds (sort key and tie-breakers) with its Java type
+     * @return the initial position when the cursor is blank
+     */
+    public ScrollPosition decode(String cursor, String sortKey, Sort.Direction direction,
+                                 Map<String, Class<?>> keyTypes) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            JsonNode token = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+            if (!sortKey.equals(token.path("s").asText()) || !direction.name().equals(token.path("d").asText())) {
+                throw invalid("cursor was issued for a different sort order");
+            }
+
+            JsonNode keys = token.path("k");
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<String, Class<?>> key : keyTypes.entrySet()) {
+                JsonNode value = keys.get(key.getKey());
+                if (value == null || value.isNull()) {
+                    throw invalid("cursor is missing " + key.getKey());
+                }
+                values.put(key.getKey(), objectMapper.treeToValue(value, key.getValue()));
+            }
+            return ScrollPosition.forward(values);
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw invalid("malformed cursor");
+        }
+    }
+
+    /**
+     * Map a window to its DTO, with a continuation token pointing after its last element
+     */
+    public <E, D> CursorPageDTO<D> toPage(Window<E> window, Function<E, D> mapper,
+                                          String sortKey, Sort.Direction direction, Long totalElements) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()
+                && window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position) {
+            nextCursor = encode(sortKey, direction, position);
+        }
+
+        return CursorPageDTO.<D>builder()
+                .content(window.stream().map(mapper).toList())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    private static ResponseStatusException invalid(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + reason);
+    }
+}
@@ -0,0 +1,239 @@
+package com.anipulse.animeservice.util;
+
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for MyAnimeList list exports.
+ * Supports the XML export from the MAL website and the JSON shape of the MAL API
+ * (<code>{"data": [{"node": {...}, "list_status": {...}}]}</code> or a plain array of entries).
+ * Entries are handed to the consumer one at a time, the document is never held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class MalListExportParser {
+
+    public enum Format {
+        XML,
+        JSON
+    }
+
+    /**
+     * One parsed list entry, rating is null when the user left the title unscored
+     */
+    public record MalListEntry(Long malId, WatchStatus status, int progress, Double rating,
+                               String notes, LocalDate finishDate) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return number of entries read; entries without a MAL ID or a known status are counted in skipped
+     */
+    public ParseResult parse(InputStream input, Format format, Consumer<MalListEntry> consumer) throws IOException {
+        return format == Format.XML ? parseXml(input, consumer) : parseJson(input, consumer);
+    }
+
+    public record ParseResult(int entries, int skipped) {
+    }
+
+    private ParseResult parseXml(InputStream input, Consumer<MalListEntry> consumer) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Uploaded documents are untrusted: no DTDs, no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        int entries = 0;
+        int skipped = 0;
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(input);
+            try {
+                EntryFields fields = null;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if ("anime".equals(name)) {
+                            fields = new EntryFields();
+                        } else if (fields != null) {
+                            switch (name) {
+                                case "series_animedb_id" -> fields.malId = reader.getElementText();
+                                case "my_status" -> fields.status = reader.getElementText();
+                                case "my_watched_episodes" -> fields.progress = reader.getElementText();
+                                case "my_score" -> fields.score = reader.getElementText();
+                                case "my_comments" -> fields.notes = reader.getElementText();
+                                case "my_finish_date" -> fields.finishDate = reader.getElementText();
+                                default -> {
+                                    // Other MAL columns (tags, rewatch counts, ...) are not tracked here
+                                }
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT
+                            && fields != null && "anime".equals(reader.getLocalName())) {
+                        MalListEntry entry = fields.toEntry();
+                        if (entry != null) {
+                            entries++;
+                            consumer.accept(entry);
+                        } else {
+                            skipped++;
+                        }
+                        fields = null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed MAL XML export: " + e.getMessage(), e);
+        }
+        return new ParseResult(entries, skipped);
+    }
+
+    private ParseResult parseJson(InputStream input, Consumer<MalListEntry> consumer) throws IOException {
+        int entries = 0;
+        int skipped = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                // Advance to the "data" array of an API response
+                while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    token = parser.nextToken();
+                    if ("data".equals(field) && token == JsonToken.START_ARRAY) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of list entries");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                // Only one entry is materialized at a time
+                JsonNode node = objectMapper.readTree(parser);
+                MalListEntry entry = fromJson(node);
+                if (entry != null) {
+                    entries++;
+                    consumer.accept(entry);
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        return new ParseResult(entries, skipped);
+    }
+
+    private static MalListEntry fromJson(JsonNode node) {
+        JsonNode anime = node.has("node") ? node.get("node") : node;
+        JsonNode status = node.has("list_status") ? node.get("list_status") : node;
+
+        EntryFields fields = new EntryFields();
+        fields.malId = firstText(anime, "id", "anime_id", "mal_id");
+        fields.status = firstText(status, "status");
+        fields.progress = firstText(status, "num_episodes_watched", "num_watched_episodes", "progress");
+        fields.score = firstText(status, "score");
+        fields.notes = firstText(status, "comments", "notes");
+        fields.finishDate = firstText(status, "finish_date");
+        return fields.toEntry();
+    }
+
+    private static String firstText(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps both the XML labels ("Plan to Watch", "On-Hold") and the API values ("plan_to_watch")
+     * as well as the numeric codes of older exports
+     */
+    static WatchStatus toWatchStatus(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_');
+        return switch (normalized) {
+            case "WATCHING", "1" -> WatchStatus.WATCHING;
+            case "COMPLETED", "2" -> WatchStatus.COMPLETED;
+            case "ON_HOLD", "3" -> WatchStatus.ON_HOLD;
+            case "DROPPED", "4" -> WatchStatus.DROPPED;
+            case "PLAN_TO_WATCH", "6" -> WatchStatus.PLAN_TO_WATCH;
+            default -> null;
+        };
+    }
+
+    private static final class EntryFields {
+        private String malId;
+        private String status;
+        private String progress;
+        private String score;
+        private String notes;
+        private String finishDate;
+
+        private MalListEntry toEntry() {
+            Long id = parseLong(malId);
+            WatchStatus watchStatus = toWatchStatus(status);
+            if (id == null || id <= 0 || watchStatus == null) {
+                return null;
+            }
+
+            Long episodes = parseLong(progress);
+            Long rawScore = parseLong(score);
+            // MAL uses 0 for "not scored", the list only accepts 1..10
+            Double rating = rawScore != null && rawScore >= 1 && rawScore <= 10 ? rawScore.doubleValue() : null;
+            String trimmedNotes = notes == null || notes.isBlank() ? null : notes.strip();
+            if (trimmedNotes != null && trimmedNotes.length() > 5000) {
+                trimmedNotes = trimmedNotes.substring(0, 5000);
+            }
+
+            return new MalListEntry(id, watchStatus,
+                    episodes != null && episodes > 0 ? episodes.intValue() : 0,
+                    rating, trimmedNotes, parseDate(finishDate));
+        }
+
+        private static Long parseLong(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static LocalDate parseDate(String value) {
+            // The XML export writes 0000-00-00 for "no date"
+            if (value == null || value.isBlank() || value.startsWith("0000")) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.anipulse.animeservice.util;
+
+import com.anipulse.animeservice.config.AnimeCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Size-bounded, TTL-based negative cache for MAL IDs.
+ * Keeps bot-scanned or mistyped IDs from spending a JIKAN token on every request.
+ * A confirmed 404 is remembered much longer than a transient fallback.
+ */
+@Component
+public class NegativeAnimeCache {
+
+    public enum Kind {
+        NOT_FOUND,
+        TRANSIENT
+    }
+
+    private record NegativeEntry(Kind kind, long expiresAtNanos) {
+    }
+
+    private final AnimeCacheProperties.Negative properties;
+    private final Map<Long, NegativeEntry> entries;
+
+    private final Counter hitNotFound;
+    private final Counter hitTransient;
+    private final Counter miss;
+    private final Counter evictions;
+    private final MeterRegistry meterRegistry;
+
+    public NegativeAnimeCache(AnimeCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.properties = cacheProperties.getNegative();
+        this.meterRegistry = meterRegistry;
+
+        this.hitNotFound = meterRegistry.counter("anime.negative_cache.lookups", "result", "hit", "kind", "not_found");
+        this.hitTransient = meterRegistry.counter("anime.negative_cache.lookups", "result", "hit", "kind", "transient");
+        this.miss = meterRegistry.counter("anime.negative_cache.lookups", "result", "miss", "kind", "none");
+        this.evictions = meterRegistry.counter("anime.negative_cache.evictions");
+
+        int maxSize = properties.getMaxSize();
+        // Access-ordered map gives LRU eviction once the size bound is reached
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NegativeEntry> eldest) {
+                boolean evict = size() > maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+
+        Gauge.builder("anime.negative_cache.size", this, NegativeAnimeCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the reason the MAL ID is currently negatively cached, if any
+     */
+    public Optional<Kind> lookup(Long malId) {
+        NegativeEntry entry;
+        synchronized (entries) {
+            entry = entries.get(malId);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                entries.remove(malId);
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            miss.increment();
+            return Optional.empty();
+        }
+
+        (entry.kind() == Kind.NOT_FOUND ? hitNotFound : hitTransient).increment();
+        return Optional.of(entry.kind());
+    }
+
+    public void put(Long malId, Kind kind) {
+        Duration ttl = kind == Kind.NOT_FOUND ? properties.getNotFoundTtl() : properties.getTransientTtl();
+        synchronized (entries) {
+            entries.put(malId, new NegativeEntry(kind, System.nanoTime() + ttl.toNanos()));
+        }
+        meterRegistry.counter("anime.negative_cache.puts", "kind", kind.name().toLowerCase()).increment();
+    }
+
+    /**
+     * Forget a MAL ID once its anime has been saved, so it is not answered as missing until the entry expires
+     */
+    public void invalidate(Long malId) {
+        synchronized (entries) {
+            entries.remove(malId);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
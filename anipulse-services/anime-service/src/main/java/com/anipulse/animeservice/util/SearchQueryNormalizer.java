@@ -0,0 +1,44 @@
+package com.anipulse.animeservice.util;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form for free-text search input, used for cache keys and upstream calls alike
+ * so that "Naruto", "naruto " and "NARUTO" resolve to the same entry.
+ */
+public final class SearchQueryNormalizer {
+
+    private static final Pattern APOSTROPHES = Pattern.compile("['’`]");
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{P}\\p{S}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private SearchQueryNormalizer() {
+    }
+
+    /**
+     * NFKC normalization, case folding, punctuation removal and whitespace collapsing
+     */
+    public static String canonicalize(String input) {
+        if (input == null) {
+            return "";
+        }
+
+        String value = Normalizer.normalize(input, Normalizer.Form.NFKC);
+        // Upper then lower folds special cases such as the German sharp s
+        value = value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        value = APOSTROPHES.matcher(value).replaceAll("");
+        value = PUNCTUATION.matcher(value).replaceAll(" ");
+        return WHITESPACE.matcher(value).replaceAll(" ").trim();
+    }
+
+    /**
+     * Split an input into canonical tokens
+     */
+    public static List<String> tokenize(String input) {
+        String canonical = canonicalize(input);
+        return canonical.isEmpty() ? List.of() : List.of(canonical.split(" "));
+    }
+}
@@ -0,0 +1,236 @@
+package com.anipulse.animeservice.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable sparse user x anime matrix of overall ratings (1-10), held twice in primitive arrays:
+ * CSR (row per user) to walk a user's ratings and CSC (column per anime) to walk an anime's raters.
+ * A million ratings take about 10 MB. Changes are applied by building a new matrix, see {@link Builder}.
+ */
+public final class SparseRatingMatrix {
+
+    /**
+     * A user sharing at least one rated anime with the query user
+     */
+    public record Similarity(String userId, int commonRatings, double meanAbsoluteDifference) {
+    }
+
+    @FunctionalInterface
+    public interface RatingConsumer {
+        void accept(String userId, long animeId, int rating);
+    }
+
+    private final String[] userIds;
+    private final Map<String, Integer> userIndex;
+    private final long[] animeIds;
+
+    // CSR: ratings of user u are rowCols/rowValues[rowPtr[u] .. rowPtr[u + 1])
+    private final int[] rowPtr;
+    private final int[] rowCols;
+    private final byte[] rowValues;
+
+    // CSC: raters of anime a are colRows/colValues[colPtr[a] .. colPtr[a + 1])
+    private final int[] colPtr;
+    private final int[] colRows;
+    private final byte[] colValues;
+
+    private SparseRatingMatrix(String[] userIds, Map<String, Integer> userIndex, long[] animeIds,
+                               int[] users, int[] anime, byte[] values, int size) {
+        this.userIds = userIds;
+        this.userIndex = userIndex;
+        this.animeIds = animeIds;
+
+        this.rowPtr = new int[userIds.length + 1];
+        this.rowCols = new int[size];
+        this.rowValues = new byte[size];
+        this.colPtr = new int[animeIds.length + 1];
+        this.colRows = new int[size];
+        this.colValues = new byte[size];
+
+        // Two counting sorts over the coordinate lists, O(ratings + users + anime)
+        for (int i = 0; i < size; i++) {
+            rowPtr[users[i] + 1]++;
+            colPtr[anime[i] + 1]++;
+        }
+        for (int u = 0; u < userIds.length; u++) {
+            rowPtr[u + 1] += rowPtr[u];
+        }
+        for (int a = 0; a < animeIds.length; a++) {
+            colPtr[a + 1] += colPtr[a];
+        }
+
+        int[] rowNext = Arrays.copyOf(rowPtr, userIds.length);
+        int[] colNext = Arrays.copyOf(colPtr, animeIds.length);
+        for (int i = 0; i < size; i++) {
+            int r = rowNext[users[i]]++;
+            rowCols[r] = anime[i];
+            rowValues[r] = values[i];
+            int c = colNext[anime[i]]++;
+            colRows[c] = users[i];
+            colValues[c] = values[i];
+        }
+    }
+
+    public static Builder builder(int expectedRatings) {
+        return new Builder(expectedRatings);
+    }
+
+    public int ratingCount() {
+        return rowCols.length;
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int animeCount() {
+        return animeIds.length;
+    }
+
+    public void forEach(RatingConsumer consumer) {
+        for (int u = 0; u < userIds.length; u++) {
+            for (int p = rowPtr[u]; p < rowPtr[u + 1]; p++) {
+                consumer.accept(userIds[u], animeIds[rowCols[p]], rowValues[p]);
+            }
+        }
+    }
+
+    /**
+     * Users with at least minCommonRatings anime rated by both, closest first by mean absolute difference
+     * of the overall ratings (ties: more common ratings first). Walks the columns of the user's anime once
+     * and keeps the best k in a bounded heap, O(sum of those columns' sizes + candidates * log k).
+     */
+    public List<Similarity> mostSimilar(String userId, int minCommonRatings, int k) {
+        Integer self = userIndex.get(userId);
+        if (self == null || k <= 0) {
+            return List.of();
+        }
+
+        int[] common = new int[userIds.length];
+        int[] difference = new int[userIds.length];
+        int[] touched = new int[16];
+        int touchedCount = 0;
+
+        for (int p = rowPtr[self]; p < rowPtr[self + 1]; p++) {
+            int anime = rowCols[p];
+            int rating = rowValues[p];
+            for (int q = colPtr[anime]; q < colPtr[anime + 1]; q++) {
+                int other = colRows[q];
+                if (other == self) {
+                    continue;
+                }
+                if (common[other]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = other;
+                }
+                difference[other] += Math.abs(rating - colValues[q]);
+            }
+        }
+
+        // Head is the worst of the kept candidates
+        PriorityQueue<Integer> best = new PriorityQueue<>(k + 1,
+                (a, b) -> compareCloseness(b, a, common, difference));
+        int threshold = Math.max(1, minCommonRatings);
+        for (int i = 0; i < touchedCount; i++) {
+            int other = touched[i];
+            if (common[other] < threshold) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(other);
+            } else if (compareCloseness(other, best.peek(), common, difference) < 0) {
+                best.poll();
+                best.add(other);
+            }
+        }
+
+        List<Similarity> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int other = best.poll();
+            result.add(new Similarity(userIds[other], common[other], (double) difference[other] / common[other]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Negative when a is closer than b: smaller mean difference (compared without division), then more overlap
+    private static int compareCloseness(int a, int b, int[] common, int[] difference) {
+        int byMean = Long.compare((long) difference[a] * common[b], (long) difference[b] * common[a]);
+        if (byMean != 0) {
+            return byMean;
+        }
+        int byOverlap = Integer.compare(common[b], common[a]);
+        return byOverlap != 0 ? byOverlap : Integer.compare(a, b);
+    }
+
+    /**
+     * Collects (user, anime, rating) triples in growable primitive arrays, then sorts them into CSR/CSC
+     */
+    public static final class Builder {
+        private final Map<String, Integer> userIndex = new HashMap<>();
+        private final List<String> userIds = new ArrayList<>();
+        private final Map<Long, Integer> animeIndex = new HashMap<>();
+        private long[] animeIds = new long[1024];
+        private int[] users;
+        private int[] anime;
+        private byte[] values;
+        private int size;
+
+        private Builder(int expectedRatings) {
+            int capacity = Math.max(16, expectedRatings);
+            users = new int[capacity];
+            anime = new int[capacity];
+            values = new byte[capacity];
+        }
+
+        /**
+         * Each (user, anime) pair must be added at most once
+         */
+        public Builder add(String userId, long animeId, int rating) {
+            if (rating < 1 || rating > 10) {
+                throw new IllegalArgumentException("Rating must be between 1 and 10: " + rating);
+            }
+            if (size == users.length) {
+                int capacity = size * 2;
+                users = Arrays.copyOf(users, capacity);
+                anime = Arrays.copyOf(anime, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            Integer user = userIndex.get(userId);
+            if (user == null) {
+                user = userIds.size();
+                userIndex.put(userId, user);
+                userIds.add(userId);
+            }
+            Integer column = animeIndex.get(animeId);
+            if (column == null) {
+                column = animeIndex.size();
+                if (column == animeIds.length) {
+                    animeIds = Arrays.copyOf(animeIds, column * 2);
+                }
+                animeIds[column] = animeId;
+                animeIndex.put(animeId, column);
+            }
+
+            users[size] = user;
+            anime[size] = column;
+            values[size] = (byte) rating;
+            size++;
+            return this;
+        }
+
+        public SparseRatingMatrix build() {
+            return new SparseRatingMatrix(userIds.toArray(String[]::new), userIndex,
+                    Arrays.copyOf(animeIds, animeIndex.size()), users, anime, values, size);
+        }
+    }
+}
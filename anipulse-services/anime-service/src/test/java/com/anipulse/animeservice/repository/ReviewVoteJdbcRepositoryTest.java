@@ -0,0 +1,39 @@
+package com.anipulse.animeservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-vote insert results of {@link ReviewVoteJdbcRepository#insertVotes} from the JDBC batch update counts
+ */
+class ReviewVoteJdbcRepositoryTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ReviewVoteJdbcRepository repository = new ReviewVoteJdbcRepository(jdbcTemplate);
+
+    @Test
+    void rewrittenBatchesWithoutCountsAreReportedAsNew() {
+        when(jdbcTemplate.<ReviewVoteJdbcRepository.Vote>batchUpdate(anyString(), anyList(), anyInt(), any()))
+                .thenReturn(new int[][]{{1, 0, Statement.SUCCESS_NO_INFO}});
+
+        boolean[] inserted = repository.insertVotes(List.of(vote("voter-1"), vote("voter-2"), vote("voter-3")));
+
+        assertThat(inserted).containsExactly(true, false, true);
+    }
+
+    private static ReviewVoteJdbcRepository.Vote vote(String voterId) {
+        return new ReviewVoteJdbcRepository.Vote(20L, "author", voterId, true, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,147 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.dto.UserAnimeListDTO;
+import com.anipulse.animeservice.entity.Anime;
+import com.anipulse.animeservice.entity.AnimeGenre;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.mapper.UserAnimeListMapper;
+import com.anipulse.animeservice.service.UserAnimeListReadModel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A list page must cost the same number of SQL statements whatever its size:
+ * the row query (anime fetch-joined), the count query for offset pages, and one genre query.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:list-query-count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserAnimeListQueryCountTest {
+
+    private static final String USER_ID = "user-1";
+    private static final int ENTRIES = 30;
+
+    /**
+     * Only JPA and the read model: the application class would pull in Feign clients, caching and scheduling
+     */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Anime.class)
+    @EnableJpaRepositories(basePackageClasses = UserAnimeListRepository.class)
+    @Import({UserAnimeListReadModel.class, UserAnimeListMapper.class})
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserAnimeListRepository repository;
+
+    @Autowired
+    private UserAnimeListReadModel readModel;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        AnimeGenre action = entityManager.persist(AnimeGenre.builder().malGenreId(1L).name("Action").build());
+        AnimeGenre drama = entityManager.persist(AnimeGenre.builder().malGenreId(8L).name("Drama").build());
+        for (int i = 0; i < ENTRIES; i++) {
+            Anime anime = Anime.builder()
+                    .malId(1000L + i)
+                    .title("Anime " + i)
+                    .episodes(12)
+                    .build();
+            anime.getGenres().add(action);
+            if (i % 2 == 0) {
+                anime.getGenres().add(drama);
+            }
+            anime = entityManager.persist(anime);
+            entityManager.persist(UserAnimeList.builder()
+                    .userId(USER_ID)
+                    .animeId(anime.getId())
+                    .watchStatus(i % 3 == 0 ? WatchStatus.COMPLETED : WatchStatus.WATCHING)
+                    .progress(i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void pagedListReadIsRowsCountAndGenres(int pageSize) {
+        Page<UserAnimeList> page = repository.findByUserId(USER_ID, PageRequest.of(0, pageSize, Sort.by("progress")));
+        List<UserAnimeListDTO> dtos = render(page.getContent());
+
+        assertThat(dtos).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(ENTRIES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void keysetListReadIsRowsAndGenres(int pageSize) {
+        Window<UserAnimeList> window = repository.findByUserId(USER_ID, ScrollPosition.keyset(),
+                Sort.by("progress", "animeId"), Limit.of(pageSize));
+        List<UserAnimeListDTO> dtos = render(window.getContent());
+
+        assertThat(dtos).hasSize(pageSize);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void statusListReadIsRowsCountAndGenres(int pageSize) {
+        Page<UserAnimeList> page = repository.findByUserIdAndWatchStatus(USER_ID, WatchStatus.WATCHING,
+                PageRequest.of(0, pageSize, Sort.by("progress")));
+        List<UserAnimeListDTO> dtos = render(page.getContent());
+
+        assertThat(dtos).hasSize(pageSize);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    // Map the way the service does, touching everything a listing renders
+    private List<UserAnimeListDTO> render(List<UserAnimeList> rows) {
+        Function<UserAnimeList, UserAnimeListDTO> mapper = readModel.mapperFor(rows);
+        List<UserAnimeListDTO> dtos = rows.stream().map(mapper).toList();
+        dtos.forEach(dto -> {
+            assertThat(dto.getAnimeTitle()).startsWith("Anime ");
+            assertThat(dto.getGenres()).contains("Action");
+        });
+        return dtos;
+    }
+}
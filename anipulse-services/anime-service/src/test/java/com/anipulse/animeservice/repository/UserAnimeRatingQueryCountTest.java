@@ -0,0 +1,170 @@
+package com.anipulse.animeservice.repository;
+
+import com.anipulse.animeservice.dto.UserAnimeRatingDTO;
+import com.anipulse.animeservice.entity.Anime;
+import com.anipulse.animeservice.entity.UserAnimeRating;
+import com.anipulse.animeservice.mapper.UserAnimeRatingMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A rating listing must cost the same number of SQL statements whatever its size:
+ * the row query (anime fetch-joined) and, for offset pages, the count query.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:rating-query-count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class UserAnimeRatingQueryCountTest {
+
+    private static final String USER_ID = "user-1";
+    private static final int RATED_ANIME = 30;
+    private static final int FANS = 12;
+
+    /**
+     * Only JPA and the mapper: the application class would pull in Feign clients, caching and scheduling
+     */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Anime.class)
+    @EnableJpaRepositories(basePackageClasses = UserAnimeRatingRepository.class)
+    @Import(UserAnimeRatingMapper.class)
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserAnimeRatingRepository repository;
+
+    @Autowired
+    private UserAnimeRatingMapper mapper;
+
+    private Statistics statistics;
+    private Long popularAnimeId;
+
+    /**
+     * USER_ID rates every anime; the first one is also rated and reviewed by FANS other users
+     */
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < RATED_ANIME; i++) {
+            Anime anime = entityManager.persist(Anime.builder()
+                    .malId(1000L + i)
+                    .title("Anime " + i)
+                    .episodes(12)
+                    .build());
+            entityManager.persist(rating(USER_ID, anime.getId(), i % 10 + 1, i % 2 == 0 ? "Review " + i : null));
+            if (i == 0) {
+                popularAnimeId = anime.getId();
+                for (int f = 0; f < FANS; f++) {
+                    entityManager.persist(rating("fan-" + f, anime.getId(), f % 10 + 1, "Fan review " + f));
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private static UserAnimeRating rating(String userId, Long animeId, int score, String reviewText) {
+        return UserAnimeRating.builder()
+                .userId(userId)
+                .animeId(animeId)
+                .storyRating(score)
+                .animationRating(score)
+                .characterRating(score)
+                .overallRating(score)
+                .reviewText(reviewText)
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void userRatingsPageIsRowsAndCount(int pageSize) {
+        Page<UserAnimeRating> page = repository.findByUserId(USER_ID,
+                PageRequest.of(0, pageSize, Sort.by("overallRating")));
+
+        assertThat(render(page.getContent())).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(RATED_ANIME);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void animeRatingsPageIsRowsAndCount(int pageSize) {
+        Page<UserAnimeRating> page = repository.findByAnimeId(popularAnimeId,
+                PageRequest.of(0, pageSize, Sort.by("overallRating")));
+
+        assertThat(render(page.getContent())).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(FANS + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void userRatingsKeysetIsRowsOnly(int pageSize) {
+        Window<UserAnimeRating> window = repository.findByUserId(USER_ID, ScrollPosition.keyset(),
+                Sort.by("overallRating", "animeId"), Limit.of(pageSize));
+
+        assertThat(render(window.getContent())).hasSize(pageSize);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void animeRatingsKeysetIsRowsOnly(int pageSize) {
+        Window<UserAnimeRating> window = repository.findByAnimeId(popularAnimeId, ScrollPosition.keyset(),
+                Sort.by("overallRating", "userId"), Limit.of(pageSize));
+
+        assertThat(render(window.getContent())).hasSize(pageSize);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 9})
+    void helpfulReviewsPageIsRowsAndCount(int pageSize) {
+        Page<UserAnimeRating> page = repository.findReviewsByHelpfulness(popularAnimeId,
+                PageRequest.of(0, pageSize));
+
+        assertThat(render(page.getContent())).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(FANS + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // Map the way the service does, touching the anime summary a listing renders
+    private List<UserAnimeRatingDTO> render(List<UserAnimeRating> rows) {
+        List<UserAnimeRatingDTO> dtos = rows.stream().map(mapper::toDTO).toList();
+        dtos.forEach(dto -> assertThat(dto.getAnimeTitle()).startsWith("Anime "));
+        return dtos;
+    }
+}
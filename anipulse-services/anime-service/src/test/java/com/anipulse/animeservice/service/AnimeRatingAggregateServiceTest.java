@@ -0,0 +1,160 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.entity.RatingDimension;
+import com.anipulse.animeservice.repository.AnimeRatingAggregateRepository;
+import com.anipulse.animeservice.repository.AnimeRatingHistogramJdbcRepository;
+import com.anipulse.animeservice.repository.AnimeRatingHistogramRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Count and sum deltas {@link AnimeRatingAggregateService#recordChange} applies to the aggregate row,
+ * the histogram bucket moves it applies alongside and the anime ID ranges of the histogram rebuild
+ */
+class AnimeRatingAggregateServiceTest {
+
+    private static final Long ANIME_ID = 20L;
+
+    private final AnimeRatingAggregateRepository aggregateRepository = mock(AnimeRatingAggregateRepository.class);
+    private final AnimeRatingHistogramJdbcRepository histogramJdbcRepository = mock(AnimeRatingHistogramJdbcRepository.class);
+    private final AnimeRatingAggregateService service = new AnimeRatingAggregateService(aggregateRepository,
+            mock(AnimeRatingHistogramRepository.class), histogramJdbcRepository, mock(PlatformTransactionManager.class));
+
+    @Test
+    void newRatingAddsOneToTheCountAndItsScoresToTheSums() {
+        service.recordChange(ANIME_ID, null, new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6));
+
+        verify(aggregateRepository).applyDelta(ANIME_ID, 1, 8, 7, 9, 6);
+    }
+
+    @Test
+    void changedRatingKeepsTheCountAndAppliesTheDifference() {
+        service.recordChange(ANIME_ID,
+                new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6),
+                new AnimeRatingAggregateService.Snapshot(6, 7, 10, 6));
+
+        verify(aggregateRepository).applyDelta(ANIME_ID, 0, -2, 0, 1, 0);
+    }
+
+    @Test
+    void unchangedRatingWritesNothing() {
+        service.recordChange(ANIME_ID,
+                new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6),
+                new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6));
+
+        verify(aggregateRepository, never()).applyDelta(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verifyNoInteractions(histogramJdbcRepository);
+    }
+
+    @Test
+    void deletedRatingRemovesOneFromTheCountAndItsScoresFromTheSums() {
+        service.recordChange(ANIME_ID, new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6), null);
+
+        verify(aggregateRepository).applyDelta(ANIME_ID, -1, -8, -7, -9, -6);
+    }
+
+    @Test
+    void newRatingAddsOneToTheBucketOfEveryScore() {
+        service.recordChange(ANIME_ID, null, new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6));
+
+        assertThat(appliedBuckets()).containsExactly(
+                bucket(RatingDimension.OVERALL, 8, 1),
+                bucket(RatingDimension.STORY, 7, 1),
+                bucket(RatingDimension.ANIMATION, 9, 1),
+                bucket(RatingDimension.CHARACTER, 6, 1));
+    }
+
+    @Test
+    void changedRatingMovesOnlyTheChangedScores() {
+        service.recordChange(ANIME_ID,
+                new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6),
+                new AnimeRatingAggregateService.Snapshot(6, 7, 10, 6));
+
+        assertThat(appliedBuckets()).containsExactly(
+                bucket(RatingDimension.OVERALL, 8, -1),
+                bucket(RatingDimension.OVERALL, 6, 1),
+                bucket(RatingDimension.ANIMATION, 9, -1),
+                bucket(RatingDimension.ANIMATION, 10, 1));
+    }
+
+    @Test
+    void deletedRatingRemovesOneFromTheBucketOfEveryScore() {
+        service.recordChange(ANIME_ID, new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6), null);
+
+        assertThat(appliedBuckets()).containsExactly(
+                bucket(RatingDimension.OVERALL, 8, -1),
+                bucket(RatingDimension.STORY, 7, -1),
+                bucket(RatingDimension.ANIMATION, 9, -1),
+                bucket(RatingDimension.CHARACTER, 6, -1));
+    }
+
+    @Test
+    void rebuildSplitsASingleIdIntoContiguousRanges() {
+        assertContiguousRanges(rebuildRanges(new long[]{5, 5}, 4), 5, 4);
+    }
+
+    @Test
+    void rebuildWithMoreRangesThanIdsStillCoversEveryId() {
+        List<long[]> ranges = rebuildRanges(new long[]{10, 12}, 8);
+
+        assertContiguousRanges(ranges, 10, 8);
+        assertThat(ranges).anyMatch(range -> range[0] <= 12 && 12 < range[1]);
+    }
+
+    private List<AnimeRatingHistogramJdbcRepository.BucketDelta> appliedBuckets() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AnimeRatingHistogramJdbcRepository.BucketDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(histogramJdbcRepository).applyDeltas(eq(ANIME_ID), captor.capture());
+        return captor.getValue();
+    }
+
+    private List<long[]> rebuildRanges(long[] idRange, int parallelism) {
+        ReflectionTestUtils.setField(service, "rebuildParallelism", parallelism);
+        when(histogramJdbcRepository.ratedAnimeIdRange()).thenReturn(idRange);
+
+        service.rebuildHistograms();
+
+        ArgumentCaptor<Long> from = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> to = ArgumentCaptor.forClass(Long.class);
+        verify(histogramJdbcRepository, times(parallelism)).rebuildRange(from.capture(), to.capture());
+        List<long[]> ranges = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            ranges.add(new long[]{from.getAllValues().get(i), to.getAllValues().get(i)});
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+        return ranges;
+    }
+
+    // Ranges start at the smallest ID, touch without overlapping and the last one is open-ended
+    private static void assertContiguousRanges(List<long[]> ranges, long min, int count) {
+        assertThat(ranges).hasSize(count);
+        assertThat(ranges.get(0)[0]).isEqualTo(min);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i)[0]).isEqualTo(ranges.get(i - 1)[1]);
+        }
+        assertThat(ranges.get(ranges.size() - 1)[1]).isEqualTo(Long.MAX_VALUE);
+        assertThat(ranges).allMatch(range -> range[0] < range[1]);
+    }
+
+    private static AnimeRatingHistogramJdbcRepository.BucketDelta bucket(RatingDimension dimension, int bucket,
+                                                                        long delta) {
+        return new AnimeRatingHistogramJdbcRepository.BucketDelta(dimension, bucket, delta);
+    }
+}
@@ -0,0 +1,137 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.cache.RedisCacheBulkReader;
+import com.anipulse.animeservice.client.JikanApiClient;
+import com.anipulse.animeservice.config.AnimeCacheProperties;
+import com.anipulse.animeservice.config.JikanProperties;
+import com.anipulse.animeservice.dto.AnimeSearchResultDTO;
+import com.anipulse.animeservice.dto.jikan.JikanSearchResponse;
+import com.anipulse.animeservice.exception.AnimeNotFoundException;
+import com.anipulse.animeservice.mapper.AnimeMapper;
+import com.anipulse.animeservice.repository.AnimeGenreRepository;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import com.anipulse.animeservice.util.JikanRateLimiter;
+import com.anipulse.animeservice.util.NegativeAnimeCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A JIKAN 404 on {@link AnimeSearchService#fetchAndPersistAnime} must end up as a NOT_FOUND negative cache entry,
+ * with the WebClient answered by a stubbed exchange function, while an outage page must not be cached at all
+ */
+class AnimeSearchServiceNegativeCacheTest {
+
+    private static final long MAL_ID = 999_999L;
+
+    private final AnimeRepository animeRepository = mock(AnimeRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NegativeAnimeCache negativeAnimeCache = new NegativeAnimeCache(new AnimeCacheProperties(), meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private AnimeSearchService service;
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    upstreamCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+                })
+                .build();
+        JikanApiClient jikanApiClient = new JikanApiClient(webClient, new JikanRateLimiter(), new JikanProperties());
+
+        when(animeRepository.findByMalId(MAL_ID)).thenReturn(Optional.empty());
+
+        service = new AnimeSearchService(jikanApiClient, animeRepository, mock(AnimeGenreRepository.class),
+                mock(AnimeMapper.class), negativeAnimeCache, mock(CacheManager.class), mock(RedisCacheBulkReader.class),
+                new AnimeCacheProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void upstream404IsCachedAsNotFound() {
+        assertThatThrownBy(() -> service.fetchAndPersistAnime(MAL_ID))
+                .isInstanceOf(AnimeNotFoundException.class);
+
+        assertThat(negativeAnimeCache.lookup(MAL_ID)).contains(NegativeAnimeCache.Kind.NOT_FOUND);
+        verify(animeRepository, never()).save(any());
+    }
+
+    @Test
+    void cachedNotFoundSkipsTheSecondUpstreamCall() {
+        assertThatThrownBy(() -> service.fetchAndPersistAnime(MAL_ID))
+                .isInstanceOf(AnimeNotFoundException.class);
+        assertThatThrownBy(() -> service.fetchAndPersistAnime(MAL_ID))
+                .isInstanceOf(AnimeNotFoundException.class);
+
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void outagePagesAreServedButNotCached() throws Exception {
+        JikanApiClient jikanApiClient = mock(JikanApiClient.class);
+        // What the circuit-breaker fallbacks answer with
+        when(jikanApiClient.searchAnime(anyString(), anyInt())).thenReturn(Mono.just(new JikanSearchResponse()));
+        when(jikanApiClient.getTopAnime(anyString(), anyInt())).thenReturn(Mono.just(new JikanSearchResponse()));
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        AnimeSearchService cachingService = cachingService(jikanApiClient, cacheManager);
+
+        AnimeSearchResultDTO search = cachingService.searchAnime("naruto", 1);
+        cachingService.searchAnime("naruto", 1);
+        cachingService.getTopAnime("tv", 1);
+        cachingService.getTopAnime("tv", 1);
+
+        assertThat(search.getData()).isEmpty();
+        verify(jikanApiClient, times(2)).searchAnime("naruto", 1);
+        verify(jikanApiClient, times(2)).getTopAnime("tv", 1);
+        assertThat(cacheManager.getCache("animeSearch").get("naruto_1")).isNull();
+        assertThat(cacheManager.getCache("topAnime").get("tv_1")).isNull();
+    }
+
+    private AnimeSearchService cachingService(JikanApiClient jikanApiClient, CacheManager cacheManager) {
+        context = new AnnotationConfigApplicationContext();
+        context.register(CachingConfig.class);
+        context.registerBean(CacheManager.class, () -> cacheManager);
+        context.registerBean(AnimeSearchService.class, () -> new AnimeSearchService(jikanApiClient, animeRepository,
+                mock(AnimeGenreRepository.class), mock(AnimeMapper.class), negativeAnimeCache, cacheManager,
+                mock(RedisCacheBulkReader.class), new AnimeCacheProperties(), meterRegistry));
+        context.refresh();
+        return context.getBean(AnimeSearchService.class);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+    }
+}
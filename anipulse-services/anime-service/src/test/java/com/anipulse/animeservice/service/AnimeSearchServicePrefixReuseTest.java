@@ -0,0 +1,98 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.cache.RedisCacheBulkReader;
+import com.anipulse.animeservice.client.JikanApiClient;
+import com.anipulse.animeservice.config.AnimeCacheProperties;
+import com.anipulse.animeservice.dto.AnimeDTO;
+import com.anipulse.animeservice.dto.AnimeSearchResultDTO;
+import com.anipulse.animeservice.dto.jikan.JikanSearchResponse;
+import com.anipulse.animeservice.mapper.AnimeMapper;
+import com.anipulse.animeservice.repository.AnimeGenreRepository;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import com.anipulse.animeservice.util.NegativeAnimeCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prefix approximation in {@link AnimeSearchService#searchAnime}: served once per query, then the query goes upstream
+ */
+class AnimeSearchServicePrefixReuseTest {
+
+    private final JikanApiClient jikanApiClient = mock(JikanApiClient.class);
+    private final CacheManager cacheManager = mock(CacheManager.class);
+    private final RedisCacheBulkReader cacheBulkReader = mock(RedisCacheBulkReader.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AnimeSearchService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Cache cache = mock(Cache.class);
+        when(cacheManager.getCache("animeSearch")).thenReturn(cache);
+
+        // Only the longest prefix "narut" holds a complete first page
+        AnimeSearchResultDTO narut = AnimeSearchResultDTO.builder()
+                .data(List.of(anime(20L, "Naruto"), anime(1735L, "Naruto: Shippuuden"), anime(99L, "Narutaki")))
+                .pagination(AnimeSearchResultDTO.PaginationDTO.builder()
+                        .currentPage(1)
+                        .lastPage(1)
+                        .hasNextPage(false)
+                        .build())
+                .build();
+        when(cacheBulkReader.multiGet(eq(cache), anyList(), eq(AnimeSearchResultDTO.class))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            List<AnimeSearchResultDTO> values = new ArrayList<>();
+            keys.forEach(key -> values.add(key.equals("narut_1") ? narut : null));
+            return Optional.of(values);
+        });
+        when(jikanApiClient.searchAnime(anyString(), anyInt())).thenReturn(Mono.just(new JikanSearchResponse()));
+
+        AnimeCacheProperties cacheProperties = new AnimeCacheProperties();
+        service = new AnimeSearchService(jikanApiClient, mock(AnimeRepository.class), mock(AnimeGenreRepository.class),
+                mock(AnimeMapper.class), new NegativeAnimeCache(cacheProperties, meterRegistry), cacheManager,
+                cacheBulkReader, cacheProperties, meterRegistry);
+    }
+
+    @Test
+    void firstMissIsApproximatedFromTheCachedPrefix() throws Exception {
+        AnimeSearchResultDTO result = service.searchAnime("Naruto", 1);
+
+        assertThat(result.isPrefixFiltered()).isTrue();
+        assertThat(result.getData()).extracting(AnimeDTO::getMalId).containsExactly(20L, 1735L);
+        verify(jikanApiClient, never()).searchAnime(anyString(), anyInt());
+    }
+
+    @Test
+    void secondMissGoesUpstream() throws Exception {
+        service.searchAnime("naruto", 1);
+        AnimeSearchResultDTO result = service.searchAnime("naruto", 1);
+
+        assertThat(result.isPrefixFiltered()).isFalse();
+        verify(jikanApiClient, times(1)).searchAnime("naruto", 1);
+    }
+
+    private static AnimeDTO anime(Long malId, String title) {
+        return AnimeDTO.builder()
+                .malId(malId)
+                .title(title)
+                .build();
+    }
+}
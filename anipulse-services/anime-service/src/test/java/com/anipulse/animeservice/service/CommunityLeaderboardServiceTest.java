@@ -0,0 +1,221 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.LeaderboardProperties;
+import com.anipulse.animeservice.entity.AnimeRatingAggregate;
+import com.anipulse.animeservice.repository.AnimeRatingAggregateRepository;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rebuild protocol of {@link CommunityLeaderboardService}: re-scores made while a rebuild reads the aggregates
+ * are replayed on the swapped-in boards. Redis is a mocked {@link StringRedisTemplate} backed by plain maps.
+ */
+class CommunityLeaderboardServiceTest {
+
+    private static final String BOARD = "leaderboard:community";
+    private static final String ACTION_BOARD = BOARD + ":genre:action";
+    private static final String ROMANCE_BOARD = BOARD + ":genre:romance";
+    private static final String REFRESHED = BOARD + ":refreshed";
+    private static final String GENRES = BOARD + ":genres";
+
+    private final Map<String, Map<String, Double>> zsets = new HashMap<>();
+    private final Map<String, Set<String>> sets = new HashMap<>();
+    private final Map<String, Map<Object, Object>> hashes = new HashMap<>();
+
+    private final AnimeRatingAggregateRepository aggregateRepository = mock(AnimeRatingAggregateRepository.class);
+    private final AnimeRepository animeRepository = mock(AnimeRepository.class);
+    private final LeaderboardProperties properties = new LeaderboardProperties();
+    private CommunityLeaderboardService service;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = fakeRedis();
+        when(animeRepository.findGenreNamesByMalIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> malIds = invocation.getArgument(0);
+            List<Object[]> rows = new ArrayList<>();
+            malIds.forEach(malId -> rows.add(new Object[]{malId, "Action"}));
+            return rows;
+        });
+        service = new CommunityLeaderboardService(redisTemplate, aggregateRepository, animeRepository, properties);
+    }
+
+    @Test
+    void reScoreDuringRebuildIsReplayedOnTheNewBoards() {
+        AnimeRatingAggregate stale = aggregate(20L, 10, 60);
+        AnimeRatingAggregate current = aggregate(20L, 11, 70);
+        when(aggregateRepository.findById(20L)).thenReturn(Optional.of(current));
+        when(aggregateRepository.findAll()).thenAnswer(invocation -> {
+            // A rating committed after the rebuild read its snapshot re-scores the live board
+            service.scheduleRefresh(20L);
+            return List.of(stale);
+        });
+
+        service.rebuild();
+
+        double mean = 60.0 / 10;
+        double replayedScore = (properties.getPriorWeight() * mean + 70) / (properties.getPriorWeight() + 11);
+        assertThat(zsets.get(BOARD).get("20")).isCloseTo(replayedScore, within(1e-9));
+        assertThat(zsets.get(ACTION_BOARD).get("20")).isCloseTo(replayedScore, within(1e-9));
+    }
+
+    @Test
+    void reScoresFromBeforeTheRebuildAreNotReplayed() {
+        sets.computeIfAbsent(REFRESHED, key -> new LinkedHashSet<>()).add("99");
+        when(aggregateRepository.findAll()).thenReturn(List.of(aggregate(20L, 10, 60)));
+        when(aggregateRepository.findById(20L)).thenReturn(Optional.of(aggregate(20L, 10, 60)));
+
+        service.rebuild();
+
+        verify(aggregateRepository, never()).findById(99L);
+        assertThat(zsets.get(BOARD)).containsOnlyKeys("20");
+    }
+
+    @Test
+    void genreBoardsWithoutRatedAnimeAreDropped() {
+        zsets.computeIfAbsent(ROMANCE_BOARD, key -> new HashMap<>()).put("5", 8.0);
+        sets.computeIfAbsent(GENRES, key -> new LinkedHashSet<>()).add(ROMANCE_BOARD);
+        when(aggregateRepository.findAll()).thenReturn(List.of(aggregate(20L, 10, 60)));
+
+        service.rebuild();
+
+        assertThat(zsets).doesNotContainKey(ROMANCE_BOARD);
+        assertThat(sets.get(GENRES)).containsExactly(ACTION_BOARD);
+        assertThat(zsets).doesNotContainKeys(BOARD + ":rebuilding", ACTION_BOARD + ":rebuilding");
+    }
+
+    private static AnimeRatingAggregate aggregate(Long malId, long count, long overallSum) {
+        return AnimeRatingAggregate.builder()
+                .animeId(malId)
+                .ratingCount(count)
+                .overallSum(overallSum)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private StringRedisTemplate fakeRedis() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        ZSetOperations<String, String> zSetOps = mock(ZSetOperations.class);
+        SetOperations<String, String> setOps = mock(SetOperations.class);
+        HashOperations<String, Object, Object> hashOps = mock(HashOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOps);
+
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> deleteKey(invocation.getArgument(0)));
+        when(redisTemplate.delete(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().filter(this::deleteKey).count();
+        });
+        doAnswer(invocation -> {
+            zsets.put(invocation.getArgument(1), zsets.remove(invocation.<String>getArgument(0)));
+            return null;
+        }).when(redisTemplate).rename(anyString(), anyString());
+
+        when(zSetOps.add(anyString(), anyString(), anyDouble())).thenAnswer(invocation -> {
+            zsets.computeIfAbsent(invocation.getArgument(0), key -> new HashMap<>())
+                    .put(invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        });
+        when(zSetOps.add(anyString(), anySet())).thenAnswer(invocation -> {
+            Set<ZSetOperations.TypedTuple<String>> tuples = invocation.getArgument(1);
+            Map<String, Double> zset = zsets.computeIfAbsent(invocation.getArgument(0), key -> new HashMap<>());
+            tuples.forEach(tuple -> zset.put(tuple.getValue(), tuple.getScore()));
+            return (long) tuples.size();
+        });
+        when(zSetOps.remove(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Map<String, Double> zset = zsets.getOrDefault(invocation.<String>getArgument(0), new HashMap<>());
+            return varargs(invocation).stream().filter(member -> zset.remove(member) != null).count();
+        });
+
+        when(setOps.add(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            Set<String> set = sets.computeIfAbsent(invocation.getArgument(0), key -> new LinkedHashSet<>());
+            return varargs(invocation).stream().filter(member -> set.add((String) member)).count();
+        });
+        when(setOps.remove(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Set<String> set = sets.getOrDefault(invocation.<String>getArgument(0), new LinkedHashSet<>());
+            return varargs(invocation).stream().filter(set::remove).count();
+        });
+        when(setOps.size(anyString())).thenAnswer(invocation ->
+                (long) sets.getOrDefault(invocation.<String>getArgument(0), Set.of()).size());
+        when(setOps.members(anyString())).thenAnswer(invocation ->
+                new LinkedHashSet<>(sets.getOrDefault(invocation.<String>getArgument(0), Set.of())));
+        when(setOps.pop(anyString(), anyLong())).thenAnswer(invocation -> {
+            Set<String> set = sets.getOrDefault(invocation.<String>getArgument(0), new LinkedHashSet<>());
+            List<String> popped = new ArrayList<>();
+            Iterator<String> members = set.iterator();
+            for (long i = 0; i < invocation.<Long>getArgument(1) && members.hasNext(); i++) {
+                popped.add(members.next());
+                members.remove();
+            }
+            return popped;
+        });
+
+        doAnswer(invocation -> {
+            hashes.computeIfAbsent(invocation.getArgument(0), key -> new HashMap<>())
+                    .put(invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(hashOps).put(anyString(), any(), any());
+        when(hashOps.get(anyString(), any())).thenAnswer(invocation ->
+                hashes.getOrDefault(invocation.<String>getArgument(0), Map.of()).get(invocation.getArgument(1)));
+
+        return redisTemplate;
+    }
+
+    private boolean deleteKey(String key) {
+        boolean zset = zsets.remove(key) != null;
+        boolean set = sets.remove(key) != null;
+        boolean hash = hashes.remove(key) != null;
+        return zset || set || hash;
+    }
+
+    // Members passed after the key, whether Mockito hands them over expanded or as one array
+    private static List<Object> varargs(InvocationOnMock invocation) {
+        List<Object> members = new ArrayList<>();
+        Object[] arguments = invocation.getArguments();
+        for (int i = 1; i < arguments.length; i++) {
+            if (arguments[i] instanceof Object[] array) {
+                members.addAll(Arrays.asList(array));
+            } else {
+                members.add(arguments[i]);
+            }
+        }
+        return members;
+    }
+}
@@ -0,0 +1,192 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.OutboxProperties;
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
+import com.anipulse.animeservice.entity.OutboxEvent;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.repository.OutboxDeadLetterRepository;
+import com.anipulse.animeservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Relay throughput and wire size of compact list-change events against the UserAnimeList entity payload
+ * published before them (one message per row, notes included).
+ * Skipped in normal builds, run with: mvn test -Dtest=OutboxRelayBenchmark -Dbenchmark=true
+ * Both payloads go through {@link OutboxRelay} itself with the database and broker stubbed out, so events/sec
+ * covers outbox serialization, relay parsing, grouping and AMQP message conversion but not broker round trips;
+ * messages per run is reported alongside, since with a broker every message costs a publish and a confirm.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OutboxRelayBenchmark {
+
+    private static final int EVENTS = 200_000;
+    private static final int USERS = 5_000;
+    private static final int ANIME = 15_000;
+    private static final String EXCHANGE = "anime.exchange";
+    private static final String ROUTING_KEY = "anime.routing";
+    private static final String NOTE = "Rewatching with friends, the second cour drags a bit. ";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+    // Stub-only mocks keep no invocation history, which would otherwise grow with every batch
+    private final OutboxEventRepository outboxEventRepository =
+            mock(OutboxEventRepository.class, withSettings().stubOnly());
+
+    private record Result(double eventsPerSecond, double bytesPerEvent, long messages) {
+    }
+
+    @Test
+    void compactEventsAgainstEntityPayload() throws Exception {
+        // First round warms up the JIT, the second is reported
+        run("entity", this::entityPayload);
+        run("compact", this::compactPayload);
+        Result entity = run("entity", this::entityPayload);
+        Result compact = run("compact", this::compactPayload);
+
+        System.out.printf("OutboxRelay, %d events: entity payload %.0f events/s, %.0f bytes/event, %d messages; "
+                        + "compact payload %.0f events/s, %.0f bytes/event, %d messages%n",
+                EVENTS, entity.eventsPerSecond(), entity.bytesPerEvent(), entity.messages(),
+                compact.eventsPerSecond(), compact.bytesPerEvent(), compact.messages());
+    }
+
+    private Result run(String label, Function<UserAnimeList, Object> payload) throws Exception {
+        Random random = new Random(42);
+        List<UserAnimeList> entries = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            entries.add(entry(random));
+        }
+
+        long[] bytes = new long[1];
+        long[] messages = new long[1];
+        OutboxProperties properties = new OutboxProperties();
+        properties.setMaxBatchesPerRun(Integer.MAX_VALUE);
+        properties.setLinger(Duration.ZERO);
+        OutboxRelay relay = relay(properties, bytes, messages);
+
+        long start = System.nanoTime();
+        // What OutboxService.enqueue writes for each change
+        Deque<OutboxEvent> outbox = new ArrayDeque<>(EVENTS);
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(1);
+        long id = 1;
+        for (UserAnimeList entry : entries) {
+            Object event = payload.apply(entry);
+            outbox.add(OutboxEvent.builder()
+                    .id(id++)
+                    .exchange(EXCHANGE)
+                    .routingKey(ROUTING_KEY)
+                    .payloadType(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(createdAt)
+                    .build());
+        }
+        stubOutbox(outbox, properties.getBatchSize());
+        relay.relay();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(0, outbox.size(), label + " outbox drained");
+        return new Result(EVENTS / seconds, (double) bytes[0] / EVENTS, messages[0]);
+    }
+
+    private Object entityPayload(UserAnimeList entry) {
+        return entry;
+    }
+
+    private Object compactPayload(UserAnimeList entry) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.UPSERT)
+                .userId(entry.getUserId())
+                .animeId(entry.getAnimeId())
+                .status(entry.getWatchStatus())
+                .progress(entry.getProgress())
+                .rating(entry.getRating())
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    private OutboxRelay relay(OutboxProperties properties, long[] bytes, long[] messages) {
+        RabbitOperations operations = mock(RabbitOperations.class, withSettings().stubOnly());
+        // Entity rows are sent as-is, one message each
+        doAnswer(invocation -> {
+            bytes[0] += invocation.<Message>getArgument(2).getBody().length;
+            messages[0]++;
+            return null;
+        }).when(operations).send(any(), any(), any(Message.class));
+        // Compact events go out as envelopes, converted as RabbitMqConfig's template converts them
+        doAnswer(invocation -> {
+            Message message = converter.toMessage(invocation.getArgument(2), new MessageProperties());
+            bytes[0] += message.getBody().length;
+            messages[0]++;
+            return null;
+        }).when(operations).convertAndSend(any(String.class), any(String.class), any(Object.class),
+                any(MessagePostProcessor.class));
+
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class, withSettings().stubOnly());
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(operations));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class, withSettings().stubOnly());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+
+        return new OutboxRelay(outboxEventRepository, mock(OutboxDeadLetterRepository.class, withSettings().stubOnly()),
+                rabbitTemplate, transactionTemplate, properties, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private void stubOutbox(Deque<OutboxEvent> outbox, int batchSize) {
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenAnswer(invocation -> {
+            List<OutboxEvent> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && !outbox.isEmpty()) {
+                batch.add(outbox.poll());
+            }
+            return batch;
+        });
+    }
+
+    private static UserAnimeList entry(Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        WatchStatus status = WatchStatus.values()[random.nextInt(WatchStatus.values().length)];
+        return UserAnimeList.builder()
+                .userId("user-" + random.nextInt(USERS))
+                .animeId((long) random.nextInt(ANIME))
+                .watchStatus(status)
+                .progress(random.nextInt(25))
+                .rating(random.nextInt(3) == 0 ? null : (double) (1 + random.nextInt(10)))
+                // Most entries have no notes, some a sentence or two
+                .notes(random.nextInt(4) == 0 ? NOTE.repeat(1 + random.nextInt(3)) : null)
+                .addedAt(now.minusDays(random.nextInt(900)))
+                .updatedAt(now)
+                .completedAt(status == WatchStatus.COMPLETED ? now : null)
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.OutboxProperties;
+import com.anipulse.animeservice.dto.AnimeListChangeEvent;
+import com.anipulse.animeservice.dto.AnimeListChangeEventBatch;
+import com.anipulse.animeservice.entity.OutboxDeadLetter;
+import com.anipulse.animeservice.entity.OutboxEvent;
+import com.anipulse.animeservice.repository.OutboxDeadLetterRepository;
+import com.anipulse.animeservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Envelope grouping, linger and dead-lettering of {@link OutboxRelay}, against mocked repositories and broker
+ */
+class OutboxRelayTest {
+
+    private static final String EXCHANGE = "anime.exchange";
+    private static final String ROUTING_KEY = "anime.routing";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final OutboxDeadLetterRepository deadLetterRepository = mock(OutboxDeadLetterRepository.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxProperties properties = new OutboxProperties();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(6);
+        properties.setMaxEventsPerMessage(2);
+        properties.setMaxBatchesPerRun(1);
+        properties.setLinger(Duration.ofMinutes(1));
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(operations));
+
+        relay = new OutboxRelay(outboxEventRepository, deadLetterRepository, rabbitTemplate, transactionTemplate,
+                properties, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void groupsConsecutiveListChangesPerMessageInOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = List.of(
+                listChange(1, now), listChange(2, now), listChange(3, now),
+                other(4, now),
+                listChange(5, now), listChange(6, now));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(batch);
+
+        relay.relay();
+
+        // 1-2 fill a message, 3 is flushed by the other row, 5-6 share the last one
+        assertThat(sentSequences()).containsExactly(List.of(1L, 2L), List.of(3L), List.of(5L, 6L));
+        verify(operations).send(eq(EXCHANGE), eq(ROUTING_KEY), any(Message.class));
+        verify(outboxEventRepository).deleteAllInBatch(batch);
+        assertThat(meterRegistry.counter("anime.outbox.messages").count()).isEqualTo(4);
+        assertThat(meterRegistry.counter("anime.outbox.published").count()).isEqualTo(6);
+    }
+
+    @Test
+    void partialBatchLingersUntilItsOldestEventIsOldEnough() {
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(listChange(1, now.minusSeconds(10)), listChange(2, now)));
+
+        relay.relay();
+
+        verify(rabbitTemplate, never()).invoke(any());
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+
+        List<OutboxEvent> lingered = List.of(listChange(1, now.minusMinutes(2)), listChange(2, now));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(lingered);
+
+        relay.relay();
+
+        assertThat(sentSequences()).containsExactly(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllInBatch(lingered);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unreadablePayloadIsDeadLetteredAndTheRestPublished() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent corrupt = listChange(2, now);
+        corrupt.setPayload("{not json");
+        List<OutboxEvent> batch = List.of(listChange(1, now), corrupt, listChange(3, now),
+                listChange(4, now), listChange(5, now), listChange(6, now));
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(batch);
+
+        relay.relay();
+
+        ArgumentCaptor<List<OutboxDeadLetter>> deadLetters = ArgumentCaptor.forClass(List.class);
+        verify(deadLetterRepository).saveAll(deadLetters.capture());
+        assertThat(deadLetters.getValue()).singleElement()
+                .satisfies(deadLetter -> {
+                    assertThat(deadLetter.getId()).isEqualTo(2L);
+                    assertThat(deadLetter.getPayload()).isEqualTo("{not json");
+                    assertThat(deadLetter.getError()).isNotBlank();
+                });
+        verify(outboxEventRepository).deleteAllInBatch(List.of(corrupt));
+        assertThat(sentSequences()).containsExactly(List.of(1L, 3L), List.of(4L, 5L), List.of(6L));
+        assertThat(meterRegistry.counter("anime.outbox.dead.letters").count()).isEqualTo(1);
+    }
+
+    @Test
+    void nothingButUnreadableRowsNeverReachesTheBroker() {
+        LocalDateTime now = LocalDateTime.now().minusMinutes(2);
+        OutboxEvent corrupt = listChange(1, now);
+        corrupt.setPayload("[]");
+        when(outboxEventRepository.findPendingForUpdate(any(Pageable.class))).thenReturn(List.of(corrupt));
+
+        relay.relay();
+
+        verify(rabbitTemplate, never()).invoke(any());
+        verify(outboxEventRepository).deleteAllInBatch(List.of(corrupt));
+    }
+
+    private List<List<Long>> sentSequences() {
+        ArgumentCaptor<Object> envelopes = ArgumentCaptor.forClass(Object.class);
+        verify(operations, atLeastOnce())
+                .convertAndSend(anyString(), anyString(), envelopes.capture(), any(MessagePostProcessor.class));
+        List<List<Long>> sequences = new ArrayList<>();
+        for (Object envelope : envelopes.getAllValues()) {
+            sequences.add(((AnimeListChangeEventBatch) envelope).getEvents().stream()
+                    .map(AnimeListChangeEvent::getSequence)
+                    .toList());
+        }
+        return sequences;
+    }
+
+    private OutboxEvent listChange(long id, LocalDateTime createdAt) {
+        try {
+            AnimeListChangeEvent event = AnimeListChangeEvent.builder()
+                    .type(AnimeListChangeEvent.Type.UPSERT)
+                    .userId("user-1")
+                    .animeId(id)
+                    .build();
+            return outboxEvent(id, createdAt, AnimeListChangeEvent.class.getName(),
+                    objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OutboxEvent other(long id, LocalDateTime createdAt) {
+        return outboxEvent(id, createdAt, "com.anipulse.animeservice.dto.AnimeEvent", "{}");
+    }
+
+    private static OutboxEvent outboxEvent(long id, LocalDateTime createdAt, String payloadType, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .exchange(EXCHANGE)
+                .routingKey(ROUTING_KEY)
+                .payloadType(payloadType)
+                .payload(payload)
+                .createdAt(createdAt)
+                .build();
+    }
+}
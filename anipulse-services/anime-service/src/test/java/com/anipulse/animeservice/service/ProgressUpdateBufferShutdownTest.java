@@ -0,0 +1,102 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ProgressBufferProperties;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.mapper.UserAnimeListMapper;
+import com.anipulse.animeservice.repository.UserAnimeListJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Shutdown drain of {@link ProgressUpdateBuffer}: retried batches, the one-at-a-time fallback and what stays unwritten
+ */
+class ProgressUpdateBufferShutdownTest {
+
+    private static final String USER = "user-1";
+
+    private final UserAnimeListJdbcRepository jdbcRepository = mock(UserAnimeListJdbcRepository.class);
+    private final ProgressBufferProperties properties = new ProgressBufferProperties();
+    private ProgressUpdateBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setShutdownFlushAttempts(3);
+        properties.setShutdownRetryDelay(Duration.ZERO);
+
+        buffer = new ProgressUpdateBuffer(jdbcRepository, mock(UserAnimeStatsService.class), mock(OutboxService.class),
+                mock(UserListCacheEvictor.class), mock(UserAnimeListMapper.class), properties,
+                new SimpleMeterRegistry(), mock(PlatformTransactionManager.class));
+
+        buffer.submit(USER, 1L, 5);
+        buffer.submit(USER, 2L, 7);
+    }
+
+    @Test
+    void retriesAFailedDrain() {
+        when(jdbcRepository.lockEntries(anyCollection()))
+                .thenThrow(new QueryTimeoutException("pool timeout"))
+                .thenAnswer(invocation -> rows(invocation.getArgument(0)));
+
+        buffer.flushAll();
+
+        verify(jdbcRepository, times(2)).lockEntries(anyCollection());
+        assertThat(buffer.pendingProgress(USER, 1L)).isEmpty();
+        assertThat(buffer.pendingProgress(USER, 2L)).isEmpty();
+    }
+
+    @Test
+    void fallsBackToSingleEntriesWhenTheBatchKeepsFailing() {
+        when(jdbcRepository.lockEntries(anyCollection())).thenAnswer(invocation -> {
+            Collection<UserAnimeList.UserAnimeListId> ids = invocation.getArgument(0);
+            if (ids.size() > 1) {
+                throw new QueryTimeoutException("lock wait timeout");
+            }
+            return rows(ids);
+        });
+
+        buffer.flushAll();
+
+        assertThat(buffer.pendingProgress(USER, 1L)).isEmpty();
+        assertThat(buffer.pendingProgress(USER, 2L)).isEmpty();
+    }
+
+    @Test
+    void keepsWhatCannotBeWritten() {
+        when(jdbcRepository.lockEntries(anyCollection())).thenThrow(new QueryTimeoutException("database down"));
+
+        buffer.flushAll();
+
+        // Three batch attempts, then one per entry
+        verify(jdbcRepository, times(5)).lockEntries(anyCollection());
+        assertThat(buffer.pendingProgress(USER, 1L)).hasValue(5);
+        assertThat(buffer.pendingProgress(USER, 2L)).hasValue(7);
+    }
+
+    private static List<UserAnimeList> rows(Collection<UserAnimeList.UserAnimeListId> ids) {
+        return ids.stream()
+                .map(id -> UserAnimeList.builder()
+                        .userId(id.getUserId())
+                        .animeId(id.getAnimeId())
+                        .watchStatus(WatchStatus.WATCHING)
+                        .progress(0)
+                        .updatedAt(LocalDateTime.now().minusHours(1))
+                        .build())
+                .toList();
+    }
+}
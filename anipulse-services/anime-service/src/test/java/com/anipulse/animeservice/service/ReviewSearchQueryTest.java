@@ -0,0 +1,37 @@
+package com.anipulse.animeservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewSearchQueryTest {
+
+    @Test
+    void contractionKeepsItsApostrophe() {
+        assertEquals("+don't", UserAnimeRatingService.toBooleanQuery("don't"));
+        assertEquals("+don't +stop", UserAnimeRatingService.toBooleanQuery("Don’t stop"));
+    }
+
+    @Test
+    void contractionInsidePhraseKeepsItsApostrophe() {
+        assertEquals("+\"don't give up\" +ending",
+                UserAnimeRatingService.toBooleanQuery("ending \"don't give up\""));
+    }
+
+    @Test
+    void booleanOperatorsAreRemoved() {
+        assertEquals("+best +arc +ever +5",
+                UserAnimeRatingService.toBooleanQuery("+best -arc <ever> (~5*) @"));
+    }
+
+    @Test
+    void apostrophesOutsideWordsAreRemoved() {
+        assertEquals("+quoted +fans", UserAnimeRatingService.toBooleanQuery("'quoted' fans'"));
+    }
+
+    @Test
+    void inputWithoutWordsGivesEmptyQuery() {
+        assertEquals("", UserAnimeRatingService.toBooleanQuery(" +-\"\" ' "));
+        assertEquals("", UserAnimeRatingService.toBooleanQuery(null));
+    }
+}
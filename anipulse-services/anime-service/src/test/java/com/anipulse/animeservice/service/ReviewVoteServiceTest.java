@@ -0,0 +1,105 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ReviewVoteProperties;
+import com.anipulse.animeservice.repository.ReviewVoteJdbcRepository;
+import com.anipulse.animeservice.repository.ReviewVoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Duplicate detection, re-queueing and tally bookkeeping of {@link ReviewVoteService}, against a mocked
+ * voter set and JDBC repository
+ */
+class ReviewVoteServiceTest {
+
+    private static final Long ANIME_ID = 20L;
+    private static final String AUTHOR = "author";
+
+    private final ReviewVoteJdbcRepository voteJdbcRepository = mock(ReviewVoteJdbcRepository.class);
+    @SuppressWarnings("unchecked")
+    private final SetOperations<String, String> setOperations = mock(SetOperations.class);
+    private ReviewVoteService service;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.add(anyString(), anyString())).thenReturn(1L);
+
+        service = new ReviewVoteService(voteJdbcRepository, mock(ReviewVoteRepository.class), redisTemplate,
+                mock(UserRatingCache.class), new ReviewVoteProperties(), new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void repeatedVoteIsRejectedWithConflict() {
+        when(setOperations.add("reviewVoters:20:author", "voter")).thenReturn(1L, 0L);
+
+        service.vote(ANIME_ID, AUTHOR, "voter", true);
+
+        assertThatThrownBy(() -> service.vote(ANIME_ID, AUTHOR, "voter", false))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(service.pendingCounts(ANIME_ID, AUTHOR)).containsExactly(1, 0);
+    }
+
+    @Test
+    void failedFlushRequeuesVotesAndKeepsTheirPendingCounts() {
+        when(voteJdbcRepository.insertVotes(anyList()))
+                .thenThrow(new QueryTimeoutException("pool timeout"))
+                .thenReturn(new boolean[]{true, true});
+
+        service.vote(ANIME_ID, AUTHOR, "voter-1", true);
+        service.vote(ANIME_ID, AUTHOR, "voter-2", false);
+        service.flush();
+
+        assertThat(service.pendingCounts(ANIME_ID, AUTHOR)).containsExactly(1, 1);
+        verify(voteJdbcRepository, never()).addCounts(anyList());
+
+        service.flush();
+
+        verify(voteJdbcRepository, times(2)).insertVotes(anyList());
+        assertThat(service.pendingCounts(ANIME_ID, AUTHOR)).containsExactly(0, 0);
+        assertThat(addedCounts()).containsExactly(new ReviewVoteJdbcRepository.CountDelta(ANIME_ID, AUTHOR, 1, 1));
+    }
+
+    @Test
+    void votesTheDatabaseAlreadyHeldAreNotCounted() {
+        when(voteJdbcRepository.insertVotes(anyList())).thenReturn(new boolean[]{true, false, true});
+
+        service.vote(ANIME_ID, AUTHOR, "voter-1", true);
+        service.vote(ANIME_ID, AUTHOR, "voter-2", true);
+        service.vote(ANIME_ID, AUTHOR, "voter-3", false);
+        service.flush();
+
+        assertThat(addedCounts()).containsExactly(new ReviewVoteJdbcRepository.CountDelta(ANIME_ID, AUTHOR, 1, 1));
+        assertThat(service.pendingCounts(ANIME_ID, AUTHOR)).containsExactly(0, 0);
+    }
+
+    private List<ReviewVoteJdbcRepository.CountDelta> addedCounts() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReviewVoteJdbcRepository.CountDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(voteJdbcRepository).addCounts(captor.capture());
+        return captor.getValue();
+    }
+}
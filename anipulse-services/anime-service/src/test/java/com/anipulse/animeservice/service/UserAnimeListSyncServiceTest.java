@@ -0,0 +1,140 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.config.ListSyncProperties;
+import com.anipulse.animeservice.dto.UserAnimeListDTO;
+import com.anipulse.animeservice.dto.UserAnimeListSyncDTO;
+import com.anipulse.animeservice.entity.UserAnimeList;
+import com.anipulse.animeservice.entity.UserAnimeListDeletion;
+import com.anipulse.animeservice.entity.WatchStatus;
+import com.anipulse.animeservice.repository.UserAnimeListDeletionRepository;
+import com.anipulse.animeservice.repository.UserAnimeListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Overlap, tombstone retention, the max-changes fallback and removed-then-re-added filtering
+ * of {@link UserAnimeListSyncService#changesSince}
+ */
+class UserAnimeListSyncServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    private final UserAnimeListRepository userAnimeListRepository = mock(UserAnimeListRepository.class);
+    private final UserAnimeListDeletionRepository deletionRepository = mock(UserAnimeListDeletionRepository.class);
+    private final UserAnimeListReadModel readModel = mock(UserAnimeListReadModel.class);
+    private final ListSyncProperties properties = new ListSyncProperties();
+    private UserAnimeListSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setOverlap(Duration.ofSeconds(30));
+        properties.setTombstoneRetention(Duration.ofDays(30));
+        properties.setMaxChanges(3);
+
+        Function<UserAnimeList, UserAnimeListDTO> toDto = row -> UserAnimeListDTO.builder()
+                .animeId(row.getAnimeId())
+                .build();
+        when(readModel.mapperFor(any())).thenReturn(toDto);
+        when(userAnimeListRepository.findByUserIdAndUpdatedAtAfterOrderByUpdatedAt(anyString(), any(), any()))
+                .thenReturn(List.of());
+        when(deletionRepository.findByUserIdAndDeletedAtAfterOrderByDeletedAt(anyString(), any(), any()))
+                .thenReturn(List.of());
+
+        service = new UserAnimeListSyncService(userAnimeListRepository, deletionRepository, readModel, properties);
+    }
+
+    @Test
+    void readsFromTheOverlapBeforeTheWatermark() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(5).withNano(0);
+
+        UserAnimeListSyncDTO sync = service.changesSince(USER_ID, epochMillis(since));
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<Limit> limit = ArgumentCaptor.forClass(Limit.class);
+        verify(userAnimeListRepository).findByUserIdAndUpdatedAtAfterOrderByUpdatedAt(
+                eq(USER_ID), from.capture(), limit.capture());
+        verify(deletionRepository).findByUserIdAndDeletedAtAfterOrderByDeletedAt(eq(USER_ID), eq(from.getValue()), any());
+        assertThat(from.getValue()).isEqualTo(since.minusSeconds(30));
+        // One more than maxChanges, to tell "exactly at the limit" from "over it"
+        assertThat(limit.getValue().max()).isEqualTo(4);
+        assertThat(sync.isFullResyncRequired()).isFalse();
+        assertThat(sync.getWatermark()).isGreaterThan(epochMillis(since));
+    }
+
+    @Test
+    void watermarkOlderThanTheTombstoneRetentionNeedsAFullResync() {
+        long since = epochMillis(LocalDateTime.now().minusDays(31));
+
+        UserAnimeListSyncDTO sync = service.changesSince(USER_ID, since);
+
+        assertThat(sync.isFullResyncRequired()).isTrue();
+        assertThat(sync.getChanged()).isEmpty();
+        verifyNoInteractions(userAnimeListRepository, deletionRepository);
+    }
+
+    @Test
+    void moreChangesThanTheLimitNeedAFullResync() {
+        when(userAnimeListRepository.findByUserIdAndUpdatedAtAfterOrderByUpdatedAt(anyString(), any(), any()))
+                .thenReturn(List.of(entry(1L), entry(2L)));
+        when(deletionRepository.findByUserIdAndDeletedAtAfterOrderByDeletedAt(anyString(), any(), any()))
+                .thenReturn(List.of(deletion(3L), deletion(4L)));
+
+        UserAnimeListSyncDTO sync = service.changesSince(USER_ID, epochMillis(LocalDateTime.now().minusMinutes(5)));
+
+        assertThat(sync.isFullResyncRequired()).isTrue();
+        assertThat(sync.getChanged()).isEmpty();
+        assertThat(sync.getDeletedAnimeIds()).isEmpty();
+    }
+
+    @Test
+    void entryRemovedAndAddedAgainIsReportedOnlyAsChanged() {
+        when(userAnimeListRepository.findByUserIdAndUpdatedAtAfterOrderByUpdatedAt(anyString(), any(), any()))
+                .thenReturn(List.of(entry(1L)));
+        when(deletionRepository.findByUserIdAndDeletedAtAfterOrderByDeletedAt(anyString(), any(), any()))
+                .thenReturn(List.of(deletion(1L), deletion(2L)));
+
+        UserAnimeListSyncDTO sync = service.changesSince(USER_ID, epochMillis(LocalDateTime.now().minusMinutes(5)));
+
+        assertThat(sync.isFullResyncRequired()).isFalse();
+        assertThat(sync.getChanged()).extracting(UserAnimeListDTO::getAnimeId).containsExactly(1L);
+        assertThat(sync.getDeletedAnimeIds()).containsExactly(2L);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static UserAnimeList entry(Long animeId) {
+        return UserAnimeList.builder()
+                .userId(USER_ID)
+                .animeId(animeId)
+                .watchStatus(WatchStatus.WATCHING)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static UserAnimeListDeletion deletion(Long animeId) {
+        return UserAnimeListDeletion.builder()
+                .userId(USER_ID)
+                .animeId(animeId)
+                .deletedAt(LocalDateTime.now())
+                .build();
+    }
+}
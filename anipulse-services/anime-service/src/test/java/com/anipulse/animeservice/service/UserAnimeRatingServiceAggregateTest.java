@@ -0,0 +1,104 @@
+package com.anipulse.animeservice.service;
+
+import com.anipulse.animeservice.dto.UserAnimeRatingRequestDTO;
+import com.anipulse.animeservice.entity.UserAnimeRating;
+import com.anipulse.animeservice.mapper.UserAnimeRatingMapper;
+import com.anipulse.animeservice.repository.AnimeRepository;
+import com.anipulse.animeservice.repository.UserAnimeRatingRepository;
+import com.anipulse.animeservice.util.KeysetCursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Before/after snapshots the rating writers hand to {@link AnimeRatingAggregateService#recordChange}
+ * from the row they locked with findForUpdate
+ */
+class UserAnimeRatingServiceAggregateTest {
+
+    private static final String USER_ID = "user-1";
+    private static final Long ANIME_ID = 20L;
+
+    private final UserAnimeRatingRepository ratingRepository = mock(UserAnimeRatingRepository.class);
+    private final AnimeRepository animeRepository = mock(AnimeRepository.class);
+    private final AnimeRatingAggregateService aggregateService = mock(AnimeRatingAggregateService.class);
+    private UserAnimeRatingService service;
+
+    @BeforeEach
+    void setUp() {
+        when(animeRepository.existsByMalId(ANIME_ID)).thenReturn(true);
+        when(ratingRepository.save(any(UserAnimeRating.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new UserAnimeRatingService(ratingRepository, animeRepository, mock(UserAnimeRatingMapper.class),
+                mock(AnimeSearchService.class), mock(KeysetCursorCodec.class), aggregateService,
+                mock(CommunityLeaderboardService.class), mock(RatingMatrixService.class), mock(UserRatingCache.class),
+                mock(ReviewVoteService.class), mock(OutboxService.class));
+    }
+
+    @Test
+    void newRatingHasNoBeforeSnapshot() {
+        when(ratingRepository.findForUpdate(USER_ID, ANIME_ID)).thenReturn(Optional.empty());
+
+        service.addOrUpdateRating(USER_ID, request(8, 7, 9, 6));
+
+        verify(aggregateService).recordChange(ANIME_ID, null, new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6));
+    }
+
+    @Test
+    void updatedRatingPassesTheLockedRowAsBefore() {
+        when(ratingRepository.findForUpdate(USER_ID, ANIME_ID)).thenReturn(Optional.of(existing(5, 5, 5, 5)));
+
+        service.addOrUpdateRating(USER_ID, request(8, 7, 9, 6));
+
+        verify(aggregateService).recordChange(ANIME_ID,
+                new AnimeRatingAggregateService.Snapshot(5, 5, 5, 5),
+                new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6));
+    }
+
+    @Test
+    void deletedRatingHasNoAfterSnapshot() {
+        when(ratingRepository.findForUpdate(USER_ID, ANIME_ID)).thenReturn(Optional.of(existing(8, 7, 9, 6)));
+
+        service.deleteRating(USER_ID, ANIME_ID);
+
+        verify(aggregateService).recordChange(ANIME_ID, new AnimeRatingAggregateService.Snapshot(8, 7, 9, 6), null);
+    }
+
+    @Test
+    void deletingAMissingRatingRecordsNothing() {
+        when(ratingRepository.findForUpdate(anyString(), any())).thenReturn(Optional.empty());
+
+        service.deleteRating(USER_ID, ANIME_ID);
+
+        verify(aggregateService, never()).recordChange(any(), any(), any());
+    }
+
+    private static UserAnimeRatingRequestDTO request(int overall, int story, int animation, int character) {
+        return UserAnimeRatingRequestDTO.builder()
+                .animeId(ANIME_ID)
+                .overallRating(overall)
+                .storyRating(story)
+                .animationRating(animation)
+                .characterRating(character)
+                .build();
+    }
+
+    private static UserAnimeRating existing(int overall, int story, int animation, int character) {
+        return UserAnimeRating.builder()
+                .userId(USER_ID)
+                .animeId(ANIME_ID)
+                .overallRating(overall)
+                .storyRating(story)
+                .animationRating(animation)
+                .characterRating(character)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.anipulse.animeservice.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Build and query cost of {@link SparseRatingMatrix} at a million synthetic ratings.
+ * Skipped in normal builds, run with: mvn test -Dtest=SparseRatingMatrixBenchmark -Dbenchmark=true
+ * Anime popularity is skewed (a few titles collect most ratings) so columns look like production ones.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SparseRatingMatrixBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int ANIME = 15_000;
+    private static final int RATINGS_PER_USER = 50;
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 2_000;
+
+    @Test
+    void millionRatings() {
+        Random random = new Random(42);
+
+        long buildStart = System.nanoTime();
+        SparseRatingMatrix.Builder builder = SparseRatingMatrix.builder(USERS * RATINGS_PER_USER);
+        for (int u = 0; u < USERS; u++) {
+            // Distinct anime per user: an odd stride cycles through more than RATINGS_PER_USER residues of ANIME
+            int start = skewed(random);
+            int stride = 1 + 2 * random.nextInt(64);
+            for (int i = 0; i < RATINGS_PER_USER; i++) {
+                builder.add("user-" + u, (start + (long) i * stride) % ANIME, 1 + random.nextInt(10));
+            }
+        }
+        SparseRatingMatrix matrix = builder.build();
+        double buildMs = (System.nanoTime() - buildStart) / 1e6;
+        assertEquals(USERS * RATINGS_PER_USER, matrix.ratingCount());
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            checksum += matrix.mostSimilar("user-" + random.nextInt(USERS), 3, 20).size();
+        }
+        long queryStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            checksum += matrix.mostSimilar("user-" + random.nextInt(USERS), 3, 20).size();
+        }
+        double queryMs = (System.nanoTime() - queryStart) / 1e6 / MEASURED_QUERIES;
+        assertTrue(checksum > 0);
+
+        System.out.printf("SparseRatingMatrix: %d ratings, %d users, %d anime; build %.0f ms, mostSimilar %.3f ms/query%n",
+                matrix.ratingCount(), matrix.userCount(), matrix.animeCount(), buildMs, queryMs);
+    }
+
+    // Squared uniform: low anime indexes are far more popular
+    private static int skewed(Random random) {
+        double x = random.nextDouble();
+        return (int) (x * x * ANIME);
+    }
+}
@@ -0,0 +1,127 @@
+package com.anipulse.animeservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseRatingMatrixTest {
+
+    @Test
+    void unknownUserHasNoSimilarUsers() {
+        SparseRatingMatrix matrix = SparseRatingMatrix.builder(4)
+                .add("alice", 1, 8)
+                .add("bob", 1, 8)
+                .build();
+
+        assertTrue(matrix.mostSimilar("nobody", 1, 10).isEmpty());
+        assertTrue(matrix.mostSimilar("alice", 1, 0).isEmpty());
+    }
+
+    @Test
+    void queryUserIsNotItsOwnNeighbor() {
+        SparseRatingMatrix matrix = SparseRatingMatrix.builder(4)
+                .add("alice", 1, 8)
+                .add("alice", 2, 6)
+                .add("bob", 1, 8)
+                .build();
+
+        assertEquals(List.of("bob"), userIds(matrix.mostSimilar("alice", 1, 10)));
+    }
+
+    @Test
+    void usersBelowMinCommonRatingsAreLeftOut() {
+        SparseRatingMatrix matrix = SparseRatingMatrix.builder(16)
+                .add("alice", 1, 8).add("alice", 2, 6).add("alice", 3, 4)
+                .add("bob", 1, 8)
+                .add("carol", 1, 7).add("carol", 2, 6)
+                .add("dave", 1, 1).add("dave", 2, 1).add("dave", 3, 1)
+                .build();
+
+        List<SparseRatingMatrix.Similarity> atLeastTwo = matrix.mostSimilar("alice", 2, 10);
+        assertEquals(List.of("carol", "dave"), userIds(atLeastTwo));
+        assertEquals(2, atLeastTwo.get(0).commonRatings());
+        assertEquals(0.5, atLeastTwo.get(0).meanAbsoluteDifference(), 1e-9);
+
+        assertEquals(List.of("dave"), userIds(matrix.mostSimilar("alice", 3, 10)));
+        // A threshold below one still requires a shared anime
+        assertEquals(List.of("bob", "carol", "dave"), userIds(matrix.mostSimilar("alice", 0, 10)));
+    }
+
+    @Test
+    void tiesPreferMoreCommonRatingsThenInsertionOrder() {
+        SparseRatingMatrix matrix = SparseRatingMatrix.builder(16)
+                .add("alice", 1, 8).add("alice", 2, 6)
+                // Mean difference 1 over one shared anime
+                .add("bob", 1, 7)
+                // Mean difference 1 over two shared anime
+                .add("carol", 1, 9).add("carol", 2, 5)
+                // Same as bob, added later
+                .add("dave", 1, 9)
+                // Exact match on one anime
+                .add("erin", 2, 6)
+                .build();
+
+        List<SparseRatingMatrix.Similarity> result = matrix.mostSimilar("alice", 1, 10);
+        assertEquals(List.of("erin", "carol", "bob", "dave"), userIds(result));
+        assertEquals(0.0, result.get(0).meanAbsoluteDifference(), 1e-9);
+        assertEquals(2, result.get(1).commonRatings());
+    }
+
+    @Test
+    void keepsOnlyTheClosestK() {
+        SparseRatingMatrix.Builder builder = SparseRatingMatrix.builder(64);
+        builder.add("alice", 1, 10);
+        // user-d differs from alice by d
+        for (int d = 9; d >= 0; d--) {
+            builder.add("user-" + d, 1, 10 - d);
+        }
+        SparseRatingMatrix matrix = builder.build();
+
+        assertEquals(List.of("user-0", "user-1", "user-2"), userIds(matrix.mostSimilar("alice", 1, 3)));
+        assertEquals(10, matrix.mostSimilar("alice", 1, 50).size());
+    }
+
+    @Test
+    void builderGrowsPastItsExpectedSize() {
+        // Starts at 16 entries and 1024 anime columns, both have to grow several times
+        SparseRatingMatrix.Builder builder = SparseRatingMatrix.builder(1);
+        Map<String, Integer> expected = new HashMap<>();
+        for (int u = 0; u < 50; u++) {
+            for (int a = 0; a < 200; a++) {
+                long animeId = u * 100L + a;
+                int rating = 1 + (u + a) % 10;
+                builder.add("user-" + u, animeId, rating);
+                expected.put("user-" + u + ":" + animeId, rating);
+            }
+        }
+        SparseRatingMatrix matrix = builder.build();
+
+        assertEquals(10_000, matrix.ratingCount());
+        assertEquals(50, matrix.userCount());
+        assertEquals(5_100, matrix.animeCount());
+
+        Map<String, Integer> actual = new HashMap<>();
+        matrix.forEach((userId, animeId, rating) -> actual.put(userId + ":" + animeId, rating));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void rejectsRatingsOutsideOneToTen() {
+        SparseRatingMatrix.Builder builder = SparseRatingMatrix.builder(4);
+        assertThrows(IllegalArgumentException.class, () -> builder.add("alice", 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> builder.add("alice", 1, 11));
+    }
+
+    private static List<String> userIds(List<SparseRatingMatrix.Similarity> similarities) {
+        List<String> ids = new ArrayList<>();
+        similarities.forEach(similarity -> ids.add(similarity.userId()));
+        return ids;
+    }
+}
@@ -0,0 +1,63 @@
+package com.anipulse.recommendationservice.client;
+
+import com.anipulse.recommendationservice.config.RecommendationProperties;
+import com.anipulse.recommendationservice.dto.InteractionDTO;
+import com.anipulse.recommendationservice.dto.InteractionPageDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads training data from anime-service's /recommendation-data endpoints
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnimeServiceClient {
+
+    public enum Feed {
+        COMPLETED("completed"),
+        RATINGS("ratings");
+
+        private final String path;
+
+        Feed(String path) {
+            this.path = path;
+        }
+    }
+
+    private final RestClient animeServiceRestClient;
+    private final RecommendationProperties properties;
+
+    /**
+     * Page through a whole interaction feed, handing every interaction to the consumer.
+     * Pages are keyset-paginated on the server, so a long walk costs the same per page throughout.
+     */
+    public long forEachInteraction(Feed feed, Consumer<InteractionDTO> consumer) {
+        long count = 0;
+        String cursor = null;
+        do {
+            String after = cursor;
+            InteractionPageDTO page = animeServiceRestClient.get()
+                    .uri(uri -> uri.path("/recommendation-data/interactions/" + feed.path)
+                            .queryParam("size", properties.getPageSize())
+                            .queryParamIfPresent("cursor", Optional.ofNullable(after))
+                            .build())
+                    .retrieve()
+                    .body(InteractionPageDTO.class);
+            if (page == null || page.getContent() == null) {
+                break;
+            }
+            page.getContent().forEach(consumer);
+            count += page.getContent().size();
+            cursor = page.isHasNext() ? page.getNextCursor() : null;
+        } while (cursor != null);
+
+        log.debug("Read {} interactions from the {} feed", count, feed.path);
+        return count;
+    }
+}
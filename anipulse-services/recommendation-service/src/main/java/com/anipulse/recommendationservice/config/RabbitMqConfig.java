@@ -0,0 +1,70 @@
+package com.anipulse.recommendationservice.config;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Consumes the list change events anime-service publishes to anime.exchange.
+ * Every instance holds its own model, so every instance needs the whole stream: each one binds a queue of its
+ * own instead of competing for anime.queue. The queue is server-named, exclusive and auto-deleted, events
+ * published while an instance is down are covered by the full load it trains on when it starts.
+ * Concurrency, prefetch and batch size come from spring.rabbitmq.listener.simple.
+ */
+@Configuration
+public class RabbitMqConfig {
+
+    public static final String LIST_CHANGE_CONTAINER_FACTORY = "listChangeContainerFactory";
+
+    @Value("${rabbitmq.exchange.name}")
+    private String exchange;
+
+    @Value("${rabbitmq.routing.key}")
+    private String routingKey;
+
+    @Value("${rabbitmq.queue.prefix}")
+    private String queuePrefix;
+
+    /**
+     * Declared as anime-service declares it, so the binding can be made before anime-service has run
+     */
+    @Bean
+    public TopicExchange animeExchange() {
+        return new TopicExchange(exchange);
+    }
+
+    @Bean
+    public Queue listChangeQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(queuePrefix));
+    }
+
+    @Bean
+    public Binding listChangeBinding(Queue listChangeQueue, TopicExchange animeExchange) {
+        return BindingBuilder.bind(listChangeQueue).to(animeExchange).with(routingKey);
+    }
+
+    /**
+     * Hands each consumer's messages to the listener a batch at a time (a shorter one when no message arrives
+     * for the container's one second receive timeout); the listener acknowledges a batch with one multiple ack
+     */
+    @Bean(LIST_CHANGE_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory listChangeContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,42 @@
+package com.anipulse.recommendationservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.recommendation")
+@Data
+public class RecommendationProperties {
+
+    // Base URL of anime-service, resolved through the load balancer
+    private String animeServiceUrl = "http://ANIME-SERVICE/api/anime";
+
+    // Interactions fetched per request while loading training data
+    private int pageSize = 5000;
+
+    // Score of a completed entry the user did not rate
+    private double implicitScore = 7.0;
+
+    // Neighbors kept per anime
+    private int neighbors = 50;
+
+    // Users two anime must have in common before their similarity counts
+    private int minOverlap = 3;
+
+    // Threads computing similarities, 0 for one per core
+    private int parallelism = 0;
+
+    // Delay between full retrains (read by @Scheduled, so plain millisecond values)
+    private long retrainIntervalMs = 6 * 60 * 60 * 1000L;
+    private long initialDelayMs = 15_000;
+
+    // Delay between merges of list and rating events into the served model
+    private long updateIntervalMs = 1000;
+
+    // How long the last applied sequence of an entry is remembered to discard redelivered events
+    private long eventStateRetentionMs = 10 * 60 * 1000L;
+
+    // Upper bound for the number of recommendations per request
+    private int maxResults = 100;
+}
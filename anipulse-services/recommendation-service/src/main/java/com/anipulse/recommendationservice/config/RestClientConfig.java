@@ -0,0 +1,54 @@
+package com.anipulse.recommendationservice.config;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.client.OAuth2ClientHttpRequestInterceptor;
+import org.springframework.web.client.RestClient;
+
+/**
+ * HTTP client for anime-service: resolved through Eureka and authenticated with the service account's
+ * client-credentials token, which Spring caches and renews before it expires
+ */
+@Configuration
+public class RestClientConfig {
+
+    public static final String ANIME_SERVICE_REGISTRATION = "anime-service";
+
+    @Bean
+    @LoadBalanced
+    public RestClient.Builder loadBalancedRestClientBuilder() {
+        return RestClient.builder();
+    }
+
+    /**
+     * Authorizes outside of any user request (scheduled training), so tokens are kept per client, not per session
+     */
+    @Bean
+    public OAuth2AuthorizedClientManager authorizedClientManager(ClientRegistrationRepository clientRegistrationRepository,
+                                                                 OAuth2AuthorizedClientService authorizedClientService) {
+        AuthorizedClientServiceOAuth2AuthorizedClientManager manager =
+                new AuthorizedClientServiceOAuth2AuthorizedClientManager(clientRegistrationRepository, authorizedClientService);
+        manager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build());
+        return manager;
+    }
+
+    @Bean
+    public RestClient animeServiceRestClient(@LoadBalanced RestClient.Builder loadBalancedRestClientBuilder,
+                                             OAuth2AuthorizedClientManager authorizedClientManager,
+                                             RecommendationProperties properties) {
+        OAuth2ClientHttpRequestInterceptor interceptor = new OAuth2ClientHttpRequestInterceptor(authorizedClientManager);
+        interceptor.setClientRegistrationIdResolver(request -> ANIME_SERVICE_REGISTRATION);
+        return loadBalancedRestClientBuilder
+                .baseUrl(properties.getAnimeServiceUrl())
+                .requestInterceptor(interceptor)
+                .build();
+    }
+}
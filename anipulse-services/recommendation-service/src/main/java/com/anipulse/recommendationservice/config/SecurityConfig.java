@@ -0,0 +1,53 @@
+package com.anipulse.recommendationservice.config;
+
+import com.anipulse.sharedservice.security.KeycloakRealmRoleConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Security configuration for recommendation-service
+ * Configures JWT authentication with Keycloak
+ */
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth
+                        // Public: anime similar to an anime
+                        .requestMatchers(HttpMethod.GET, "/anime/{animeId}/similar").permitAll()
+
+                        // Actuator endpoints
+                        .requestMatchers("/actuator/**").permitAll()
+
+                        // PROTECTED: the caller's recommendations
+                        .requestMatchers(HttpMethod.GET, "/me").authenticated()
+
+                        // All other requests require authentication
+                        .anyRequest().authenticated()
+                )
+                .oauth2ResourceServer(oAuth -> oAuth.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)))
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .build();
+    }
+
+    /**
+     * Configure JWT authentication converter with Keycloak role mapping
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
+        return converter;
+    }
+}
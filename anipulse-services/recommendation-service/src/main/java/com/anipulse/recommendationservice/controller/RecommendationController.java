@@ -0,0 +1,45 @@
+package com.anipulse.recommendationservice.controller;
+
+import com.anipulse.recommendationservice.dto.RecommendationDTO;
+import com.anipulse.recommendationservice.dto.SimilarAnimeDTO;
+import com.anipulse.recommendationservice.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for anime recommendations
+ * Anime IDs are catalog IDs (anime.id in anime-service)
+ */
+@RestController
+@RequiredArgsConstructor
+public class RecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    // Get recommendations for the caller, from the anime they completed and rated (PROTECTED)
+    @GetMapping("/me")
+    public ResponseEntity<List<RecommendationDTO>> getMyRecommendations(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        String userId = jwt.getClaim("sub");
+        return ResponseEntity.ok(recommendationService.recommend(userId, limit));
+    }
+
+    // Get the anime most similar to an anime (PUBLIC)
+    @GetMapping("/anime/{animeId}/similar")
+    public ResponseEntity<List<SimilarAnimeDTO>> getSimilarAnime(
+            @PathVariable Long animeId,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(recommendationService.similarAnime(animeId, limit));
+    }
+}
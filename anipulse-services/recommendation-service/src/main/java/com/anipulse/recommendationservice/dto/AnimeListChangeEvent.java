@@ -0,0 +1,44 @@
+package com.anipulse.recommendationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * List or rating change published by anime-service on anime.exchange, animeId is the catalog id
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeListChangeEvent {
+
+    public enum Type {
+        UPSERT,
+        DELETE,
+        RATING_UPSERT,
+        RATING_DELETE
+    }
+
+    private Type type;
+    private String userId;
+    private Long animeId;
+
+    /**
+     * Watch status of the list entry (UPSERT only)
+     */
+    private String status;
+    private Integer progress;
+
+    /**
+     * List rating for UPSERT, overall rating for RATING_UPSERT, 1-10 or null
+     */
+    private Double rating;
+    private Long timestamp;
+
+    /**
+     * Monotonic across all events, a lower sequence than one already applied to the same entry is stale
+     */
+    private Long sequence;
+}
@@ -0,0 +1,23 @@
+package com.anipulse.recommendationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Envelope anime-service packs a micro-batch of change events into, one per AMQP message
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeListChangeEventBatch {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    private int schemaVersion;
+    private List<AnimeListChangeEvent> events;
+}
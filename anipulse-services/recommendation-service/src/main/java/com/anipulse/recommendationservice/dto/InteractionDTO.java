@@ -0,0 +1,23 @@
+package com.anipulse.recommendationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user-anime interaction as served by anime-service's /recommendation-data/interactions feeds
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionDTO {
+    private String userId;
+    private Long animeId;
+
+    /**
+     * Rating 1-10, null for a completed entry the user did not rate
+     */
+    private Double score;
+}
@@ -0,0 +1,21 @@
+package com.anipulse.recommendationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an interaction feed, pass nextCursor back for the following page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionPageDTO {
+    private List<InteractionDTO> content;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.anipulse.recommendationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationDTO {
+    /**
+     * Catalog ID (anime.id in anime-service)
+     */
+    private Long animeId;
+
+    // Ranking score: sum over the user's anime of similarity times how much the user liked it
+    private double score;
+
+    // Rating the user would be expected to give, on the 1-10 scale
+    private double predictedRating;
+}
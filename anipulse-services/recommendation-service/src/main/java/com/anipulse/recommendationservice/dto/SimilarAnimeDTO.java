@@ -0,0 +1,17 @@
+package com.anipulse.recommendationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarAnimeDTO {
+    private Long animeId;
+
+    // Adjusted cosine similarity, 0-1 (only positive neighbors are kept)
+    private double similarity;
+}
@@ -0,0 +1,298 @@
+package com.anipulse.recommendationservice.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable sparse user x anime matrix of interaction scores (1-10), held in primitive arrays twice:
+ * CSR (row per user) to walk a user's anime and CSC (column per anime) to walk an anime's users.
+ * Next to the raw scores both orientations carry the scores minus the user's mean, which is what
+ * adjusted cosine similarity works on. A million interactions take about 30 MB.
+ * Every interaction also records whether its score is an explicit rating or came from a completed list entry,
+ * so incremental updates know which source a later change may override.
+ */
+public final class InteractionMatrix {
+
+    @FunctionalInterface
+    public interface InteractionConsumer {
+        void accept(String userId, long animeId, float score, boolean explicit);
+    }
+
+    private final String[] userIds;
+    private final Map<String, Integer> userIndex;
+    private final long[] animeIds;
+    private final Map<Long, Integer> animeIndex;
+    private final float[] userMeans;
+
+    // CSR: anime of user u are rowItems/rowScores/rowCentered[rowPtr[u] .. rowPtr[u + 1]), sorted by anime index
+    final int[] rowPtr;
+    final int[] rowItems;
+    final float[] rowScores;
+    final float[] rowCentered;
+    final boolean[] rowExplicit;
+
+    // CSC: users of anime a are colUsers/colCentered[colPtr[a] .. colPtr[a + 1])
+    final int[] colPtr;
+    final int[] colUsers;
+    final float[] colCentered;
+
+    private InteractionMatrix(String[] userIds, Map<String, Integer> userIndex,
+                              long[] animeIds, Map<Long, Integer> animeIndex,
+                              int[] rowPtr, int[] rowItems, float[] rowScores, boolean[] rowExplicit) {
+        this.userIds = userIds;
+        this.userIndex = userIndex;
+        this.animeIds = animeIds;
+        this.animeIndex = animeIndex;
+        this.rowPtr = rowPtr;
+        this.rowItems = rowItems;
+        this.rowScores = rowScores;
+        this.rowExplicit = rowExplicit;
+
+        int size = rowItems.length;
+        this.userMeans = new float[userIds.length];
+        this.rowCentered = new float[size];
+        for (int u = 0; u < userIds.length; u++) {
+            int from = rowPtr[u];
+            int to = rowPtr[u + 1];
+            if (from == to) {
+                continue;
+            }
+            double sum = 0;
+            for (int p = from; p < to; p++) {
+                sum += rowScores[p];
+            }
+            float mean = (float) (sum / (to - from));
+            userMeans[u] = mean;
+            for (int p = from; p < to; p++) {
+                rowCentered[p] = rowScores[p] - mean;
+            }
+        }
+
+        // Counting sort of the CSR entries into columns, O(interactions + anime)
+        this.colPtr = new int[animeIds.length + 1];
+        this.colUsers = new int[size];
+        this.colCentered = new float[size];
+        for (int p = 0; p < size; p++) {
+            colPtr[rowItems[p] + 1]++;
+        }
+        for (int a = 0; a < animeIds.length; a++) {
+            colPtr[a + 1] += colPtr[a];
+        }
+        int[] next = Arrays.copyOf(colPtr, animeIds.length);
+        for (int u = 0; u < userIds.length; u++) {
+            for (int p = rowPtr[u]; p < rowPtr[u + 1]; p++) {
+                int c = next[rowItems[p]]++;
+                colUsers[c] = u;
+                colCentered[c] = rowCentered[p];
+            }
+        }
+    }
+
+    public static Builder builder(int expectedInteractions) {
+        return new Builder(expectedInteractions);
+    }
+
+    /**
+     * Builder that starts with the users and anime of base at the same indexes, new ones are appended.
+     * Neighbor lists computed on base stay valid by index for the matrix it builds.
+     */
+    public static Builder builder(InteractionMatrix base, int expectedInteractions) {
+        Builder builder = new Builder(expectedInteractions);
+        builder.userIds.addAll(Arrays.asList(base.userIds));
+        builder.userIndex.putAll(base.userIndex);
+        builder.animeIds = Arrays.copyOf(base.animeIds, Math.max(1024, base.animeIds.length * 2));
+        builder.animeIndex.putAll(base.animeIndex);
+        return builder;
+    }
+
+    public int interactionCount() {
+        return rowItems.length;
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int animeCount() {
+        return animeIds.length;
+    }
+
+    /**
+     * Row index of the user, -1 when the user has no interactions
+     */
+    public int userIndexOf(String userId) {
+        Integer index = userIndex.get(userId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Column index of the anime, -1 when nobody interacted with it
+     */
+    public int animeIndexOf(long animeId) {
+        Integer index = animeIndex.get(animeId);
+        return index != null ? index : -1;
+    }
+
+    public long animeId(int animeIndex) {
+        return animeIds[animeIndex];
+    }
+
+    public String userId(int userIndex) {
+        return userIds[userIndex];
+    }
+
+    public float userMean(int userIndex) {
+        return userMeans[userIndex];
+    }
+
+    /**
+     * Position of the (user, anime) interaction, -1 when there is none. Binary search within the user's row.
+     */
+    public int positionOf(String userId, long animeId) {
+        int user = userIndexOf(userId);
+        int anime = animeIndexOf(animeId);
+        if (user < 0 || anime < 0) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(rowItems, rowPtr[user], rowPtr[user + 1], anime);
+        return position >= 0 ? position : -1;
+    }
+
+    public float scoreAt(int position) {
+        return rowScores[position];
+    }
+
+    public boolean isExplicitAt(int position) {
+        return rowExplicit[position];
+    }
+
+    public void forEach(InteractionConsumer consumer) {
+        for (int u = 0; u < userIds.length; u++) {
+            for (int p = rowPtr[u]; p < rowPtr[u + 1]; p++) {
+                consumer.accept(userIds[u], animeIds[rowItems[p]], rowScores[p], rowExplicit[p]);
+            }
+        }
+    }
+
+    /**
+     * Collects (user, anime, score) triples in growable primitive arrays, then sorts them into CSR/CSC.
+     * A pair added more than once keeps the score added last.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> userIndex = new HashMap<>();
+        private final List<String> userIds = new ArrayList<>();
+        private final Map<Long, Integer> animeIndex = new HashMap<>();
+        private long[] animeIds = new long[1024];
+        private int[] users;
+        private int[] items;
+        private float[] scores;
+        private boolean[] explicit;
+        private int size;
+
+        private Builder(int expectedInteractions) {
+            int capacity = Math.max(16, expectedInteractions);
+            users = new int[capacity];
+            items = new int[capacity];
+            scores = new float[capacity];
+            explicit = new boolean[capacity];
+        }
+
+        public Builder add(String userId, long animeId, float score) {
+            return add(userId, animeId, score, false);
+        }
+
+        public Builder add(String userId, long animeId, float score, boolean explicitRating) {
+            if (size == users.length) {
+                int capacity = size * 2;
+                users = Arrays.copyOf(users, capacity);
+                items = Arrays.copyOf(items, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+                explicit = Arrays.copyOf(explicit, capacity);
+            }
+
+            Integer user = userIndex.get(userId);
+            if (user == null) {
+                user = userIds.size();
+                userIndex.put(userId, user);
+                userIds.add(userId);
+            }
+            Integer column = animeIndex.get(animeId);
+            if (column == null) {
+                column = animeIndex.size();
+                if (column == animeIds.length) {
+                    animeIds = Arrays.copyOf(animeIds, column * 2);
+                }
+                animeIds[column] = animeId;
+                animeIndex.put(animeId, column);
+            }
+
+            users[size] = user;
+            items[size] = column;
+            scores[size] = score;
+            explicit[size] = explicitRating;
+            size++;
+            return this;
+        }
+
+        public InteractionMatrix build() {
+            int userCount = userIds.size();
+
+            // Stable counting sort into rows, so within a row entries keep the order they were added in
+            int[] rowPtr = new int[userCount + 1];
+            for (int i = 0; i < size; i++) {
+                rowPtr[users[i] + 1]++;
+            }
+            for (int u = 0; u < userCount; u++) {
+                rowPtr[u + 1] += rowPtr[u];
+            }
+            int[] next = Arrays.copyOf(rowPtr, userCount);
+            int[] sortedItems = new int[size];
+            float[] sortedScores = new float[size];
+            boolean[] sortedExplicit = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                int r = next[users[i]]++;
+                sortedItems[r] = items[i];
+                sortedScores[r] = scores[i];
+                sortedExplicit[r] = explicit[i];
+            }
+
+            // Sort each row by anime and keep the last added score of a repeated anime
+            int[] compactPtr = new int[userCount + 1];
+            int[] compactItems = new int[size];
+            float[] compactScores = new float[size];
+            boolean[] compactExplicit = new boolean[size];
+            int written = 0;
+            long[] keys = new long[16];
+            for (int u = 0; u < userCount; u++) {
+                int from = rowPtr[u];
+                int length = rowPtr[u + 1] - from;
+                if (keys.length < length) {
+                    keys = new long[Math.max(length, keys.length * 2)];
+                }
+                for (int p = 0; p < length; p++) {
+                    keys[p] = ((long) sortedItems[from + p] << 32) | p;
+                }
+                Arrays.sort(keys, 0, length);
+                for (int p = 0; p < length; p++) {
+                    int item = (int) (keys[p] >>> 32);
+                    if (p + 1 < length && (int) (keys[p + 1] >>> 32) == item) {
+                        continue;
+                    }
+                    compactItems[written] = item;
+                    compactScores[written] = sortedScores[from + (int) keys[p]];
+                    compactExplicit[written] = sortedExplicit[from + (int) keys[p]];
+                    written++;
+                }
+                compactPtr[u + 1] = written;
+            }
+
+            return new InteractionMatrix(userIds.toArray(String[]::new), userIndex,
+                    Arrays.copyOf(animeIds, animeIndex.size()), animeIndex, compactPtr,
+                    Arrays.copyOf(compactItems, written), Arrays.copyOf(compactScores, written),
+                    Arrays.copyOf(compactExplicit, written));
+        }
+    }
+}
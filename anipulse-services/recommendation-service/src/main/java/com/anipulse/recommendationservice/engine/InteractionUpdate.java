@@ -0,0 +1,15 @@
+package com.anipulse.recommendationservice.engine;
+
+/**
+ * New state of one (user, anime) interaction: its score and whether that is an explicit rating, or its removal
+ */
+public record InteractionUpdate(String userId, long animeId, float score, boolean explicit, boolean removed) {
+
+    public static InteractionUpdate set(String userId, long animeId, float score, boolean explicit) {
+        return new InteractionUpdate(userId, animeId, score, explicit, false);
+    }
+
+    public static InteractionUpdate remove(String userId, long animeId) {
+        return new InteractionUpdate(userId, animeId, 0, false, true);
+    }
+}
@@ -0,0 +1,57 @@
+package com.anipulse.recommendationservice.engine;
+
+import java.util.Arrays;
+
+/**
+ * Top-K most similar anime per anime, by column index of the {@link InteractionMatrix} they were trained on.
+ * Each anime's list is sorted by similarity, highest first, and only holds positive similarities.
+ */
+public final class ItemNeighbors {
+
+    private static final int[] NO_ITEMS = new int[0];
+    private static final float[] NO_SIMILARITIES = new float[0];
+
+    private final int[][] items;
+    private final float[][] similarities;
+
+    ItemNeighbors(int[][] items, float[][] similarities) {
+        this.items = items;
+        this.similarities = similarities;
+    }
+
+    public int animeCount() {
+        return items.length;
+    }
+
+    public int[] itemsOf(int anime) {
+        int[] neighbors = items[anime];
+        return neighbors != null ? neighbors : NO_ITEMS;
+    }
+
+    public float[] similaritiesOf(int anime) {
+        float[] neighbors = similarities[anime];
+        return neighbors != null ? neighbors : NO_SIMILARITIES;
+    }
+
+    /**
+     * The outer arrays, resized to animeCount; the lists themselves are shared, never modify them in place
+     */
+    int[][] copyItems(int animeCount) {
+        return Arrays.copyOf(items, animeCount);
+    }
+
+    float[][] copySimilarities(int animeCount) {
+        return Arrays.copyOf(similarities, animeCount);
+    }
+
+    /**
+     * Number of (anime, neighbor) pairs kept
+     */
+    public long pairCount() {
+        long count = 0;
+        for (int[] neighbors : items) {
+            count += neighbors != null ? neighbors.length : 0;
+        }
+        return count;
+    }
+}
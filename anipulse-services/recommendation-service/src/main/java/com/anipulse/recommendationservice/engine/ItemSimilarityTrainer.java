@@ -0,0 +1,248 @@
+package com.anipulse.recommendationservice.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes {@link ItemNeighbors} by adjusted cosine similarity: the cosine of two anime's columns
+ * after every score had its user's mean subtracted, so a user who rates everything high does not make
+ * everything look alike.
+ * <p>
+ * The neighbors of anime i come from one walk over i's users and each of their rows, accumulating the dot
+ * products with every co-occurring anime in dense scratch arrays, O(sum of those rows' lengths). Anime are
+ * split into ranges that a fork/join pool processes in parallel, each leaf with its own scratch arrays.
+ * <p>
+ * {@link #update} redoes that walk for the anime whose columns changed only, and patches the lists that
+ * point at them, so a handful of new interactions costs milliseconds instead of a retrain.
+ */
+public final class ItemSimilarityTrainer {
+
+    private ItemSimilarityTrainer() {
+    }
+
+    public static ItemNeighbors train(InteractionMatrix matrix, int k, int minOverlap, ForkJoinPool pool) {
+        int animeCount = matrix.animeCount();
+        double[] norms = columnNorms(matrix);
+        int[][] items = new int[animeCount][];
+        float[][] similarities = new float[animeCount][];
+
+        // About eight leaves per thread, so a range of heavy anime does not hold up the whole run
+        int threshold = Math.max(16, animeCount / (pool.getParallelism() * 8));
+        pool.invoke(new NeighborTask(matrix, norms, k, minOverlap, items, similarities, 0, animeCount, threshold));
+        return new ItemNeighbors(items, similarities);
+    }
+
+    /**
+     * Neighbors for a matrix built from the one previous was trained on, with the same indexes for the anime
+     * they share (see {@link InteractionMatrix#builder(InteractionMatrix, int)}).
+     * The lists of the changed anime are recomputed; in every other list the entries for changed anime are
+     * replaced by their current similarity. Other pairs keep their trained values, although users' means shift
+     * a little with every change, and a list that loses an entry stays short; the next retrain settles both.
+     */
+    public static ItemNeighbors update(InteractionMatrix matrix, ItemNeighbors previous, int[] changed,
+                                       int k, int minOverlap) {
+        int animeCount = matrix.animeCount();
+        double[] norms = columnNorms(matrix);
+        int[][] items = previous.copyItems(animeCount);
+        float[][] similarities = previous.copySimilarities(animeCount);
+
+        boolean[] isChanged = new boolean[animeCount];
+        for (int anime : changed) {
+            isChanged[anime] = true;
+        }
+
+        // Current similarity of every (other, changed) pair that still qualifies, grouped by other
+        Map<Integer, List<double[]>> patches = new HashMap<>();
+        Scratch scratch = new Scratch(animeCount);
+        int threshold = Math.max(1, minOverlap);
+        for (int anime : changed) {
+            double norm = norms[anime];
+            int touchedCount = accumulate(matrix, anime, scratch);
+            TopK best = new TopK(k);
+            for (int t = 0; t < touchedCount; t++) {
+                int other = scratch.touched[t];
+                double dot = scratch.dot[other];
+                if (norm > 0 && scratch.overlap[other] >= threshold && dot > 0 && norms[other] > 0) {
+                    double similarity = dot / (norm * norms[other]);
+                    best.offer(other, similarity);
+                    if (!isChanged[other]) {
+                        patches.computeIfAbsent(other, key -> new ArrayList<>()).add(new double[]{anime, similarity});
+                    }
+                }
+                scratch.dot[other] = 0;
+                scratch.overlap[other] = 0;
+            }
+            store(best, anime, items, similarities);
+        }
+
+        // Anime added since previous only have interactions that changed, so the rest all come from previous
+        for (int anime = 0; anime < previous.animeCount(); anime++) {
+            if (isChanged[anime]) {
+                continue;
+            }
+            List<double[]> patch = patches.get(anime);
+            int[] neighborItems = previous.itemsOf(anime);
+            float[] neighborSimilarities = previous.similaritiesOf(anime);
+            boolean pointsAtChanged = false;
+            for (int neighbor : neighborItems) {
+                pointsAtChanged |= isChanged[neighbor];
+            }
+            if (patch == null && !pointsAtChanged) {
+                continue;
+            }
+
+            TopK best = new TopK(k);
+            for (int q = 0; q < neighborItems.length; q++) {
+                if (!isChanged[neighborItems[q]]) {
+                    best.offer(neighborItems[q], neighborSimilarities[q]);
+                }
+            }
+            if (patch != null) {
+                for (double[] entry : patch) {
+                    best.offer((int) entry[0], entry[1]);
+                }
+            }
+            store(best, anime, items, similarities);
+        }
+        return new ItemNeighbors(items, similarities);
+    }
+
+    /**
+     * Euclidean norm of every anime's mean-centered column
+     */
+    static double[] columnNorms(InteractionMatrix matrix) {
+        double[] norms = new double[matrix.animeCount()];
+        for (int a = 0; a < norms.length; a++) {
+            double sum = 0;
+            for (int c = matrix.colPtr[a]; c < matrix.colPtr[a + 1]; c++) {
+                sum += (double) matrix.colCentered[c] * matrix.colCentered[c];
+            }
+            norms[a] = Math.sqrt(sum);
+        }
+        return norms;
+    }
+
+    /**
+     * Dense per-thread accumulators, reset entry by entry after each anime
+     */
+    static final class Scratch {
+        private final double[] dot;
+        private final int[] overlap;
+        private int[] touched = new int[256];
+
+        Scratch(int animeCount) {
+            dot = new double[animeCount];
+            overlap = new int[animeCount];
+        }
+    }
+
+    /**
+     * Compute the neighbors of one anime into items[anime] / similarities[anime]
+     */
+    static void computeNeighbors(InteractionMatrix matrix, double[] norms, int anime, int k, int minOverlap,
+                                 Scratch scratch, int[][] items, float[][] similarities) {
+        double norm = norms[anime];
+        if (norm == 0) {
+            items[anime] = null;
+            similarities[anime] = null;
+            return;
+        }
+
+        int touchedCount = accumulate(matrix, anime, scratch);
+        TopK best = new TopK(k);
+        int threshold = Math.max(1, minOverlap);
+        for (int t = 0; t < touchedCount; t++) {
+            int other = scratch.touched[t];
+            double dot = scratch.dot[other];
+            if (scratch.overlap[other] >= threshold && dot > 0 && norms[other] > 0) {
+                best.offer(other, dot / (norm * norms[other]));
+            }
+            scratch.dot[other] = 0;
+            scratch.overlap[other] = 0;
+        }
+        store(best, anime, items, similarities);
+    }
+
+    /**
+     * Add the dot product and overlap of anime with every co-occurring anime to scratch,
+     * returns how many entries of scratch.touched were filled. The caller resets the entries it read.
+     */
+    private static int accumulate(InteractionMatrix matrix, int anime, Scratch scratch) {
+        int touchedCount = 0;
+        for (int c = matrix.colPtr[anime]; c < matrix.colPtr[anime + 1]; c++) {
+            int user = matrix.colUsers[c];
+            double centered = matrix.colCentered[c];
+            for (int p = matrix.rowPtr[user]; p < matrix.rowPtr[user + 1]; p++) {
+                int other = matrix.rowItems[p];
+                if (other == anime) {
+                    continue;
+                }
+                if (scratch.overlap[other]++ == 0) {
+                    if (touchedCount == scratch.touched.length) {
+                        scratch.touched = Arrays.copyOf(scratch.touched, touchedCount * 2);
+                    }
+                    scratch.touched[touchedCount++] = other;
+                }
+                scratch.dot[other] += centered * matrix.rowCentered[p];
+            }
+        }
+        return touchedCount;
+    }
+
+    private static void store(TopK best, int anime, int[][] items, float[][] similarities) {
+        int count = best.size();
+        int[] neighborItems = new int[count];
+        double[] neighborSimilarities = new double[count];
+        best.drainDescending(neighborItems, neighborSimilarities);
+        float[] compact = new float[count];
+        for (int i = 0; i < count; i++) {
+            compact[i] = (float) neighborSimilarities[i];
+        }
+        items[anime] = neighborItems;
+        similarities[anime] = compact;
+    }
+
+    private static final class NeighborTask extends RecursiveAction {
+        private final InteractionMatrix matrix;
+        private final double[] norms;
+        private final int k;
+        private final int minOverlap;
+        private final int[][] items;
+        private final float[][] similarities;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private NeighborTask(InteractionMatrix matrix, double[] norms, int k, int minOverlap,
+                             int[][] items, float[][] similarities, int from, int to, int threshold) {
+            this.matrix = matrix;
+            this.norms = norms;
+            this.k = k;
+            this.minOverlap = minOverlap;
+            this.items = items;
+            this.similarities = similarities;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                Scratch scratch = new Scratch(matrix.animeCount());
+                for (int anime = from; anime < to; anime++) {
+                    computeNeighbors(matrix, norms, anime, k, minOverlap, scratch, items, similarities);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighborTask(matrix, norms, k, minOverlap, items, similarities, from, middle, threshold),
+                    new NeighborTask(matrix, norms, k, minOverlap, items, similarities, middle, to, threshold));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.anipulse.recommendationservice.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A trained item-item model: the interactions it was trained on and the neighbors of every anime.
+ * Immutable; retraining, or applying a few updates, builds a new model that replaces this one.
+ */
+public final class RecommendationModel {
+
+    public record Recommendation(long animeId, double score, double predictedRating) {
+    }
+
+    public record Neighbor(long animeId, double similarity) {
+    }
+
+    private final InteractionMatrix matrix;
+    private final ItemNeighbors neighbors;
+    private final long trainedAt;
+
+    public RecommendationModel(InteractionMatrix matrix, ItemNeighbors neighbors, long trainedAt) {
+        this.matrix = matrix;
+        this.neighbors = neighbors;
+        this.trainedAt = trainedAt;
+    }
+
+    public InteractionMatrix matrix() {
+        return matrix;
+    }
+
+    public ItemNeighbors neighbors() {
+        return neighbors;
+    }
+
+    public long trainedAt() {
+        return trainedAt;
+    }
+
+    /**
+     * A model with the given interactions set or removed, trained at the same time as this one.
+     * Rebuilds the matrix in O(interactions) on the same indexes and recomputes only the neighbors that
+     * involve the anime whose columns changed, see {@link ItemSimilarityTrainer#update}.
+     */
+    public RecommendationModel apply(List<InteractionUpdate> updates, int k, int minOverlap) {
+        Map<String, Set<Long>> changedByUser = new HashMap<>();
+        for (InteractionUpdate update : updates) {
+            changedByUser.computeIfAbsent(update.userId(), userId -> new HashSet<>()).add(update.animeId());
+        }
+
+        InteractionMatrix.Builder builder = InteractionMatrix.builder(matrix,
+                matrix.interactionCount() + updates.size());
+        matrix.forEach((userId, animeId, score, explicit) -> {
+            Set<Long> changed = changedByUser.get(userId);
+            if (changed == null || !changed.contains(animeId)) {
+                builder.add(userId, animeId, score, explicit);
+            }
+        });
+        for (InteractionUpdate update : updates) {
+            if (!update.removed()) {
+                builder.add(update.userId(), update.animeId(), update.score(), update.explicit());
+            }
+        }
+        InteractionMatrix updated = builder.build();
+
+        int[] changedAnime = updates.stream()
+                .mapToInt(update -> updated.animeIndexOf(update.animeId()))
+                .filter(anime -> anime >= 0)
+                .distinct()
+                .toArray();
+        ItemNeighbors updatedNeighbors = ItemSimilarityTrainer.update(updated, neighbors, changedAnime, k, minOverlap);
+        return new RecommendationModel(updated, updatedNeighbors, trainedAt);
+    }
+
+    /**
+     * Up to n anime the user has not interacted with, best first.
+     * Every anime the user has contributes its neighbors, weighted by similarity times how far the user's
+     * score lies above their mean. A user whose scores are all equal (completed entries without ratings)
+     * has no such signal, each of their anime then counts as liked. Cost is O(user's anime * K).
+     */
+    public List<Recommendation> recommend(String userId, int n) {
+        int user = matrix.userIndexOf(userId);
+        if (user < 0 || n <= 0) {
+            return List.of();
+        }
+
+        int from = matrix.rowPtr[user];
+        int to = matrix.rowPtr[user + 1];
+        boolean flat = true;
+        for (int p = from; p < to; p++) {
+            if (matrix.rowCentered[p] != 0) {
+                flat = false;
+                break;
+            }
+        }
+
+        int animeCount = matrix.animeCount();
+        double[] score = new double[animeCount];
+        double[] weight = new double[animeCount];
+        boolean[] excluded = new boolean[animeCount];
+        for (int p = from; p < to; p++) {
+            excluded[matrix.rowItems[p]] = true;
+        }
+
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        for (int p = from; p < to; p++) {
+            int anime = matrix.rowItems[p];
+            double liking = flat ? 1 : matrix.rowCentered[p];
+            int[] neighborItems = neighbors.itemsOf(anime);
+            float[] neighborSimilarities = neighbors.similaritiesOf(anime);
+            for (int q = 0; q < neighborItems.length; q++) {
+                int candidate = neighborItems[q];
+                if (excluded[candidate]) {
+                    continue;
+                }
+                if (weight[candidate] == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = candidate;
+                }
+                weight[candidate] += neighborSimilarities[q];
+                score[candidate] += neighborSimilarities[q] * liking;
+            }
+        }
+
+        TopK best = new TopK(n);
+        for (int t = 0; t < touchedCount; t++) {
+            int candidate = touched[t];
+            if (score[candidate] > 0) {
+                best.offer(candidate, score[candidate]);
+            }
+        }
+
+        int count = best.size();
+        int[] items = new int[count];
+        double[] scores = new double[count];
+        best.drainDescending(items, scores);
+
+        float mean = matrix.userMean(user);
+        List<Recommendation> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int anime = items[i];
+            double predicted = flat ? mean : mean + score[anime] / weight[anime];
+            result.add(new Recommendation(matrix.animeId(anime), scores[i], Math.max(1, Math.min(10, predicted))));
+        }
+        return result;
+    }
+
+    /**
+     * Up to n most similar anime, most similar first
+     */
+    public List<Neighbor> similarTo(long animeId, int n) {
+        int anime = matrix.animeIndexOf(animeId);
+        if (anime < 0 || anime >= neighbors.animeCount()) {
+            return List.of();
+        }
+
+        int[] neighborItems = neighbors.itemsOf(anime);
+        float[] neighborSimilarities = neighbors.similaritiesOf(anime);
+        int count = Math.min(n, neighborItems.length);
+        List<Neighbor> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new Neighbor(matrix.animeId(neighborItems[i]), neighborSimilarities[i]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.anipulse.recommendationservice.engine;
+
+/**
+ * Keeps the k largest (id, value) pairs offered, in a min-heap on primitive arrays
+ */
+final class TopK {
+
+    private final int[] ids;
+    private final double[] values;
+    private int size;
+
+    TopK(int k) {
+        ids = new int[Math.max(1, k)];
+        values = new double[ids.length];
+    }
+
+    void offer(int id, double value) {
+        if (size < ids.length) {
+            ids[size] = id;
+            values[size] = value;
+            siftUp(size++);
+        } else if (value > values[0]) {
+            ids[0] = id;
+            values[0] = value;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Move the kept pairs into the arrays, largest first, and empty the heap
+     */
+    void drainDescending(int[] outIds, double[] outValues) {
+        for (int i = size - 1; i >= 0; i--) {
+            outIds[i] = ids[0];
+            outValues[i] = values[0];
+            size--;
+            ids[0] = ids[size];
+            values[0] = values[size];
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (values[parent] <= values[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && values[left + 1] < values[left] ? left + 1 : left;
+            if (values[i] <= values[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+}
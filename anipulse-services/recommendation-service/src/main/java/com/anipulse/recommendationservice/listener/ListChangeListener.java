@@ -0,0 +1,68 @@
+package com.anipulse.recommendationservice.listener;
+
+import com.anipulse.recommendationservice.config.RabbitMqConfig;
+import com.anipulse.recommendationservice.dto.AnimeListChangeEvent;
+import com.anipulse.recommendationservice.dto.AnimeListChangeEventBatch;
+import com.anipulse.recommendationservice.service.InteractionEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Feeds the list and rating events anime-service publishes into {@link InteractionEventService}.
+ * Messages are either an {@link AnimeListChangeEventBatch} (x-schema-version header) or, from before batching,
+ * a single event. A message that cannot be read or recorded is logged and acknowledged with the rest, so one bad
+ * message never leaves its batch unacknowledged; the next full retrain covers whatever it carried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ListChangeListener {
+
+    private static final String SCHEMA_VERSION_HEADER = "x-schema-version";
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private final ObjectMapper objectMapper;
+    private final InteractionEventService eventService;
+
+    @RabbitListener(queues = "#{listChangeQueue.name}", containerFactory = RabbitMqConfig.LIST_CHANGE_CONTAINER_FACTORY)
+    public void onMessages(List<Message> messages, Channel channel) throws IOException {
+        for (Message message : messages) {
+            try {
+                eventService.recordAll(read(message));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable list change message {}: {}",
+                        message.getMessageProperties().getMessageId(), e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Failed to record list change message {}", message.getMessageProperties().getMessageId(), e);
+            }
+        }
+        // Recording only touches memory, so the batch is acknowledged as soon as it is recorded
+        long lastDeliveryTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+        channel.basicAck(lastDeliveryTag, true);
+    }
+
+    private List<AnimeListChangeEvent> read(Message message) throws IOException {
+        Object schemaVersion = message.getMessageProperties().getHeader(SCHEMA_VERSION_HEADER);
+        if (schemaVersion != null) {
+            if (!String.valueOf(AnimeListChangeEventBatch.SCHEMA_VERSION).equals(schemaVersion.toString())) {
+                throw new IOException("unsupported schema version " + schemaVersion);
+            }
+            AnimeListChangeEventBatch batch = objectMapper.readValue(message.getBody(), AnimeListChangeEventBatch.class);
+            return batch.getEvents() != null ? batch.getEvents() : List.of();
+        }
+
+        Object typeId = message.getMessageProperties().getHeader(TYPE_ID_HEADER);
+        if (typeId != null && typeId.toString().endsWith("." + AnimeListChangeEvent.class.getSimpleName())) {
+            return List.of(objectMapper.readValue(message.getBody(), AnimeListChangeEvent.class));
+        }
+        throw new IOException("not a list change event (" + typeId + ")");
+    }
+}
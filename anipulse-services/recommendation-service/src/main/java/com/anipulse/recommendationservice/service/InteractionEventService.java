@@ -0,0 +1,226 @@
+package com.anipulse.recommendationservice.service;
+
+import com.anipulse.recommendationservice.config.RecommendationProperties;
+import com.anipulse.recommendationservice.dto.AnimeListChangeEvent;
+import com.anipulse.recommendationservice.engine.InteractionMatrix;
+import com.anipulse.recommendationservice.engine.InteractionUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest known state of every (user, anime) entry that list or rating events touched recently.
+ * Events arrive from several consumers at once, and may be redelivered: each entry keeps the sequence of the
+ * last list event and of the last rating event applied to it and drops anything older, so an entry ends up as
+ * if its user's events had been applied one by one in the order anime-service published them.
+ * Changed entries are marked dirty until {@link #drain} turns them into updates for the served model.
+ */
+@Service
+@Slf4j
+public class InteractionEventService {
+
+    private static final String COMPLETED = "COMPLETED";
+
+    private record Key(String userId, long animeId) {
+    }
+
+    /**
+     * Only touched inside ConcurrentHashMap.compute for its key
+     */
+    private static final class EntryState {
+        private long listSequence = -1;
+        private boolean listKnown;
+        // Score the list entry contributes, null unless it is COMPLETED
+        private Float listScore;
+        private long ratingSequence = -1;
+        private boolean ratingKnown;
+        // Overall rating, null once deleted
+        private Float rating;
+        private long updatedAt;
+    }
+
+    private final ConcurrentHashMap<Key, EntryState> states = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+    private final RecommendationProperties properties;
+    private final Counter appliedEvents;
+    private final Counter staleEvents;
+    private final Counter invalidEvents;
+
+    // Start of the running full load, entries changed since then are replayed onto the model it produces
+    private volatile long snapshotStartedAt = Long.MAX_VALUE;
+
+    public InteractionEventService(RecommendationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.appliedEvents = meterRegistry.counter("recommendation.events", "outcome", "applied");
+        this.staleEvents = meterRegistry.counter("recommendation.events", "outcome", "stale");
+        this.invalidEvents = meterRegistry.counter("recommendation.events", "outcome", "invalid");
+        meterRegistry.gauge("recommendation.events.pending", dirty, Set::size);
+    }
+
+    public void recordAll(Collection<AnimeListChangeEvent> events) {
+        for (AnimeListChangeEvent event : events) {
+            record(event);
+        }
+    }
+
+    public void record(AnimeListChangeEvent event) {
+        if (event.getType() == null || event.getUserId() == null || event.getAnimeId() == null) {
+            invalidEvents.increment();
+            return;
+        }
+
+        Key key = new Key(event.getUserId(), event.getAnimeId());
+        boolean[] applied = new boolean[1];
+        states.compute(key, (k, state) -> {
+            EntryState entry = state != null ? state : new EntryState();
+            applied[0] = apply(entry, event);
+            if (applied[0]) {
+                entry.updatedAt = System.currentTimeMillis();
+            }
+            return entry;
+        });
+
+        if (applied[0]) {
+            dirty.add(key);
+            appliedEvents.increment();
+        } else {
+            staleEvents.increment();
+        }
+    }
+
+    /**
+     * Turn the dirty entries into model updates, resolving which source wins against the current matrix:
+     * an explicit rating beats the list entry, a COMPLETED entry counts with its list rating or the implicit score.
+     * A rating deleted from an entry whose list state has not been seen since startup removes the interaction
+     * until the next retrain, which restores it if the entry is COMPLETED.
+     */
+    public List<InteractionUpdate> drain(InteractionMatrix current) {
+        prune();
+        float implicitScore = (float) properties.getImplicitScore();
+        List<InteractionUpdate> updates = new ArrayList<>();
+        for (Key key : dirty) {
+            if (!dirty.remove(key)) {
+                continue;
+            }
+            EntryState snapshot = snapshot(key);
+            if (snapshot == null) {
+                continue;
+            }
+
+            if (snapshot.ratingKnown && snapshot.rating != null) {
+                updates.add(InteractionUpdate.set(key.userId(), key.animeId(), snapshot.rating, true));
+                continue;
+            }
+            if (!snapshot.ratingKnown) {
+                // A list change never overrides a rating the model was trained with
+                int position = current.positionOf(key.userId(), key.animeId());
+                if (position >= 0 && current.isExplicitAt(position)) {
+                    continue;
+                }
+            }
+            if (snapshot.listKnown && snapshot.listScore != null) {
+                updates.add(InteractionUpdate.set(key.userId(), key.animeId(),
+                        snapshot.listScore.isNaN() ? implicitScore : snapshot.listScore, false));
+            } else {
+                updates.add(InteractionUpdate.remove(key.userId(), key.animeId()));
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Mark the entries of updates that could not be applied for the next drain
+     */
+    public void restore(List<InteractionUpdate> updates) {
+        for (InteractionUpdate update : updates) {
+            dirty.add(new Key(update.userId(), update.animeId()));
+        }
+    }
+
+    public int pendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Called before a full load starts, returns the time to pass to {@link #replaySince}
+     */
+    public long openSnapshot() {
+        long now = System.currentTimeMillis();
+        snapshotStartedAt = now;
+        return now;
+    }
+
+    /**
+     * Mark every entry changed since the load started dirty again: the load may have read its page of the
+     * feed before the change, and the model it produced replaced the one the change was applied to
+     */
+    public void replaySince(long since) {
+        states.forEach((key, state) -> {
+            if (state.updatedAt >= since) {
+                dirty.add(key);
+            }
+        });
+    }
+
+    public void closeSnapshot() {
+        snapshotStartedAt = Long.MAX_VALUE;
+    }
+
+    private static boolean apply(EntryState entry, AnimeListChangeEvent event) {
+        Long sequence = event.getSequence();
+        switch (event.getType()) {
+            case UPSERT, DELETE -> {
+                if (sequence != null && sequence <= entry.listSequence) {
+                    return false;
+                }
+                entry.listSequence = sequence != null ? sequence : entry.listSequence;
+                entry.listKnown = true;
+                boolean completed = event.getType() == AnimeListChangeEvent.Type.UPSERT
+                        && COMPLETED.equals(event.getStatus());
+                // NaN stands for a completed entry without a rating, scored with the implicit score on drain
+                entry.listScore = !completed ? null
+                        : event.getRating() != null ? event.getRating().floatValue() : Float.NaN;
+            }
+            case RATING_UPSERT, RATING_DELETE -> {
+                if (sequence != null && sequence <= entry.ratingSequence) {
+                    return false;
+                }
+                entry.ratingSequence = sequence != null ? sequence : entry.ratingSequence;
+                entry.ratingKnown = true;
+                entry.rating = event.getType() == AnimeListChangeEvent.Type.RATING_UPSERT && event.getRating() != null
+                        ? event.getRating().floatValue() : null;
+            }
+        }
+        return true;
+    }
+
+    private EntryState snapshot(Key key) {
+        EntryState[] copy = new EntryState[1];
+        states.computeIfPresent(key, (k, state) -> {
+            EntryState entry = new EntryState();
+            entry.listKnown = state.listKnown;
+            entry.listScore = state.listScore;
+            entry.ratingKnown = state.ratingKnown;
+            entry.rating = state.rating;
+            copy[0] = entry;
+            return state;
+        });
+        return copy[0];
+    }
+
+    // Forget entries nobody changed within the retention, except those a running load will replay
+    private void prune() {
+        long cutoff = Math.min(System.currentTimeMillis() - properties.getEventStateRetentionMs(), snapshotStartedAt);
+        for (Key key : states.keySet()) {
+            states.computeIfPresent(key, (k, state) ->
+                    state.updatedAt < cutoff && !dirty.contains(k) ? null : state);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.anipulse.recommendationservice.service;
+
+import com.anipulse.recommendationservice.client.AnimeServiceClient;
+import com.anipulse.recommendationservice.config.RecommendationProperties;
+import com.anipulse.recommendationservice.dto.RecommendationDTO;
+import com.anipulse.recommendationservice.dto.SimilarAnimeDTO;
+import com.anipulse.recommendationservice.engine.InteractionMatrix;
+import com.anipulse.recommendationservice.engine.InteractionUpdate;
+import com.anipulse.recommendationservice.engine.ItemNeighbors;
+import com.anipulse.recommendationservice.engine.ItemSimilarityTrainer;
+import com.anipulse.recommendationservice.engine.RecommendationModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Item-item collaborative filtering.
+ * Training pages every completed list entry and rating out of anime-service into an {@link InteractionMatrix}
+ * and computes the top-K neighbors of every anime on a dedicated fork/join pool; queries then only walk the
+ * user's own anime and their neighbor lists. A retrain builds the next model on the side and swaps it in.
+ * Between retrains, list and rating events from anime.exchange are applied every second or so
+ * (see {@link InteractionEventService}), so a newly completed anime shows up in recommendations within seconds.
+ */
+@Service
+@Slf4j
+public class RecommendationService {
+
+    private final AnimeServiceClient animeServiceClient;
+    private final InteractionEventService eventService;
+    private final RecommendationProperties properties;
+    private final ForkJoinPool trainingPool;
+    private final Timer loadTimer;
+    private final Timer similarityTimer;
+    private final Timer queryTimer;
+    private final Timer updateTimer;
+
+    private volatile RecommendationModel model;
+
+    public RecommendationService(AnimeServiceClient animeServiceClient,
+                                 InteractionEventService eventService,
+                                 RecommendationProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.animeServiceClient = animeServiceClient;
+        this.eventService = eventService;
+        this.properties = properties;
+        this.trainingPool = new ForkJoinPool(properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors());
+        this.loadTimer = meterRegistry.timer("recommendation.model.train", "phase", "load");
+        this.similarityTimer = meterRegistry.timer("recommendation.model.train", "phase", "similarity");
+        this.queryTimer = meterRegistry.timer("recommendation.query");
+        this.updateTimer = meterRegistry.timer("recommendation.model.update");
+        meterRegistry.gauge("recommendation.model.interactions", this,
+                service -> service.model != null ? service.model.matrix().interactionCount() : 0);
+        meterRegistry.gauge("recommendation.model.neighbor_pairs", this,
+                service -> service.model != null ? service.model.neighbors().pairCount() : 0);
+    }
+
+    public List<RecommendationDTO> recommend(String userId, int limit) {
+        RecommendationModel current = requireModel();
+        int n = Math.max(1, Math.min(limit, properties.getMaxResults()));
+        return queryTimer.record(() -> current.recommend(userId, n)).stream()
+                .map(recommendation -> RecommendationDTO.builder()
+                        .animeId(recommendation.animeId())
+                        .score(recommendation.score())
+                        .predictedRating(recommendation.predictedRating())
+                        .build())
+                .toList();
+    }
+
+    public List<SimilarAnimeDTO> similarAnime(Long animeId, int limit) {
+        RecommendationModel current = requireModel();
+        int n = Math.max(1, Math.min(limit, properties.getNeighbors()));
+        return current.similarTo(animeId, n).stream()
+                .map(neighbor -> SimilarAnimeDTO.builder()
+                        .animeId(neighbor.animeId())
+                        .similarity(neighbor.similarity())
+                        .build())
+                .toList();
+    }
+
+    @Scheduled(initialDelayString = "${app.recommendation.initial-delay-ms:15000}",
+            fixedDelayString = "${app.recommendation.retrain-interval-ms:21600000}")
+    public void retrain() {
+        try {
+            train();
+        } catch (Exception e) {
+            // The previous model keeps serving
+            log.warn("Recommendation model training failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.recommendation.update-interval-ms:1000}",
+            fixedDelayString = "${app.recommendation.update-interval-ms:1000}")
+    public void applyEvents() {
+        try {
+            applyPendingEvents();
+        } catch (Exception e) {
+            log.warn("Applying list events to the recommendation model failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build a model from the given interactions, replacing the served one
+     */
+    public synchronized RecommendationModel train(InteractionMatrix matrix) {
+        long start = System.nanoTime();
+        ItemNeighbors neighbors = similarityTimer.record(() -> ItemSimilarityTrainer.train(
+                matrix, properties.getNeighbors(), properties.getMinOverlap(), trainingPool));
+        RecommendationModel trained = new RecommendationModel(matrix, neighbors, System.currentTimeMillis());
+        model = trained;
+        log.info("Trained recommendation model in {} ms: {} interactions, {} users, {} anime, {} neighbor pairs",
+                (System.nanoTime() - start) / 1_000_000, matrix.interactionCount(), matrix.userCount(),
+                matrix.animeCount(), neighbors.pairCount());
+        return trained;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trainingPool.shutdownNow();
+    }
+
+    private void train() {
+        long since = eventService.openSnapshot();
+        try {
+            InteractionMatrix matrix = loadTimer.record(this::loadInteractions);
+            train(matrix);
+            eventService.replaySince(since);
+        } finally {
+            eventService.closeSnapshot();
+        }
+        applyPendingEvents();
+    }
+
+    /**
+     * Merge the pending events into the served model. Until the first model exists they keep accumulating.
+     */
+    private synchronized void applyPendingEvents() {
+        RecommendationModel current = model;
+        if (current == null) {
+            return;
+        }
+        List<InteractionUpdate> updates = eventService.drain(current.matrix());
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            model = updateTimer.record(() -> current.apply(
+                    updates, properties.getNeighbors(), properties.getMinOverlap()));
+        } catch (RuntimeException e) {
+            eventService.restore(updates);
+            throw e;
+        }
+        log.debug("Applied {} interaction updates to the recommendation model", updates.size());
+    }
+
+    // Completed entries first, so a rating of the same anime, added later, overrides them
+    private InteractionMatrix loadInteractions() {
+        RecommendationModel previous = model;
+        InteractionMatrix.Builder builder = InteractionMatrix.builder(
+                previous != null ? previous.matrix().interactionCount() : 1 << 16);
+        float implicitScore = (float) properties.getImplicitScore();
+
+        animeServiceClient.forEachInteraction(AnimeServiceClient.Feed.COMPLETED, interaction ->
+                builder.add(interaction.getUserId(), interaction.getAnimeId(),
+                        interaction.getScore() != null ? interaction.getScore().floatValue() : implicitScore));
+        animeServiceClient.forEachInteraction(AnimeServiceClient.Feed.RATINGS, interaction -> {
+            if (interaction.getScore() != null) {
+                builder.add(interaction.getUserId(), interaction.getAnimeId(),
+                        interaction.getScore().floatValue(), true);
+            }
+        });
+        return builder.build();
+    }
+
+    private RecommendationModel requireModel() {
+        RecommendationModel current = model;
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Recommendation model is still training");
+        }
+        return current;
+    }
+}
@@ -0,0 +1,189 @@
+package com.anipulse.recommendationservice.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the trainer with a direct adjusted cosine computation: center every score on its user's mean,
+ * dot product over the users two anime share, divided by the norms of the two full centered columns.
+ */
+class ItemSimilarityTrainerTest {
+
+    private static final int USERS = 60;
+    private static final int ANIME = 25;
+    private static final double TOLERANCE = 1e-5;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void matchesNaiveAdjustedCosine() {
+        float[][] scores = randomScores(new Random(7), 0.4);
+        InteractionMatrix matrix = toMatrix(scores);
+
+        for (int minOverlap : new int[]{1, 3, 6}) {
+            ItemNeighbors neighbors = ItemSimilarityTrainer.train(matrix, ANIME, minOverlap, pool);
+            for (int a = 0; a < ANIME; a++) {
+                assertSameNeighbors(naiveNeighbors(scores, a, minOverlap), neighbors, matrix, matrix.animeIndexOf(a));
+            }
+        }
+    }
+
+    @Test
+    void keepsOnlyTheKMostSimilar() {
+        float[][] scores = randomScores(new Random(11), 0.5);
+        InteractionMatrix matrix = toMatrix(scores);
+        int k = 4;
+
+        ItemNeighbors neighbors = ItemSimilarityTrainer.train(matrix, k, 1, pool);
+        for (int a = 0; a < ANIME; a++) {
+            List<Map.Entry<Long, Double>> expected = sortedDescending(naiveNeighbors(scores, a, 1));
+            int[] items = neighbors.itemsOf(matrix.animeIndexOf(a));
+            float[] similarities = neighbors.similaritiesOf(matrix.animeIndexOf(a));
+            assertEquals(Math.min(k, expected.size()), items.length);
+            for (int q = 0; q < items.length; q++) {
+                assertEquals(expected.get(q).getKey().longValue(), matrix.animeId(items[q]));
+                assertEquals(expected.get(q).getValue(), similarities[q], TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    void updateRecomputesChangedAnimeLikeAFullTrain() {
+        float[][] scores = randomScores(new Random(3), 0.4);
+        InteractionMatrix matrix = toMatrix(scores);
+        ItemNeighbors trained = ItemSimilarityTrainer.train(matrix, ANIME, 2, pool);
+
+        // One user completes anime 5, another drops anime 9
+        InteractionMatrix.Builder builder = InteractionMatrix.builder(matrix, matrix.interactionCount() + 1);
+        matrix.forEach((userId, animeId, score, explicit) -> {
+            if (!(userId.equals("user-1") && animeId == 9)) {
+                builder.add(userId, animeId, score, explicit);
+            }
+        });
+        builder.add("user-0", 5, 10f, true);
+        InteractionMatrix updated = builder.build();
+        scores[0][5] = 10f;
+        scores[1][9] = 0f;
+
+        int[] changed = {updated.animeIndexOf(5), updated.animeIndexOf(9)};
+        ItemNeighbors incremental = ItemSimilarityTrainer.update(updated, trained, changed, ANIME, 2);
+        for (long animeId : new long[]{5, 9}) {
+            assertSameNeighbors(naiveNeighbors(scores, (int) animeId, 2), incremental, updated,
+                    updated.animeIndexOf(animeId));
+        }
+    }
+
+    /**
+     * Scores 1-10, 0 where the user has no interaction
+     */
+    private static float[][] randomScores(Random random, double density) {
+        float[][] scores = new float[USERS][ANIME];
+        for (int u = 0; u < USERS; u++) {
+            for (int a = 0; a < ANIME; a++) {
+                if (random.nextDouble() < density) {
+                    scores[u][a] = 1 + random.nextInt(10);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static InteractionMatrix toMatrix(float[][] scores) {
+        InteractionMatrix.Builder builder = InteractionMatrix.builder(USERS * ANIME);
+        for (int u = 0; u < USERS; u++) {
+            for (int a = 0; a < ANIME; a++) {
+                if (scores[u][a] > 0) {
+                    builder.add("user-" + u, a, scores[u][a]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    // animeId -> similarity of every anime that qualifies as a neighbor of anime
+    private static Map<Long, Double> naiveNeighbors(float[][] scores, int anime, int minOverlap) {
+        double[][] centered = new double[USERS][ANIME];
+        for (int u = 0; u < USERS; u++) {
+            double sum = 0;
+            int count = 0;
+            for (int a = 0; a < ANIME; a++) {
+                if (scores[u][a] > 0) {
+                    sum += scores[u][a];
+                    count++;
+                }
+            }
+            for (int a = 0; a < ANIME; a++) {
+                if (scores[u][a] > 0) {
+                    centered[u][a] = scores[u][a] - sum / count;
+                }
+            }
+        }
+
+        Map<Long, Double> result = new HashMap<>();
+        double norm = columnNorm(scores, centered, anime);
+        for (int other = 0; other < ANIME; other++) {
+            if (other == anime) {
+                continue;
+            }
+            double dot = 0;
+            int overlap = 0;
+            for (int u = 0; u < USERS; u++) {
+                if (scores[u][anime] > 0 && scores[u][other] > 0) {
+                    dot += centered[u][anime] * centered[u][other];
+                    overlap++;
+                }
+            }
+            double otherNorm = columnNorm(scores, centered, other);
+            if (overlap >= Math.max(1, minOverlap) && dot > 0 && norm > 0 && otherNorm > 0) {
+                result.put((long) other, dot / (norm * otherNorm));
+            }
+        }
+        return result;
+    }
+
+    private static double columnNorm(float[][] scores, double[][] centered, int anime) {
+        double sum = 0;
+        for (int u = 0; u < USERS; u++) {
+            if (scores[u][anime] > 0) {
+                sum += centered[u][anime] * centered[u][anime];
+            }
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static List<Map.Entry<Long, Double>> sortedDescending(Map<Long, Double> similarities) {
+        List<Map.Entry<Long, Double>> entries = new ArrayList<>(similarities.entrySet());
+        entries.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+        return entries;
+    }
+
+    private static void assertSameNeighbors(Map<Long, Double> expected, ItemNeighbors neighbors,
+                                            InteractionMatrix matrix, int anime) {
+        int[] items = neighbors.itemsOf(anime);
+        float[] similarities = neighbors.similaritiesOf(anime);
+        assertEquals(expected.size(), items.length, "neighbor count of anime " + matrix.animeId(anime));
+        for (int q = 0; q < items.length; q++) {
+            Double similarity = expected.get(matrix.animeId(items[q]));
+            assertTrue(similarity != null, "unexpected neighbor " + matrix.animeId(items[q]));
+            assertEquals(similarity, similarities[q], TOLERANCE);
+            if (q > 0) {
+                assertTrue(similarities[q - 1] >= similarities[q], "neighbors sorted by similarity");
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.anipulse.recommendationservice.engine;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Training and query cost of the item-item engine at a million synthetic interactions.
+ * Skipped in normal builds, run with: mvn test -Dtest=RecommendationEngineBenchmark -Dbenchmark=true
+ * Anime popularity is skewed (a few titles collect most interactions) so columns look like production ones.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RecommendationEngineBenchmark {
+
+    private static final int USERS = 20_000;
+    private static final int ANIME = 15_000;
+    private static final int INTERACTIONS_PER_USER = 50;
+    private static final int K = 50;
+    private static final int MIN_OVERLAP = 3;
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final int MEASURED_QUERIES = 2_000;
+    private static final int UPDATES = 100;
+
+    @Test
+    void millionInteractions() {
+        Random random = new Random(42);
+
+        long buildStart = System.nanoTime();
+        InteractionMatrix.Builder builder = InteractionMatrix.builder(USERS * INTERACTIONS_PER_USER);
+        for (int u = 0; u < USERS; u++) {
+            // Distinct anime per user: an odd stride cycles through more than INTERACTIONS_PER_USER residues of ANIME
+            int start = skewed(random);
+            int stride = 1 + 2 * random.nextInt(64);
+            for (int i = 0; i < INTERACTIONS_PER_USER; i++) {
+                builder.add("user-" + u, (start + (long) i * stride) % ANIME, 1 + random.nextInt(10));
+            }
+        }
+        InteractionMatrix matrix = builder.build();
+        double buildMs = (System.nanoTime() - buildStart) / 1e6;
+        assertEquals(USERS * INTERACTIONS_PER_USER, matrix.interactionCount());
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        ItemNeighbors neighbors;
+        long trainStart = System.nanoTime();
+        try {
+            neighbors = ItemSimilarityTrainer.train(matrix, K, MIN_OVERLAP, pool);
+        } finally {
+            pool.shutdown();
+        }
+        double trainMs = (System.nanoTime() - trainStart) / 1e6;
+        RecommendationModel model = new RecommendationModel(matrix, neighbors, System.currentTimeMillis());
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            checksum += model.recommend("user-" + random.nextInt(USERS), 20).size();
+        }
+        long queryStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            checksum += model.recommend("user-" + random.nextInt(USERS), 20).size();
+        }
+        double queryMs = (System.nanoTime() - queryStart) / 1e6 / MEASURED_QUERIES;
+        assertTrue(checksum > 0);
+
+        List<InteractionUpdate> updates = new ArrayList<>(UPDATES);
+        for (int i = 0; i < UPDATES; i++) {
+            updates.add(InteractionUpdate.set("user-" + random.nextInt(USERS), skewed(random), 1 + random.nextInt(10), true));
+        }
+        long applyStart = System.nanoTime();
+        RecommendationModel updated = model.apply(updates, K, MIN_OVERLAP);
+        double applyMs = (System.nanoTime() - applyStart) / 1e6;
+        assertTrue(updated.matrix().interactionCount() >= matrix.interactionCount());
+
+        System.out.printf("RecommendationEngine: %d interactions, %d users, %d anime, %d pairs; build %.0f ms, "
+                        + "train %.0f ms, recommend %.3f ms/query, apply %d updates %.0f ms%n",
+                matrix.interactionCount(), matrix.userCount(), matrix.animeCount(), neighbors.pairCount(),
+                buildMs, trainMs, queryMs, UPDATES, applyMs);
+    }
+
+    // Squared uniform: low anime indexes are far more popular
+    private static int skewed(Random random) {
+        double x = random.nextDouble();
+        return (int) (x * x * ANIME);
+    }
+}
@@ -0,0 +1,94 @@
+package com.anipulse.recommendationservice.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecommendationModelTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Anime 1-3 are liked together, 4-5 together, and the two groups by different users.
+     * "fan" has seen 1 and 2 and liked them above their mean, "flat" completed 4 without ratings.
+     */
+    private RecommendationModel model() {
+        InteractionMatrix.Builder builder = InteractionMatrix.builder(64);
+        for (int u = 0; u < 4; u++) {
+            String userId = "a-" + u;
+            builder.add(userId, 1, 9).add(userId, 2, 9).add(userId, 3, 8).add(userId, 4, 3).add(userId, 5, 2);
+        }
+        for (int u = 0; u < 4; u++) {
+            String userId = "b-" + u;
+            builder.add(userId, 1, 2).add(userId, 2, 3).add(userId, 3, 2).add(userId, 4, 9).add(userId, 5, 8);
+        }
+        builder.add("fan", 1, 10).add("fan", 2, 9).add("fan", 4, 2);
+        builder.add("flat", 4, 7f, false);
+        InteractionMatrix matrix = builder.build();
+        return new RecommendationModel(matrix, ItemSimilarityTrainer.train(matrix, 10, 2, pool), 0L);
+    }
+
+    @Test
+    void recommendsUnseenAnimeFromNeighborsOfLikedOnes() {
+        List<RecommendationModel.Recommendation> recommendations = model().recommend("fan", 10);
+
+        assertEquals(1, recommendations.size());
+        RecommendationModel.Recommendation top = recommendations.get(0);
+        assertEquals(3L, top.animeId());
+        assertTrue(top.score() > 0);
+        assertTrue(top.predictedRating() >= 1 && top.predictedRating() <= 10);
+    }
+
+    @Test
+    void neverRecommendsAnimeTheUserAlreadyHas() {
+        RecommendationModel model = model();
+        for (String userId : List.of("fan", "a-0", "b-1", "flat")) {
+            InteractionMatrix matrix = model.matrix();
+            for (RecommendationModel.Recommendation recommendation : model.recommend(userId, 10)) {
+                assertTrue(matrix.positionOf(userId, recommendation.animeId()) < 0,
+                        userId + " already has " + recommendation.animeId());
+            }
+        }
+    }
+
+    @Test
+    void flatUserCountsEveryAnimeAsLiked() {
+        RecommendationModel model = model();
+        List<RecommendationModel.Recommendation> recommendations = model.recommend("flat", 10);
+
+        assertEquals(5L, recommendations.get(0).animeId());
+        // Without spread around the mean the prediction is the mean itself
+        assertEquals(7.0, recommendations.get(0).predictedRating(), 1e-6);
+    }
+
+    @Test
+    void unknownUserOrNonPositiveLimitGetsNothing() {
+        RecommendationModel model = model();
+        assertTrue(model.recommend("nobody", 10).isEmpty());
+        assertTrue(model.recommend("fan", 0).isEmpty());
+    }
+
+    @Test
+    void similarToIsBoundedAndOrdered() {
+        RecommendationModel model = model();
+        List<RecommendationModel.Neighbor> all = model.similarTo(1, 10);
+        List<RecommendationModel.Neighbor> top = model.similarTo(1, 1);
+
+        assertEquals(1, top.size());
+        assertEquals(all.get(0), top.get(0));
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).similarity() >= all.get(i).similarity());
+        }
+        assertTrue(model.similarTo(999, 10).isEmpty());
+    }
+}
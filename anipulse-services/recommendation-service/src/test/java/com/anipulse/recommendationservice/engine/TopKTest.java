@@ -0,0 +1,49 @@
+package com.anipulse.recommendationservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopKTest {
+
+    @Test
+    void keepsTheLargestKAndDrainsThemDescending() {
+        TopK top = new TopK(3);
+        double[] values = {0.5, 0.9, 0.1, 0.7, 0.3, 0.8};
+        for (int id = 0; id < values.length; id++) {
+            top.offer(id, values[id]);
+        }
+        assertEquals(3, top.size());
+
+        int[] ids = new int[3];
+        double[] drained = new double[3];
+        top.drainDescending(ids, drained);
+        assertArrayEquals(new int[]{1, 5, 3}, ids);
+        assertEquals(0.9, drained[0], 1e-12);
+        assertEquals(0.7, drained[2], 1e-12);
+        assertEquals(0, top.size());
+    }
+
+    @Test
+    void holdsFewerThanKWhenFewerAreOffered() {
+        TopK top = new TopK(10);
+        top.offer(7, 0.2);
+        top.offer(4, 0.6);
+
+        int[] ids = new int[top.size()];
+        top.drainDescending(ids, new double[ids.length]);
+        assertArrayEquals(new int[]{4, 7}, ids);
+    }
+
+    @Test
+    void nonPositiveKKeepsOne() {
+        TopK top = new TopK(0);
+        top.offer(1, 0.1);
+        top.offer(2, 0.4);
+
+        int[] ids = new int[top.size()];
+        top.drainDescending(ids, new double[ids.length]);
+        assertArrayEquals(new int[]{2}, ids);
+    }
+}
@@ -0,0 +1,83 @@
+package com.anipulse.recommendationservice.listener;
+
+import com.anipulse.recommendationservice.dto.AnimeListChangeEvent;
+import com.anipulse.recommendationservice.dto.AnimeListChangeEventBatch;
+import com.anipulse.recommendationservice.service.InteractionEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class ListChangeListenerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InteractionEventService eventService = mock(InteractionEventService.class);
+    private final Channel channel = mock(Channel.class);
+    private final ListChangeListener listener = new ListChangeListener(objectMapper, eventService);
+
+    private static AnimeListChangeEvent event(long animeId, long sequence) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.UPSERT)
+                .userId("alice")
+                .animeId(animeId)
+                .status("COMPLETED")
+                .sequence(sequence)
+                .build();
+    }
+
+    private Message batch(long deliveryTag, AnimeListChangeEvent... events) throws Exception {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setHeader("x-schema-version", AnimeListChangeEventBatch.SCHEMA_VERSION);
+        byte[] body = objectMapper.writeValueAsBytes(AnimeListChangeEventBatch.builder()
+                .schemaVersion(AnimeListChangeEventBatch.SCHEMA_VERSION)
+                .events(List.of(events))
+                .build());
+        return new Message(body, properties);
+    }
+
+    private static Message unreadable(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setHeader("x-schema-version", AnimeListChangeEventBatch.SCHEMA_VERSION);
+        return new Message("{not json".getBytes(), properties);
+    }
+
+    @Test
+    void batchesAreRecordedAndAcknowledgedTogether() throws Exception {
+        listener.onMessages(List.of(batch(1, event(1, 1), event(2, 2)), batch(2, event(3, 3))), channel);
+
+        verify(eventService).recordAll(List.of(event(1, 1), event(2, 2)));
+        verify(eventService).recordAll(List.of(event(3, 3)));
+        verify(channel).basicAck(2, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void unreadableMessageIsSkippedAndAcknowledged() throws Exception {
+        listener.onMessages(List.of(unreadable(1), batch(2, event(1, 1))), channel);
+
+        verify(eventService).recordAll(List.of(event(1, 1)));
+        verify(channel).basicAck(2, true);
+    }
+
+    @Test
+    void failedRecordDoesNotStopTheBatch() throws Exception {
+        doThrow(new IllegalStateException("boom")).when(eventService).recordAll(List.of(event(1, 1)));
+
+        listener.onMessages(List.of(batch(1, event(1, 1)), batch(2, event(2, 2))), channel);
+
+        verify(eventService, times(2)).recordAll(anyList());
+        verify(channel).basicAck(2, true);
+    }
+}
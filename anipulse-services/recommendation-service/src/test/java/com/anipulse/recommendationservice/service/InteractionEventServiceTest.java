@@ -0,0 +1,137 @@
+package com.anipulse.recommendationservice.service;
+
+import com.anipulse.recommendationservice.config.RecommendationProperties;
+import com.anipulse.recommendationservice.dto.AnimeListChangeEvent;
+import com.anipulse.recommendationservice.engine.InteractionMatrix;
+import com.anipulse.recommendationservice.engine.InteractionUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InteractionEventServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InteractionEventService service =
+            new InteractionEventService(new RecommendationProperties(), meterRegistry);
+    private final InteractionMatrix empty = InteractionMatrix.builder(4).build();
+
+    private static AnimeListChangeEvent completed(long sequence, double rating) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.UPSERT)
+                .userId("alice")
+                .animeId(1L)
+                .status("COMPLETED")
+                .rating(rating)
+                .sequence(sequence)
+                .build();
+    }
+
+    private static AnimeListChangeEvent watching(long sequence) {
+        return AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.UPSERT)
+                .userId("alice")
+                .animeId(1L)
+                .status("WATCHING")
+                .sequence(sequence)
+                .build();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("recommendation.events", "outcome", outcome).count();
+    }
+
+    @Test
+    void olderEventArrivingLateIsDropped() {
+        service.record(completed(5, 8));
+        service.record(watching(3));
+
+        assertEquals(List.of(InteractionUpdate.set("alice", 1, 8f, false)), service.drain(empty));
+        assertEquals(1.0, count("applied"));
+        assertEquals(1.0, count("stale"));
+    }
+
+    @Test
+    void redeliveredEventIsDropped() {
+        service.record(completed(5, 8));
+        service.drain(empty);
+
+        service.record(completed(5, 8));
+
+        assertEquals(0, service.pendingCount());
+        assertTrue(service.drain(empty).isEmpty());
+        assertEquals(1.0, count("stale"));
+    }
+
+    @Test
+    void listAndRatingSequencesAreTrackedSeparately() {
+        service.record(completed(5, 8));
+        service.record(AnimeListChangeEvent.builder()
+                .type(AnimeListChangeEvent.Type.RATING_UPSERT)
+                .userId("alice")
+                .animeId(1L)
+                .rating(10.0)
+                .sequence(4L)
+                .build());
+
+        // The rating is older than the list event but not stale, and an explicit rating beats the list entry
+        assertEquals(List.of(InteractionUpdate.set("alice", 1, 10f, true)), service.drain(empty));
+    }
+
+    @Test
+    void eventDuringRetrainIsReplayedOntoTheNewModel() throws InterruptedException {
+        service.record(completed(1, 6));
+        service.drain(empty);
+        // Recorded before the load started, so already part of what it reads
+        Thread.sleep(5);
+
+        long since = service.openSnapshot();
+        service.record(watching(2));
+        // Applied to the model still served while the load runs
+        assertEquals(List.of(InteractionUpdate.remove("alice", 1)), service.drain(empty));
+
+        service.replaySince(since);
+        service.closeSnapshot();
+
+        // The trained model replaced the one the event went into, so it is applied again
+        assertEquals(List.of(InteractionUpdate.remove("alice", 1)), service.drain(empty));
+        assertTrue(service.drain(empty).isEmpty());
+    }
+
+    @Test
+    void entriesUnchangedSinceSnapshotAreNotReplayed() throws InterruptedException {
+        service.record(completed(1, 6));
+        service.drain(empty);
+        Thread.sleep(5);
+
+        long since = service.openSnapshot();
+        service.replaySince(since);
+        service.closeSnapshot();
+
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void restoredUpdatesAreDrainedAgain() {
+        service.record(completed(1, 9));
+        List<InteractionUpdate> updates = service.drain(empty);
+        assertEquals(0, service.pendingCount());
+
+        // What applyPendingEvents does when the model update throws
+        service.restore(updates);
+
+        assertEquals(1, service.pendingCount());
+        assertEquals(updates, service.drain(empty));
+    }
+
+    @Test
+    void eventWithoutKeyIsCountedInvalid() {
+        service.record(AnimeListChangeEvent.builder().type(AnimeListChangeEvent.Type.DELETE).userId("alice").build());
+
+        assertEquals(0, service.pendingCount());
+        assertEquals(1.0, count("invalid"));
+    }
+}